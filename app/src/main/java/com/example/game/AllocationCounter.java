@@ -0,0 +1,89 @@
+package com.example.game;
+
+import android.os.Debug;
+import android.util.Log;
+
+public class AllocationCounter
+{
+    // Number of frames counted between each report to the log
+    private static final int REPORT_FRAMES = 120;
+
+    // Whether allocation counting is on. Only turned on in debuggable builds,
+    // since counting slows allocation down for the whole app.
+    private static volatile boolean enabled = false;
+
+    // Name of the frame phase being counted, shown in the log
+    private final String phase;
+
+    // Thread allocation count when the current frame started
+    private int frameStart;
+
+    // Frames counted and objects allocated during them since the last report
+    private int frames;
+    private long allocations;
+
+    // Constructor for a counter of a given frame phase. Each counter must only
+    // be used by one thread.
+    public AllocationCounter(String phase)
+    {
+        this.phase = phase;
+    }
+
+    // === GETTERS ===
+
+    // Returns whether allocation counting is on
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    // === SETTERS ===
+
+    // Turns allocation counting on or off for every counter
+    public static void setEnabled(boolean e)
+    {
+        if(e && !enabled)
+        {
+            Debug.startAllocCounting();
+        }
+        else if(!e && enabled)
+        {
+            Debug.stopAllocCounting();
+        }
+        enabled = e;
+    }
+
+    // === OTHER METHODS ===
+
+    // Marks the start of a frame on the calling thread
+    public void startFrame()
+    {
+        if(enabled)
+        {
+            frameStart = Debug.getThreadAllocCount();
+        }
+    }
+
+    // Marks the end of a frame on the calling thread. Every REPORT_FRAMES
+    // frames, logs how many objects were allocated if any were, since the
+    // frame loop is meant to allocate nothing once a level is running.
+    public void endFrame()
+    {
+        if(!enabled)
+        {
+            return;
+        }
+
+        allocations += Debug.getThreadAllocCount() - frameStart;
+        frames++;
+        if(frames == REPORT_FRAMES)
+        {
+            if(allocations > 0)
+            {
+                Log.w("ALLOCATIONS", phase + " allocated " + allocations + " objects in " + frames + " frames");
+            }
+            frames = 0;
+            allocations = 0;
+        }
+    }
+}
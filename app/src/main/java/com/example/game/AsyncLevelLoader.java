@@ -0,0 +1,202 @@
+package com.example.game;
+
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+public class AsyncLevelLoader implements Runnable
+{
+    // Stages a level goes through while loading, in order: reading the level
+    // file into the simulated world, decoding its images, scaling them into the
+    // screen-sized static layers, and handing the level to the UI thread
+    public static final int STAGE_PARSE = 0;
+    public static final int STAGE_DECODE = 1;
+    public static final int STAGE_SCALE = 2;
+    public static final int STAGE_HAND_OFF = 3;
+    public static final int STAGE_COUNT = 4;
+
+    // Receives a loader's progress and result, always on the UI thread
+    public interface Listener
+    {
+        // Called as each stage starts, with the stage number
+        void onLoadProgress(int stage);
+
+        // Called with the level once every asset is ready
+        void onLevelLoaded(Level level);
+
+        // Called instead of onLevelLoaded if the level couldn't be loaded
+        void onLoadFailed(Exception e);
+    }
+
+    // Most threads images are decoded on at once. Decoding is mostly memory
+    // bound, so a couple of threads is enough, and they're kept below the
+    // priority of the UI thread so loading never makes it stutter.
+    private static final int DECODE_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+
+    // Pool every level's images are decoded on, shared by every loader
+    private static ExecutorService decodePool;
+
+    // Resources the level is read from, the screen size it's drawn at, and the
+    // level to load
+    private final Resources res;
+    private final int screenX, screenY;
+    private final int levelNum;
+
+    // Receives the loader's progress and result, and the UI thread's handler
+    // they're posted through
+    private final Listener listener;
+    private final Handler mainHandler;
+
+    // Thread running the stages, and whether the load has been abandoned
+    private Thread thread;
+    private volatile boolean cancelled;
+
+    // Constructor for a loader of a given level, drawn at a given screen size
+    public AsyncLevelLoader(Resources res, int screenX, int screenY, int levelNum, Listener listener)
+    {
+        this.res = res;
+        this.screenX = screenX;
+        this.screenY = screenY;
+        this.levelNum = levelNum;
+        this.listener = listener;
+        mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    // === OTHER METHODS ===
+
+    // Returns the pool images are decoded on, creating it the first time.
+    // Its threads run at background priority.
+    public static synchronized ExecutorService getDecodePool()
+    {
+        if(decodePool == null)
+        {
+            decodePool = Executors.newFixedThreadPool(DECODE_THREADS, new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(final Runnable r)
+                {
+                    Thread t = new Thread(new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            r.run();
+                        }
+                    }, "LevelDecoder");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return decodePool;
+    }
+
+    // Starts loading the level. Called from the UI thread.
+    public void start()
+    {
+        thread = new Thread(this, "LevelLoader");
+        thread.start();
+    }
+
+    // Abandons the load. The listener hears nothing more, and a level that
+    // finishes loading anyway has its sprites handed back. Called from the UI
+    // thread, e.g. when the player leaves before the level is ready.
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    // Runs each stage in turn on the loader's thread, fanning the decoding out
+    // across the decode pool
+    @Override
+    public void run()
+    {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        Level level = null;
+        try
+        {
+            postProgress(STAGE_PARSE);
+            level = new Level(res, screenX, screenY, levelNum);
+
+            postProgress(STAGE_DECODE);
+            level.decodeImages(getDecodePool());
+
+            postProgress(STAGE_SCALE);
+            level.bakeStaticLayers();
+
+            postProgress(STAGE_HAND_OFF);
+            postLoaded(level);
+        }
+        catch (Exception e)
+        {
+            Log.d("LEVEL ERROR", "Could not load level " + levelNum + ".");
+            e.printStackTrace();
+            if(level != null)
+            {
+                level.releaseSprites();
+            }
+            postFailed(e);
+        }
+    }
+
+    // Tells the listener a stage has started, unless the load was abandoned
+    private void postProgress(final int stage)
+    {
+        mainHandler.post(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if(!cancelled)
+                {
+                    listener.onLoadProgress(stage);
+                }
+            }
+        });
+    }
+
+    // Hands the loaded level to the listener, or hands its sprites back if the
+    // load was abandoned. Checked on the UI thread, where cancel() is called, so
+    // the level always goes to exactly one of the two.
+    private void postLoaded(final Level level)
+    {
+        mainHandler.post(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if(cancelled)
+                {
+                    level.releaseSprites();
+                }
+                else
+                {
+                    listener.onLevelLoaded(level);
+                }
+            }
+        });
+    }
+
+    // Tells the listener the level couldn't be loaded, unless the load was abandoned
+    private void postFailed(final Exception e)
+    {
+        mainHandler.post(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if(!cancelled)
+                {
+                    listener.onLoadFailed(e);
+                }
+            }
+        });
+    }
+}
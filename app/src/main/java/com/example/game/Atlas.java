@@ -0,0 +1,135 @@
+package com.example.game;
+
+import android.content.res.AssetManager;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Rect;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class Atlas
+{
+    // Assets folder the atlas pages and index are packed into at build time by
+    // the packSpriteAtlas Gradle task
+    private static final String ATLAS_DIR = "atlas";
+
+    // The one atlas shared by the whole app, loaded the first time it's needed
+    private static Atlas instance;
+
+    // Part of an atlas page holding one sprite
+    public static class Region
+    {
+        // Page the sprite is on and where on the page it is
+        private final Bitmap page;
+        private final Rect bounds;
+
+        // Constructor for a region of a given page
+        private Region(Bitmap page, int left, int top, int width, int height)
+        {
+            this.page = page;
+            bounds = new Rect(left, top, left + width, top + height);
+        }
+
+        // Returns the atlas page the sprite is on
+        public Bitmap getPage()
+        {
+            return page;
+        }
+
+        // Returns where on its page the sprite is
+        public Rect getBounds()
+        {
+            return bounds;
+        }
+    }
+
+    // Resources the sprites' drawable names are looked up in
+    private final Resources res;
+
+    // Regions of every packed sprite, by drawable name
+    private final HashMap<String, Region> regions;
+
+    // Constructor for the atlas, decoding every page from the app's assets
+    private Atlas(Resources res)
+    {
+        this.res = res;
+        regions = new HashMap<>();
+        load(res.getAssets());
+    }
+
+    // Returns the atlas shared by the whole app, loading it if it hasn't been already
+    public static synchronized Atlas getInstance(Resources res)
+    {
+        if(instance == null)
+        {
+            instance = new Atlas(res);
+        }
+        return instance;
+    }
+
+    // === GETTERS ===
+
+    // Returns the region of a given drawable in the atlas, or null if the
+    // drawable wasn't packed
+    public Region getRegion(int resId)
+    {
+        Region region = regions.get(res.getResourceEntryName(resId));
+        if(region == null)
+        {
+            Log.d("IMAGE ERROR", "Sprite is missing from the atlas.");
+        }
+        return region;
+    }
+
+    // === OTHER METHODS ===
+
+    // Reads the atlas index, decoding each page the first time a sprite on it is
+    // listed. Each index line is "name page left top width height".
+    private void load(AssetManager assets)
+    {
+        ArrayList<Bitmap> pages = new ArrayList<>();
+        try
+        {
+            BufferedReader index = new BufferedReader(new InputStreamReader(assets.open(ATLAS_DIR + "/atlas.idx")));
+            String line;
+            while((line = index.readLine()) != null)
+            {
+                String[] fields = line.trim().split(" ");
+                if(fields.length < 6)
+                {
+                    continue;
+                }
+
+                int page = Integer.parseInt(fields[1]);
+                while(pages.size() <= page)
+                {
+                    pages.add(loadPage(assets, pages.size()));
+                }
+                regions.put(fields[0], new Region(pages.get(page), Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                        Integer.parseInt(fields[4]), Integer.parseInt(fields[5])));
+            }
+            index.close();
+        }
+        catch (IOException e)
+        {
+            Log.d("IMAGE ERROR", "Could not read the sprite atlas.");
+            e.printStackTrace();
+        }
+    }
+
+    // Decodes a given atlas page from the app's assets
+    private Bitmap loadPage(AssetManager assets, int page) throws IOException
+    {
+        InputStream in = assets.open(ATLAS_DIR + "/page" + page + ".png");
+        Bitmap image = BitmapFactory.decodeStream(in);
+        in.close();
+        return image;
+    }
+}
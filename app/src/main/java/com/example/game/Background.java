@@ -2,11 +2,10 @@ package com.example.game;
 
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import com.example.logindemo.R;
 
+import com.example.game.engine.PlatformBody;
+
 public class Background
 {
     private int x = 0, y = 0;
@@ -17,37 +16,31 @@ public class Background
     // Default constructor, uses "daytime" background
     Background(int screenX, int screenY, Resources res)
     {
-        image = BitmapFactory.decodeResource(res, R.drawable.daytime);
-
         // screenX and screenY = width and height of background PNG, respectively
-        image = Bitmap.createScaledBitmap(image, screenX, screenY, false);
+        image = SpriteCache.getInstance().acquire(res, R.drawable.daytime, screenX, screenY, false);
     }
 
     // Custom constructor, allows you to choose which background is used
     Background(int screenX, int screenY, Resources res, String selection)
     {
-        // Selects one of three backgrounds and retrieves the image
-        if(selection.equals("DAY"))
-        {
-            image = BitmapFactory.decodeResource(res, R.drawable.daytime);
-        }
-        else if(selection.equals("NIGHT"))
+        // Selects one of three backgrounds
+        int imageId = R.drawable.daytime;
+        if(selection.equals("NIGHT"))
         {
-            image = BitmapFactory.decodeResource(res, R.drawable.night);
+            imageId = R.drawable.night;
         }
         else if(selection.equals("SPACE"))
         {
-            image = BitmapFactory.decodeResource(res, R.drawable.space);
+            imageId = R.drawable.space;
         }
         else if(selection.equals("FACILITY"))
         {
-            image = BitmapFactory.decodeResource(res, R.drawable.facility);
+            imageId = R.drawable.facility;
         }
 
-        // Scales the background PNG to the size of the device screen
+        // Retrieves the background PNG scaled to the size of the device screen
         // screenX and screenY = width and height of background PNG, respectively
-        image = Bitmap.createScaledBitmap(image, screenX, screenY, false);
-
+        image = SpriteCache.getInstance().acquire(res, imageId, screenX, screenY, false);
     }
 
     // === GETTERS ===
@@ -72,10 +65,16 @@ public class Background
 
     // === OTHER METHODS ===
 
-    // Draws Background image to the game Canvas
-    // Draws the background of the level
-    public void drawBackground(Canvas levelMap, Paint paintInfo)
+    // Hands the background image back to the sprite cache
+    public void releaseImage()
+    {
+        SpriteCache.getInstance().release(image);
+        image = null;
+    }
+
+    // Draws the background of the level, stretched over the whole design space
+    public void drawBackground(WorldSnapshot frame)
     {
-        levelMap.drawBitmap(image, x, y, paintInfo);
+        frame.addSprite(image, x, y, x, y, PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT, 255);
     }
 }
@@ -1,32 +1,27 @@
 package com.example.game;
 
-import static com.example.game.GameView.screenRatioX;
-import static com.example.game.GameView.screenRatioY;
-
 import android.content.res.Resources;
-import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Rect;
 import android.util.Log;
 import android.view.MotionEvent;
 import com.example.logindemo.R;
 
+import com.example.game.engine.Aabb;
+
 public class CanvasButton
 {
     // x-y coordinates of the button drawn onto the Canvas
     private int x, y;
 
-    // Width and height of the button's Bitmap image and boundaries
+    // Width and height of the button's sprite and boundaries
     private int width, height;
 
     // Link to the player object for saving time states
     private Player playerChar;
 
-    // Bitmap image set of the button and the index for the button's current
-    // image
-    private Bitmap[] images;
+    // Atlas sprite set of the button and the index for the button's current
+    // sprite
+    private Atlas.Region[] sprites;
     private int spriteNum;
 
     // Type of the button, defines what the button does when user taps inside its
@@ -39,13 +34,16 @@ public class CanvasButton
     // Hiding variable to determine whether the button is visible on-screen
     private boolean show;
 
+    // Collision box of the button, made once since the button doesn't move
+    private Aabb bounds;
+
     // Constructor for the image button. String "type" defines the function
     // and look of the button.
     public CanvasButton(int x, int y, String type, Player pChar, GameView gv, Resources res)
     {
-        // Initializes the x-y coordinates of the button, adjusted for screen size
-        this.x = (int)(x*screenRatioX);
-        this.y = (int)(y*screenRatioY);
+        // Initializes the x-y coordinates of the button
+        this.x = x;
+        this.y = y;
 
         // Initializes the type of the button to determine what function it activates
         // upon being tapped
@@ -65,6 +63,7 @@ public class CanvasButton
         // Creates the button and its functionality based on what String
         // is inputted
         createButton(type, res);
+        bounds = new Aabb(this.x, this.y, this.x + width, this.y + height);
     }
 
     // === GETTERS ===
@@ -93,10 +92,10 @@ public class CanvasButton
         return height;
     }
 
-    // Returns the Bitmap image of the button
-    public Bitmap getImage()
+    // Returns the atlas sprite of the button
+    public Atlas.Region getSprite()
     {
-        return images[spriteNum];
+        return sprites[spriteNum];
     }
 
     // Returns the sprite number of the button
@@ -122,23 +121,26 @@ public class CanvasButton
     // === OTHER METHODS ===
 
     // Creates the button and its functionality based on what String was
-    // inputted. Each type of button has its own set of one or more images.
+    // inputted. Each type of button has its own set of one or more sprites.
     public void createButton(String type, Resources res)
     {
+        Atlas atlas = Atlas.getInstance(res);
+
         // Button for saving a time state to return to
         if(type.equals("SAVESTATE"))
         {
             // Shows the button by default
             show = true;
 
-            // Retrieves the TimeState saving button PNGs and halves their dimensions.
+            // Retrieves the TimeState saving button sprites and halves their dimensions.
             // TimeState saving buttons have two associated PNGs: one for saving and one
             // for returning.
-            images = new Bitmap[2];
-            images[0] = BitmapFactory.decodeResource(res, R.drawable.timesave_button);
-            images[1] = BitmapFactory.decodeResource(res, R.drawable.timereturn_button);
-            width = images[0].getWidth()/2;
-            height = images[0].getHeight()/2;
+            sprites = new Atlas.Region[2];
+            sprites[0] = atlas.getRegion(R.drawable.timesave_button);
+            sprites[1] = atlas.getRegion(R.drawable.timereturn_button);
+            BitmapFactory.Options size = measure(res, R.drawable.timesave_button);
+            width = size.outWidth/2;
+            height = size.outHeight/2;
         }
         else if(type.equals("TIMECHANGE"))
         {
@@ -146,113 +148,122 @@ public class CanvasButton
             // this button
             show = false;
 
-            // Retrieves the time-changing button PNG and scales it to 3/7 size
-            images = new Bitmap[1];
-            images[0] = BitmapFactory.decodeResource(res, R.drawable.time_change_button);
-            width = (int)(images[0].getWidth()*(3/7f));
-            height = (int)(images[0].getHeight()*(3/7f));
+            // Retrieves the time-changing button sprite and scales it to 3/7 size
+            sprites = new Atlas.Region[1];
+            sprites[0] = atlas.getRegion(R.drawable.time_change_button);
+            BitmapFactory.Options size = measure(res, R.drawable.time_change_button);
+            width = (int)(size.outWidth*(3/7f));
+            height = (int)(size.outHeight*(3/7f));
         }
 
-        // Scales the button to device screen size
-        if(images != null)
+        // If the button PNGs couldn't be retrieved for use, send an error message.
+        // The sprites are scaled to the button's size as they're drawn.
+        if(sprites == null)
         {
-            width = (int)(width*screenRatioX);
-            height = (int)(height*screenRatioY);
-
-            // Creates the final, scaled image of the button
-            for(int i = 0; i < images.length; i++)
-            {
-                images[i] = Bitmap.createScaledBitmap(images[i], width, height, false);
-            }
+            Log.d("IMAGE ERROR", "Failed to decode and use button image(s).");
         }
-        // If the button PNGs couldn't be retrieved for use, send an error message
-        else
+    }
+
+    // Reads the size a button's drawable has in design space without decoding
+    // its pixels, which sets how big the button is drawn
+    private BitmapFactory.Options measure(Resources res, int resId)
+    {
+        BitmapFactory.Options options = ResourceSpriteMetrics.designOptions();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(res, resId, options);
+        return options;
+    }
+
+    // Returns whether a touch is within the button's area while it's visible.
+    // Called from the UI thread, which leaves the button's function to press().
+    public boolean isTapped(MotionEvent event)
+    {
+        // Only allows use of the button if it's visible
+        if(!show)
         {
-            Log.d("IMAGE ERROR", "Failed to decode and use button image(s).");
+            return false;
         }
+
+        // Temporarily stores x-y coordinates of where the user tapped the screen,
+        // in design space, to check whether the user clicked the button
+        float xTap = currentGV.toDesignX(event.getX());
+        float yTap = currentGV.toDesignY(event.getY());
+        return xTap >= x && xTap <= x + width && yTap >= y && yTap <= y + height;
     }
 
-    // Performs a function upon tapping within the button's area, based on the
-    // button's type
-    public void buttonClick(MotionEvent event)
+    // Performs the button's function, based on the button's type, if it's still
+    // visible. Called from the simulation thread at the start of the tick after
+    // the button was tapped.
+    public void press()
     {
         // Only allows use of the button if it's visible
         if(show)
         {
-            // Temporarily stores x-y coordinates of where the user tapped the screen to
-            // check whether the user clicked the button
-            float xTap = event.getX();
-            float yTap = event.getY();
-
-            // If user taps within the button's boundaries, perform its specified action
-            if(xTap >= x && xTap <= x + width && yTap >= y && yTap <= y + height)
+            // Time save button for returning to a previous player state
+            if(functionType.equals("SAVESTATE"))
             {
-                // Time save button for returning to a previous player state
-                if(functionType.equals("SAVESTATE"))
+                // If the player hasn't created a TimeState, create one at their location
+                if(playerChar.getSavedState() == null)
                 {
-                    // If the player hasn't created a TimeState, create one at their location
-                    if(playerChar.getSavedState() == null)
-                    {
-                        playerChar.createTimeState();
-
-                        // Switches image to the "time return" button
-                        spriteNum = 1;
-                    }
-                    // If the player HAS created a TimeState, return them back to that state
-                    else
-                    {
-                        // Reverts the player back to the x-y location and speeds they were at
-                        // when they created the TimeState
-                        playerChar.setXPos(playerChar.getSavedState().getX());
-                        playerChar.setYPos(playerChar.getSavedState().getY());
-                        playerChar.setXSpeed(playerChar.getSavedState().getXSpeed());
-                        playerChar.setYSpeed(playerChar.getSavedState().getYSpeed());
-
-                        // Switches the button image back to the "time save" image
-                        spriteNum = 0;
-
-                        // Removes the TimeState upon activating the button
-                        playerChar.setSavedState(null);
-                    }
+                    playerChar.createTimeState();
+
+                    // Switches image to the "time return" button
+                    spriteNum = 1;
                 }
-                // Time period changing button
-                else if(functionType.equals("TIMECHANGE"))
+                // If the player HAS created a TimeState, return them back to that state
+                else
                 {
-                    // Switches the time period of the level from present to future
-                    // or future to present
-                    currentGV.setPresentTime(!currentGV.isPresentTime());
+                    // Reverts the player back to the x-y location and speeds they were at
+                    // when they created the TimeState
+                    playerChar.setXPos(playerChar.getSavedState().getX());
+                    playerChar.setYPos(playerChar.getSavedState().getY());
+                    playerChar.setXSpeed(playerChar.getSavedState().getXSpeed());
+                    playerChar.setYSpeed(playerChar.getSavedState().getYSpeed());
+                    playerChar.savePreviousPosition();
+
+                    // Switches the button image back to the "time save" image
+                    spriteNum = 0;
+
+                    // Removes the TimeState upon activating the button
+                    playerChar.setSavedState(null);
                 }
             }
+            // Time period changing button
+            else if(functionType.equals("TIMECHANGE"))
+            {
+                // Switches the time period of the level from present to future
+                // or future to present
+                currentGV.setPresentTime(!currentGV.isPresentTime());
+            }
         }
     }
 
     // Returns collision shape of the button to make it translucent when the player passes
     // through it
-    public Rect getCollisionShape()
+    public Aabb getCollisionShape()
     {
-        return new Rect(x, y, x + width, y + height);
+        return bounds;
     }
 
-    // Draws the button to a given Canvas
-    public void drawButton(Canvas levelMap)
+    // Draws the button to a given frame snapshot
+    public void drawButton(WorldSnapshot frame)
     {
-        // Only draws the button to the Canvas if it's meant to be shown
+        // Only draws the button to the snapshot if it's meant to be shown
         if(show)
         {
-            Paint alpha = new Paint();
-
             // Makes the button translucent if it's touching the player
-            if(Rect.intersects(getCollisionShape(), playerChar.getCollisionShape()))
+            int alpha;
+            if(getCollisionShape().intersects(playerChar.getCollisionShape()))
             {
-                alpha.setAlpha(75);
+                alpha = 75;
             }
             else
             {
-                alpha.setAlpha(175);
+                alpha = 175;
             }
 
-            // Draws the button to the Canvas
-            levelMap.drawBitmap(images[spriteNum], x, y, alpha);
+            // Draws the button to the snapshot
+            frame.addRegion(sprites[spriteNum], false, x, y, x, y, width, height, alpha);
         }
     }
 }
@@ -0,0 +1,182 @@
+package com.example.game;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.PowerManager;
+import android.view.Display;
+
+public class FrameRateGovernor
+{
+    // Context the power state is read and listened for through
+    private final Context context;
+
+    // Renderer whose target frame rate is governed, and the fastest rate the
+    // display can run at, which the governor steps down from
+    private final GameRenderer renderer;
+    private final int maxFrameRate;
+
+    // Source of the device's thermal status and battery saver state, or null if
+    // the device doesn't have one
+    private final PowerManager powerManager;
+
+    // Listeners for changes to the battery saver state and the thermal status,
+    // both called on the UI thread. The thermal listener is null on devices
+    // older than Android 10 (API 29), which don't report thermal status.
+    private final BroadcastReceiver powerSaveReceiver;
+    private PowerManager.OnThermalStatusChangedListener thermalListener;
+
+    // Whether the listeners are registered
+    private boolean listening;
+
+    // Constructor for a governor of a given renderer's frame rate, on a display
+    // running at up to a given frame rate (see getMaxFrameRate)
+    public FrameRateGovernor(Context context, GameRenderer renderer, int maxFrameRate)
+    {
+        this.context = context;
+        this.renderer = renderer;
+        this.maxFrameRate = maxFrameRate;
+        powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+
+        powerSaveReceiver = new BroadcastReceiver()
+        {
+            @Override
+            public void onReceive(Context c, Intent intent)
+            {
+                update();
+            }
+        };
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+        {
+            thermalListener = new PowerManager.OnThermalStatusChangedListener()
+            {
+                @Override
+                public void onThermalStatusChanged(int status)
+                {
+                    update();
+                }
+            };
+        }
+    }
+
+    // === GETTERS ===
+
+    // Returns the fastest of the renderer's frame rates that a display supports,
+    // from the refresh rates of its modes. Displays that can't reach 90 Hz,
+    // or whose modes can't be read, are drawn at 60 fps.
+    public static int getMaxFrameRate(Display display)
+    {
+        float refreshRate = display.getRefreshRate();
+        Display.Mode[] modes = display.getSupportedModes();
+        if(modes != null)
+        {
+            for(int i = 0; i < modes.length; i++)
+            {
+                refreshRate = Math.max(refreshRate, modes[i].getRefreshRate());
+            }
+        }
+        return pickMaxFrameRate(refreshRate);
+    }
+
+    // Returns the fastest of the renderer's frame rates that a display refreshing
+    // at up to a given rate can show. Refresh rates are reported slightly off
+    // their nominal rate (e.g. 119.88 Hz), so each is matched within 1 Hz.
+    public static int pickMaxFrameRate(float refreshRate)
+    {
+        if(refreshRate >= GameRenderer.FRAME_RATE_120 - 1)
+        {
+            return GameRenderer.FRAME_RATE_120;
+        }
+        if(refreshRate >= GameRenderer.FRAME_RATE_90 - 1)
+        {
+            return GameRenderer.FRAME_RATE_90;
+        }
+        return GameRenderer.FRAME_RATE_60;
+    }
+
+    // === OTHER METHODS ===
+
+    // Returns the frame rate to draw at for a given thermal status and battery
+    // saver state on a display running at up to a given frame rate. The game
+    // draws at the display's full rate while the device is cool, at 60 fps once
+    // it's moderately hot or battery saver is on, and at 30 fps once it's
+    // severely hot or both. Only the frame rate changes; the simulation keeps
+    // ticking at 60 TPS, so the game plays at the same speed whatever the rate.
+    public static int pickFrameRate(int thermalStatus, boolean powerSave, int maxFrameRate)
+    {
+        int level = powerSave ? 1 : 0;
+        if(thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE)
+        {
+            level += 2;
+        }
+        else if(thermalStatus >= PowerManager.THERMAL_STATUS_MODERATE)
+        {
+            level += 1;
+        }
+
+        if(level >= 2)
+        {
+            return GameRenderer.FRAME_RATE_30;
+        }
+        if(level == 1)
+        {
+            return Math.min(GameRenderer.FRAME_RATE_60, maxFrameRate);
+        }
+        return maxFrameRate;
+    }
+
+    // Sets the renderer's target frame rate for the device's current power state
+    public void update()
+    {
+        if(powerManager == null)
+        {
+            return;
+        }
+
+        // Thermal status exists from Android 10 (API 29); older devices are
+        // treated as never throttling
+        int thermalStatus = PowerManager.THERMAL_STATUS_NONE;
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q)
+        {
+            thermalStatus = powerManager.getCurrentThermalStatus();
+        }
+        renderer.setTargetFrameRate(pickFrameRate(thermalStatus, powerManager.isPowerSaveMode(), maxFrameRate));
+    }
+
+    // Sets the frame rate for the current power state and starts following
+    // changes to it. Called from the UI thread when the game resumes.
+    public void start()
+    {
+        if(powerManager == null || listening)
+        {
+            return;
+        }
+
+        context.registerReceiver(powerSaveReceiver, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        if(thermalListener != null)
+        {
+            powerManager.addThermalStatusListener(thermalListener);
+        }
+        listening = true;
+        update();
+    }
+
+    // Stops following changes to the power state. Called from the UI thread when
+    // the game pauses.
+    public void stop()
+    {
+        if(!listening)
+        {
+            return;
+        }
+
+        context.unregisterReceiver(powerSaveReceiver);
+        if(thermalListener != null)
+        {
+            powerManager.removeThermalStatusListener(thermalListener);
+        }
+        listening = false;
+    }
+}
@@ -1,18 +1,43 @@
 package com.example.game;
 
+import static com.example.game.LevelSelectActivity.levelAccess;
+import static com.example.game.LevelSelectActivity.levelChosen;
+
 import android.content.Intent;
 import android.content.pm.ActivityInfo;
 import android.graphics.Point;
 import android.os.Bundle;
+import android.util.Log;
+import android.view.Gravity;
+import android.view.ViewGroup;
 import android.view.WindowManager;
+import android.widget.FrameLayout;
+import android.widget.ProgressBar;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-public class GameActivity extends AppCompatActivity
+public class GameActivity extends AppCompatActivity implements AsyncLevelLoader.Listener
 {
+    // How long, in milliseconds, a level is played before the next one starts
+    // loading in the background, so prefetching doesn't compete with the
+    // level's first frames
+    private static final long PREFETCH_DELAY_MS = 2000;
+
     private GameView gameView;
     static GameActivity gameActivity;
 
+    // Size of the device's screen, which the level is drawn at
+    private Point screenSize;
+
+    // Loader building the level off the UI thread, and the progress bar shown
+    // until it's done. Both are null once the level is playing.
+    private AsyncLevelLoader loader;
+    private ProgressBar progressBar;
+
+    // Whether the activity is between onResume and onPause, so the game starts
+    // as soon as the level is ready
+    private boolean resumed;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -26,26 +51,113 @@ public class GameActivity extends AppCompatActivity
         this.setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_PORTRAIT);
 
         // Gets the size of the device's screen for visual compatibility.
-        Point point = new Point();
-        getWindowManager().getDefaultDisplay().getSize(point);
+        screenSize = new Point();
+        getWindowManager().getDefaultDisplay().getSize(screenSize);
+
+        // Shows a progress bar, one step per loading stage, while the level is
+        // read and its images decoded off the UI thread
+        progressBar = new ProgressBar(this, null, android.R.attr.progressBarStyleHorizontal);
+        progressBar.setMax(AsyncLevelLoader.STAGE_COUNT);
+        FrameLayout loadingLayout = new FrameLayout(this);
+        loadingLayout.addView(progressBar, new FrameLayout.LayoutParams(screenSize.x / 2,
+                ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.CENTER));
+        setContentView(loadingLayout);
 
-        // Generates and displays the level being played, adjusted for screen size
-        gameView = new GameView(this, point.x, point.y);
+        // Takes the level from the prefetcher if it was loaded ahead of time
+        // while the previous level was played, and loads it now otherwise
+        if(!LevelPrefetcher.getInstance().claim(levelChosen, screenSize.x, screenSize.y, this))
+        {
+            loader = new AsyncLevelLoader(getResources(), screenSize.x, screenSize.y, levelChosen, this);
+            loader.start();
+        }
+    }
+
+    // Moves the progress bar on as each loading stage starts
+    @Override
+    public void onLoadProgress(int stage)
+    {
+        progressBar.setProgress(stage);
+    }
+
+    // Generates and displays the level being played, adjusted for screen size,
+    // once every asset is ready. The game threads start now if the activity is
+    // in front, or when it next resumes. Once the level is under way, the next
+    // one starts loading in the background.
+    @Override
+    public void onLevelLoaded(Level level)
+    {
+        loader = null;
+        progressBar = null;
+        gameView = new GameView(this, screenSize.x, screenSize.y, level);
         setContentView(gameView);
+        if(resumed)
+        {
+            gameView.resume();
+        }
+        gameView.postDelayed(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                prefetchNextLevel();
+            }
+        }, PREFETCH_DELAY_MS);
+    }
+
+    // Returns to the level select screen if the level couldn't be loaded
+    @Override
+    public void onLoadFailed(Exception e)
+    {
+        Log.d("LEVEL ERROR", "Level " + levelChosen + " failed to load, returning to level select.");
+        loader = null;
+        finish();
+    }
+
+    // Starts loading the level after this one, so it's ready as soon as it's
+    // chosen. Does nothing after the last level, or once the player has left.
+    private void prefetchNextLevel()
+    {
+        if(!isFinishing() && levelChosen < levelAccess.length)
+        {
+            LevelPrefetcher.getInstance().prefetch(this, screenSize.x, screenSize.y, levelChosen + 1);
+        }
     }
 
     @Override
     protected void onPause()
     {
         super.onPause();
-        gameView.pause();
+        resumed = false;
+        if(gameView != null)
+        {
+            gameView.pause();
+        }
     }
 
     @Override
     protected void onResume()
     {
         super.onResume();
-        gameView.resume();
+        resumed = true;
+        if(gameView != null)
+        {
+            gameView.resume();
+        }
+    }
+
+    @Override
+    protected void onDestroy()
+    {
+        super.onDestroy();
+        if(loader != null)
+        {
+            loader.cancel();
+        }
+        LevelPrefetcher.getInstance().unclaim(this);
+        if(gameView != null)
+        {
+            gameView.release();
+        }
     }
     // Returns the current instance of GameActivity.
     public static GameActivity getInstance()
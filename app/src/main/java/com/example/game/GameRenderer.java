@@ -0,0 +1,523 @@
+package com.example.game;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Surface;
+import android.view.SurfaceHolder;
+
+import com.example.game.engine.PlatformBody;
+
+public class GameRenderer implements Runnable, Choreographer.FrameCallback
+{
+    // How the render thread decides when to draw a frame
+    // VSYNC = draw on display vsync callbacks from Choreographer, skipping
+    //         vsyncs to hold the target frame rate
+    // LOOP = draw as fast as the surface accepts frames (the original loop)
+    public enum FramePacing
+    {
+        VSYNC,
+        LOOP
+    }
+
+    // Frame rate targets for VSYNC pacing
+    public static final int FRAME_RATE_30 = 30;
+    public static final int FRAME_RATE_60 = 60;
+    public static final int FRAME_RATE_90 = 90;
+    public static final int FRAME_RATE_120 = 120;
+
+    // Kinds of Canvas a frame can be drawn with, indexing averageFrameMillis
+    private static final int CANVAS_SOFTWARE = 0;
+    private static final int CANVAS_HARDWARE = 1;
+
+    // Number of frames between updates of the diagnostics overlay's text
+    private static final int DIAGNOSTICS_FRAMES = 30;
+
+    // Longest time the screen goes without being redrawn while nothing on it
+    // changes, so the diagnostics overlay and a recreated surface still update
+    private static final long IDLE_REDRAW_NANOS = 1000000000L;
+
+    // Average time to lock, draw, and post a frame with each kind of Canvas, in
+    // milliseconds, or 0 if none has been drawn yet. Kept across levels so
+    // switching the setting and playing again shows both for comparison. Only
+    // used by the render thread.
+    private static final float[] averageFrameMillis = new float[2];
+
+    // Render thread and whether it should keep drawing
+    private Thread thread;
+    private volatile boolean isRendering = false;
+
+    // Surface the game is drawn to
+    private final SurfaceHolder holder;
+
+    // Source of the newest snapshot published by the simulation thread
+    private final SnapshotBuffer snapshots;
+
+    // Holds color and styles for drawing to the screen Canvas. Only used by
+    // the render thread.
+    private final Paint paintInfo;
+
+    // Counts objects allocated while drawing snapshots, in debuggable builds.
+    // Only used by the render thread.
+    private final AllocationCounter drawAllocations;
+
+    // Pacing mode and target frame rate. Changes take effect on the next frame.
+    private volatile FramePacing pacing;
+    private volatile int targetFrameRate;
+
+    // Frame rate last requested from the surface, 0 if none has been requested
+    private int requestedFrameRate;
+
+    // Whether frames are drawn with a hardware-accelerated Canvas. The surface
+    // can't switch between the two once drawn to, so this is fixed for the level.
+    private final boolean hardwareCanvas;
+
+    // Whether the device couldn't give a hardware Canvas, so frames fell back to
+    // software, and whether the frame being drawn got a hardware Canvas. Only
+    // used by the render thread.
+    private boolean hardwareFailed;
+    private boolean lockedHardware;
+
+    // Whether the diagnostics overlay is drawn over each frame, the paint for its
+    // text, and the text itself, rebuilt every DIAGNOSTICS_FRAMES frames
+    private volatile boolean showDiagnostics;
+    private final Paint diagnosticsPaint;
+    private String diagnosticsMode;
+    private String diagnosticsTimes;
+    private String diagnosticsScale;
+    private String diagnosticsRate;
+    private int diagnosticsFrame;
+
+    // Content hash of the last snapshot drawn, whether that frame showed every
+    // entry at its current position, and when it was drawn. Used to skip
+    // redrawing a screen where nothing has changed. Only used by the render thread.
+    private long lastDrawnHash;
+    private boolean lastDrawnSettled;
+    private long lastDrawnTime;
+
+    // Whether the last frame was skipped because nothing on screen changed, and
+    // how many frames have been skipped since the diagnostics text was last
+    // rebuilt. Only used by the render thread.
+    private boolean skippedIdle;
+    private int idleFrames;
+
+    // Size of the device's screen, and the scaler picking what fraction of it
+    // the surface is drawn at. The scaler is null when the surface is always
+    // drawn at full resolution.
+    private int screenX, screenY;
+    private ResolutionScaler scaler;
+
+    // Size the surface was last asked to be drawn at, and the task asking for
+    // it. The surface can only be resized from the UI thread.
+    private volatile int surfaceWidth, surfaceHeight;
+    private final Handler mainHandler;
+    private final Runnable resizeSurface;
+
+    // Vsync timestamps of the last callback and the last frame drawn, and the
+    // measured time between vsyncs. Only used by the render thread.
+    private long lastVsyncTime;
+    private long lastFrameTime;
+    private long vsyncPeriod;
+
+    // Constructor for the renderer, drawing snapshots from a given buffer
+    // onto a given surface at a given pacing and target frame rate, with either
+    // a hardware-accelerated or a software Canvas
+    public GameRenderer(SurfaceHolder holder, SnapshotBuffer snapshots, FramePacing pacing, int targetFrameRate,
+                        boolean hardwareCanvas)
+    {
+        this.holder = holder;
+        this.snapshots = snapshots;
+        this.pacing = pacing;
+        this.targetFrameRate = targetFrameRate;
+        this.hardwareCanvas = hardwareCanvas;
+        paintInfo = new Paint();
+        drawAllocations = new AllocationCounter("Render");
+
+        diagnosticsPaint = new Paint();
+        diagnosticsPaint.setColor(0xFFFFFFFF);
+        diagnosticsPaint.setTextSize(40);
+        diagnosticsMode = "";
+        diagnosticsTimes = "";
+        diagnosticsScale = "";
+        diagnosticsRate = "";
+
+        mainHandler = new Handler(Looper.getMainLooper());
+        resizeSurface = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                GameRenderer.this.holder.setFixedSize(surfaceWidth, surfaceHeight);
+            }
+        };
+    }
+
+    // === GETTERS ===
+
+    // Returns the pacing mode of the renderer
+    public FramePacing getPacing()
+    {
+        return pacing;
+    }
+
+    // Returns the target frame rate of the renderer
+    public int getTargetFrameRate()
+    {
+        return targetFrameRate;
+    }
+
+    // Returns whether the renderer was asked to draw with a hardware Canvas
+    public boolean isHardwareCanvas()
+    {
+        return hardwareCanvas;
+    }
+
+    // Returns whether the diagnostics overlay is shown
+    public boolean isShowingDiagnostics()
+    {
+        return showDiagnostics;
+    }
+
+    // === SETTERS ===
+
+    // Sets the pacing mode of the renderer. Takes effect the next time the
+    // renderer is resumed.
+    public void setPacing(FramePacing p)
+    {
+        pacing = p;
+    }
+
+    // Sets the target frame rate for VSYNC pacing (30, 60, 90, or 120)
+    public void setTargetFrameRate(int fps)
+    {
+        targetFrameRate = fps;
+    }
+
+    // Shows or hides the diagnostics overlay
+    public void setShowDiagnostics(boolean s)
+    {
+        showDiagnostics = s;
+    }
+
+    // Turns on dynamic resolution for a screen of a given size. The surface is
+    // then drawn at a fraction of the screen's resolution, lowered when frames
+    // take too long to draw and raised again when they don't, and the
+    // compositor scales it up to fill the screen. Must be set before the
+    // renderer is resumed.
+    public void setDynamicResolution(int screenX, int screenY)
+    {
+        this.screenX = screenX;
+        this.screenY = screenY;
+        scaler = new ResolutionScaler();
+    }
+
+    // === OTHER METHODS ===
+
+    // Runs the render thread in the chosen pacing mode. In either mode,
+    // snapshots are blended between ticks based on how long ago they were
+    // published, so movement stays smooth even when drawing runs faster than
+    // the simulation.
+    @Override
+    public void run()
+    {
+        if(pacing == FramePacing.VSYNC)
+        {
+            // Choreographer delivers vsync callbacks to the Looper of the thread
+            // it's retrieved on, so the render thread runs its own Looper
+            Looper.prepare();
+            lastVsyncTime = 0;
+            lastFrameTime = 0;
+            vsyncPeriod = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+            Looper.loop();
+        }
+        else
+        {
+            // Draws as often as the surface accepts frames
+            while(isRendering)
+            {
+                // Waits for the surface to become available again, or for the
+                // next tick if nothing on screen changed
+                if(!drawFrame(snapshots.acquireFront(), System.nanoTime()) || skippedIdle)
+                {
+                    waitFor(GameView.TICK_NANOS / 1000000);
+                }
+            }
+        }
+    }
+
+    // Called by Choreographer on each display vsync. Draws a frame once enough
+    // vsyncs have passed to meet the target frame rate, using the vsync
+    // timestamp so blending lines up with when the frame is actually shown.
+    @Override
+    public void doFrame(long frameTimeNanos)
+    {
+        if(!isRendering)
+        {
+            Looper.myLooper().quit();
+            return;
+        }
+
+        // Measures the display's vsync period from consecutive callbacks
+        if(lastVsyncTime != 0)
+        {
+            vsyncPeriod = frameTimeNanos - lastVsyncTime;
+        }
+        lastVsyncTime = frameTimeNanos;
+
+        // Draws only if the target frame interval has passed, within half a vsync
+        // so timing jitter doesn't make the renderer skip a vsync it should use
+        long frameInterval = 1000000000L / targetFrameRate;
+        if(frameTimeNanos - lastFrameTime >= frameInterval - vsyncPeriod / 2)
+        {
+            requestFrameRate();
+            if(drawFrame(snapshots.acquireFront(), frameTimeNanos))
+            {
+                lastFrameTime = frameTimeNanos;
+            }
+        }
+
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    // Asks the display to run at the target frame rate. Surface.setFrameRate
+    // exists from Android 11 (API 30); on older versions the display keeps its
+    // own rate and the renderer just skips vsyncs to meet the target.
+    private void requestFrameRate()
+    {
+        if(requestedFrameRate == targetFrameRate || Build.VERSION.SDK_INT < Build.VERSION_CODES.R)
+        {
+            return;
+        }
+
+        Surface surface = holder.getSurface();
+        if(surface.isValid())
+        {
+            surface.setFrameRate(targetFrameRate, Surface.FRAME_RATE_COMPATIBILITY_DEFAULT);
+            requestedFrameRate = targetFrameRate;
+        }
+    }
+
+    // Draws a snapshot to the surface, blended to how far a given time is past
+    // its publish time. Skips drawing if the frame would look the same as the
+    // one already on screen. Returns false if the surface couldn't be drawn to.
+    public boolean drawFrame(WorldSnapshot snapshot, long frameTime)
+    {
+        // Checks if the SurfaceView is accessible
+        Surface surface = holder.getSurface();
+        if(!surface.isValid())
+        {
+            return false;
+        }
+
+        // Blends entities between the previous and current tick of the snapshot
+        float alpha = (frameTime - snapshot.getPublishTime()) / (float)GameView.TICK_NANOS;
+        alpha = Math.max(0f, Math.min(1f, alpha));
+
+        // Leaves the last frame on screen if nothing has changed since it was drawn
+        boolean settled = !snapshot.isMoving() || alpha == 1f;
+        skippedIdle = isUnchanged(snapshot, settled, frameTime);
+        if(skippedIdle)
+        {
+            idleFrames++;
+            return true;
+        }
+
+        long lockStart = System.nanoTime();
+        Canvas currentCanvas = lockCanvas(surface);
+        if(currentCanvas == null)
+        {
+            return false;
+        }
+        long drawStart = System.nanoTime();
+
+        // Snapshots are laid out in design space, so one transform scales the whole
+        // frame to the surface, whatever the screen's size or the resolution
+        // dynamic resolution has picked
+        currentCanvas.save();
+        currentCanvas.scale(currentCanvas.getWidth() / (float)PlatformBody.MAX_WIDTH,
+                currentCanvas.getHeight() / (float)PlatformBody.MAX_HEIGHT);
+
+        drawAllocations.startFrame();
+        snapshot.draw(currentCanvas, paintInfo, alpha);
+        drawAllocations.endFrame();
+
+        if(showDiagnostics)
+        {
+            drawDiagnostics(currentCanvas);
+        }
+        currentCanvas.restore();
+
+        // Shows updated Canvas on the screen
+        if(lockedHardware)
+        {
+            surface.unlockCanvasAndPost(currentCanvas);
+        }
+        else
+        {
+            holder.unlockCanvasAndPost(currentCanvas);
+        }
+
+        lastDrawnHash = snapshot.getContentHash();
+        lastDrawnSettled = settled;
+        lastDrawnTime = frameTime;
+
+        long drawEnd = System.nanoTime();
+        recordFrameTime(drawEnd - lockStart);
+        if(scaler != null)
+        {
+            adjustResolution(drawEnd - drawStart);
+        }
+        return true;
+    }
+
+    // Returns whether a snapshot would draw the same frame as the one already on
+    // screen: the same entries in the same places, with both frames showing
+    // them settled at their current positions. The screen is still redrawn
+    // every IDLE_REDRAW_NANOS so it never goes stale for long.
+    private boolean isUnchanged(WorldSnapshot snapshot, boolean settled, long frameTime)
+    {
+        return lastDrawnTime != 0
+                && frameTime - lastDrawnTime < IDLE_REDRAW_NANOS
+                && snapshot.getContentHash() == lastDrawnHash
+                && settled && lastDrawnSettled;
+    }
+
+    // Gives the scaler how long a frame took to draw and post, not counting the
+    // wait for a buffer to draw into, and resizes the surface if the scaler
+    // changes its resolution. The new size shows up in the Canvas a few frames
+    // later. The budget is the target frame interval, or the measured vsync
+    // period if the display can't refresh that fast, since a frame can't be
+    // shown sooner than that anyway.
+    private void adjustResolution(long drawNanos)
+    {
+        long budgetNanos = Math.max(vsyncPeriod, 1000000000L / targetFrameRate);
+        if(scaler.addFrame(drawNanos, budgetNanos))
+        {
+            surfaceWidth = Math.round(screenX*scaler.getScale());
+            surfaceHeight = Math.round(screenY*scaler.getScale());
+            mainHandler.post(resizeSurface);
+        }
+    }
+
+    // Locks the surface for drawing, with a hardware-accelerated Canvas if the
+    // renderer was asked for one. If the device can't give one, the renderer
+    // falls back to a software Canvas for the rest of the level.
+    // Surface.lockHardwareCanvas exists from Android 6 (API 23), which every
+    // supported device has.
+    private Canvas lockCanvas(Surface surface)
+    {
+        lockedHardware = false;
+        if(hardwareCanvas && !hardwareFailed)
+        {
+            try
+            {
+                Canvas canvas = surface.lockHardwareCanvas();
+                lockedHardware = true;
+                return canvas;
+            }
+            catch (RuntimeException e)
+            {
+                hardwareFailed = true;
+                Log.d("RENDER ERROR", "Could not lock a hardware canvas, falling back to software.");
+            }
+        }
+        return holder.lockCanvas();
+    }
+
+    // Adds how long a frame took to lock, draw, and post to the running average
+    // for the kind of Canvas it was drawn with
+    private void recordFrameTime(long nanos)
+    {
+        int kind = lockedHardware ? CANVAS_HARDWARE : CANVAS_SOFTWARE;
+        float millis = nanos / 1000000f;
+        if(averageFrameMillis[kind] == 0)
+        {
+            averageFrameMillis[kind] = millis;
+        }
+        else
+        {
+            averageFrameMillis[kind] += (millis - averageFrameMillis[kind]) * 0.05f;
+        }
+    }
+
+    // Draws the diagnostics overlay in the top-left corner of a given Canvas: the
+    // kind of Canvas in use, the average frame time of each kind, and the
+    // resolution the surface is drawn at if it's dynamic. The text is
+    // only rebuilt every DIAGNOSTICS_FRAMES frames to keep it readable.
+    private void drawDiagnostics(Canvas currentCanvas)
+    {
+        if(diagnosticsFrame == 0)
+        {
+            diagnosticsMode = (lockedHardware ? "Hardware canvas" : "Software canvas")
+                    + (hardwareFailed ? " (hardware unavailable)" : "");
+            diagnosticsTimes = "Software " + formatMillis(averageFrameMillis[CANVAS_SOFTWARE])
+                    + " | Hardware " + formatMillis(averageFrameMillis[CANVAS_HARDWARE]);
+            if(scaler != null)
+            {
+                diagnosticsScale = "Resolution " + Math.round(scaler.getScale()*100) + "%";
+            }
+            diagnosticsRate = "Target " + targetFrameRate + " fps | Idle frames skipped " + idleFrames;
+            idleFrames = 0;
+        }
+        diagnosticsFrame = (diagnosticsFrame + 1) % DIAGNOSTICS_FRAMES;
+
+        float lineHeight = 50;
+        currentCanvas.drawText(diagnosticsMode, 20, 20 + lineHeight, diagnosticsPaint);
+        currentCanvas.drawText(diagnosticsTimes, 20, 20 + 2*lineHeight, diagnosticsPaint);
+        currentCanvas.drawText(diagnosticsRate, 20, 20 + 3*lineHeight, diagnosticsPaint);
+        currentCanvas.drawText(diagnosticsScale, 20, 20 + 4*lineHeight, diagnosticsPaint);
+    }
+
+    // Returns a frame time as text with one decimal place, or "--" if no frame
+    // has been timed
+    private static String formatMillis(float millis)
+    {
+        if(millis == 0)
+        {
+            return "--";
+        }
+        return Math.round(millis*10)/10f + " ms";
+    }
+
+    // Starts the render thread
+    public void resume()
+    {
+        isRendering = true;
+        requestedFrameRate = 0;
+        lastDrawnTime = 0;
+        thread = new Thread(this, "GameRenderer");
+        thread.start();
+    }
+
+    // Stops the render thread, waiting for its current frame to finish
+    public void pause()
+    {
+        try
+        {
+            isRendering = false;
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    // Sleeps the render thread for a given number of milliseconds
+    private void waitFor(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            e.printStackTrace();
+        }
+    }
+}
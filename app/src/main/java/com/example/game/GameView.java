@@ -5,41 +5,60 @@ package com.example.game;
 import static com.example.game.LevelSelectActivity.levelAccess;
 import static com.example.game.LevelSelectActivity.levelChosen;
 import static com.example.game.LevelSelectActivity.levelComplete;
+import static com.example.game.LevelSelectActivity.hardwareCanvas;
+import static com.example.game.LevelSelectActivity.showDiagnostics;
+import static com.example.game.LevelSelectActivity.dynamicResolution;
+import static com.example.game.engine.PlatformBody.MAX_HEIGHT;
+import static com.example.game.engine.PlatformBody.MAX_WIDTH;
 
-import android.graphics.Canvas;
-import android.graphics.Paint;
+import android.content.pm.ApplicationInfo;
 import android.view.MotionEvent;
 import android.view.SurfaceView;
 
-import java.util.ArrayList;
+import com.example.game.engine.Fixed;
+import com.example.game.engine.PowerUpBody;
+import com.example.game.engine.World;
 
 public class GameView extends SurfaceView implements Runnable
 {
+    // Simulation thread. Drawing to the screen happens separately on the
+    // GameRenderer's thread so a slow Canvas post never stalls physics.
     private Thread thread;
-    private boolean isPlaying = false;
+    private volatile boolean isPlaying = false;
+
+    // Rate the simulation is stepped at. Speeds, gravity, and timers across the
+    // game are tuned per tick, so this stays fixed no matter how long drawing takes.
+    private static final int TICKS_PER_SECOND = 60;
+    static final long TICK_NANOS = 1000000000L / TICKS_PER_SECOND;
+
+    // Most ticks run back-to-back to catch up before a frame is drawn. Anything
+    // still owed past this is dropped so a stalled device slows down instead of
+    // spiraling further behind.
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    // Touch input commands latched by the UI thread for the next tick. A move
+    // command carries which side of the screen was touched, and which half, as
+    // flags on top of INPUT_MOVE.
+    private static final int INPUT_RELEASE = 1;
+    private static final int INPUT_SAVE_STATE = 2;
+    private static final int INPUT_TIME_CHANGE = 3;
+    private static final int INPUT_MOVE = 4;
+    private static final int INPUT_RIGHT = 8;
+    private static final int INPUT_TOP = 16;
     private final int screenX, screenY;
-    public static float screenRatioX, screenRatioY;
     private GameActivity activity;
 
-    // Current level the user is playing, its gravitational acceleration,
-    // Platforms, gravity pads, time machines, enemies, power-ups,
-    // and Background Object
+    // Current level the user is playing and the simulated world behind it
     private Level levelPlaying;
-    private Background levelBG;
-    private ArrayList<Platform> platformsPresent;
-    private ArrayList<Platform> platformsFuture;
-    private ArrayList<GravityPad> gravPads;
-    private ArrayList<TimeMachine> timeMachines;
-    private ArrayList<Enemy> enemies;
-    private ArrayList<PowerUp> powerUps;
-    private Goal goalPost;
-
-    // Boolean to indicate if the time period is in the present or future
-    // True = present, False = future
-    private boolean presentTime;
+    private World world;
+
+    // Snapshots of the level handed from the simulation thread to the renderer,
+    // and the renderer drawing them to the screen
+    private SnapshotBuffer snapshots;
+    private GameRenderer renderer;
 
-    // Holds color and styles for drawing to the screen Canvas
-    private Paint paintInfo;
+    // Steps the renderer's frame rate down when the device is hot or in battery saver
+    private FrameRateGovernor governor;
 
     // Player character shown on-screen
     private Player playerChar;
@@ -48,50 +67,44 @@ public class GameView extends SurfaceView implements Runnable
     private CanvasButton timeStateButton;
     private CanvasButton timeChangeButton;
 
+    // Touch input waiting for the next tick, and the commands taken from it at
+    // the start of each tick. Input is only applied on the simulation thread,
+    // between ticks, so the same inputs always play out the same way.
+    private final InputBuffer input;
+    private final int[] tickInput;
+
+    // Counts objects allocated while ticking and recording snapshots, in
+    // debuggable builds
+    private final AllocationCounter tickAllocations;
+
     // Modified walkthrough version of constructor
     // screenX = width of screen
     // screenY = height of screen
-    // startX = starting x-position of player character
-    // startY = starting y-position of player character
-    public GameView(GameActivity activity, int screenX, int screenY)
+    // level = level to play, already loaded by an AsyncLevelLoader
+    public GameView(GameActivity activity, int screenX, int screenY, Level level)
     {
         super(activity);
 
         // Initializes the current GameActivity
         this.activity = activity;
 
-        // Initializes device screen width and height info
+        // Initializes device screen width and height info. The level itself runs in
+        // the Google Pixel 4's 1080x2280 design space, and the renderer scales it to
+        // the screen as it draws.
+        // *** MUST SWAP THE DESIGN SIZE IF USING LANDSCAPE ORIENTATION ***
         this.screenX = screenX;
         this.screenY = screenY;
 
-        // Calculates ratio of Google Pixel 4 screen size to user's device
-        // screen size. Used to adapt visuals and movement to different
-        // screen sizes for consistency.
-        // *** MUST SWAP THE CONSTANTS IF USING LANDSCAPE ORIENTATION ***
-        screenRatioX = screenX / 1080f;
-        screenRatioY = screenY / 2280f;
-
         // Initializes the player and level states according to the gravity and
-        // start positions specified in the Level object. Saves the Background, platforms,
-        // gravity pads, time machines, power-ups, enemies, and goals of the level
-        // for quicker access and later modification.
-        levelPlaying = new Level(getResources(), screenX, screenY);
-        levelBG = levelPlaying.getLvlBackground();
-        platformsPresent = levelPlaying.getPlatformsPresent();
-        platformsFuture = levelPlaying.getPlatformsFuture();
-        gravPads = levelPlaying.getGravPads();
-        enemies = levelPlaying.getEnemies();
-        goalPost = levelPlaying.getGoalPost();
-        powerUps = levelPlaying.getPowerUps();
-        timeMachines = levelPlaying.getTimeMachines();
-        playerChar = new Player(this, getResources(), levelPlaying.getStartX(), levelPlaying.getStartY(), levelPlaying.getGravityAccel());
-
-        // Links the GameView to all enemies of the level to allow them to interact with
-        // the level's entities and the player
-        for(Enemy e : enemies)
-        {
-            e.linkGV(this);
-        }
+        // start positions specified in the Level object. Saves the simulated world
+        // and player of the level for quicker access.
+        levelPlaying = level;
+        world = levelPlaying.getWorld();
+        playerChar = levelPlaying.getPlayerChar();
+
+        // Creates the buffer touch input is latched into between ticks
+        input = new InputBuffer();
+        tickInput = new int[InputBuffer.CAPACITY];
 
         // Creates the time-saving state button
         timeStateButton = new CanvasButton(15, 2100, "SAVESTATE", playerChar, this, getResources());
@@ -101,11 +114,26 @@ public class GameView extends SurfaceView implements Runnable
         int adjustX = timeStateButton.getX() + timeStateButton.getWidth() + 20;
         timeChangeButton = new CanvasButton(adjustX, 2100, "TIMECHANGE", playerChar, this, getResources());
 
-        // Sets the time period to present
-        presentTime = true;
+        // Initializes the snapshot hand-off and the renderer drawing to this view's surface.
+        // Frames are paced by display vsync at the display's fastest rate, stepped down
+        // to 60 and then 30 fps by the governor while the device is hot or in battery
+        // saver, and drawn with the kind of Canvas picked in the level select settings.
+        // The simulation's tick rate never changes.
+        int maxFrameRate = FrameRateGovernor.getMaxFrameRate(activity.getWindowManager().getDefaultDisplay());
+        snapshots = new SnapshotBuffer();
+        renderer = new GameRenderer(getHolder(), snapshots, GameRenderer.FramePacing.VSYNC, maxFrameRate,
+                hardwareCanvas);
+        renderer.setShowDiagnostics(showDiagnostics);
+        if(dynamicResolution)
+        {
+            renderer.setDynamicResolution(screenX, screenY);
+        }
+        governor = new FrameRateGovernor(activity, renderer, maxFrameRate);
 
-        // Initializes the Canvas painting info for the level display
-        paintInfo = new Paint();
+        // Counts allocations in the frame loop of debuggable builds, which should
+        // find none once the level is running
+        AllocationCounter.setEnabled((activity.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0);
+        tickAllocations = new AllocationCounter("Simulation");
     }
 
     /* === Custom constructor for one Activity per level idea ===
@@ -138,14 +166,19 @@ public class GameView extends SurfaceView implements Runnable
     // True = present, False = future
     public boolean isPresentTime()
     {
-        return presentTime;
+        return world.isPresentTime();
+    }
+
+    // Converts an x-coordinate on the screen to design space
+    public float toDesignX(float x)
+    {
+        return x * MAX_WIDTH / screenX;
     }
 
-    // Returns a reference to the time machine activation button so
-    // the button can be shown when the player touches a time machine
-    public CanvasButton getTimeChangeButton()
+    // Converts a y-coordinate on the screen to design space
+    public float toDesignY(float y)
     {
-        return timeChangeButton;
+        return y * MAX_HEIGHT / screenY;
     }
 
     // === SETTERS ===
@@ -153,27 +186,70 @@ public class GameView extends SurfaceView implements Runnable
     // Sets time period of the level
     public void setPresentTime(boolean p)
     {
-        presentTime = p;
+        world.setPresentTime(p);
     }
 
     // === OTHER METHODS ===
 
-    //Extremely Basic run loop, logic should be in update() mostly
+    // Fixed-timestep simulation loop. Real elapsed time is accumulated and spent
+    // in whole ticks of update(), running several ticks to catch up when the
+    // thread falls behind so the game plays at the same speed on every device.
+    // After each batch of ticks the level is recorded into a snapshot and
+    // published for the render thread, which blends entity positions between
+    // the last two ticks.
     @Override
     public void run()
     {
         isPlaying = true;
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+
         while(isPlaying)
         {
-            update();
-            draw();
-            sleep();
+            long currentTime = System.nanoTime();
+            accumulator += currentTime - previousTime;
+            previousTime = currentTime;
+
+            // Runs as many ticks as the elapsed time covers, up to the catch-up limit
+            tickAllocations.startFrame();
+            int ticks = 0;
+            while(accumulator >= TICK_NANOS && ticks < MAX_CATCH_UP_TICKS)
+            {
+                update();
+                accumulator -= TICK_NANOS;
+                ticks++;
+            }
+
+            // Drops whole ticks the device couldn't keep up with, keeping the fraction
+            if(accumulator >= TICK_NANOS)
+            {
+                accumulator %= TICK_NANOS;
+            }
+
+            // Publishes the level as of the last tick. That tick represents the
+            // current time minus the fraction of a tick not yet simulated.
+            if(ticks > 0)
+            {
+                draw(snapshots.getBack());
+                snapshots.publish(currentTime - accumulator);
+            }
+            tickAllocations.endFrame();
+
+            sleep(TICK_NANOS - accumulator);
         }
     }
 
     // Updates physics of the level, (constantly running).
     public void update()
     {
+        // Applies the touch input latched since the last tick before anything
+        // moves, so input lands at the same point in every tick
+        int commands = input.take(tickInput);
+        for(int i = 0; i < commands; i++)
+        {
+            applyInput(tickInput[i]);
+        }
+
         // Checks to see if playerChar's levelComplete is true.
         // If it is update the available levels, and then set levelComplete to true.
         if(playerChar.getComplete())
@@ -192,155 +268,64 @@ public class GameView extends SurfaceView implements Runnable
             activity.finish();
         }
 
-        // Moves the player and enemies vertically based on their gravitational accelerations
-        playerChar.moveVertical();
-        for(int i = 0; i < enemies.size(); i++)
-        {
-            enemies.get(i).moveVertical();
-        }
-
-        // Controls physics of player and enemies hitting floors, ceilings, and gravity pads
-        if(presentTime)
-        {
-            playerChar.touchPlatforms(platformsPresent);
-            for(int i = 0; i < enemies.size(); i++)
-            {
-                enemies.get(i).touchPlatforms(platformsPresent);
-            }
-        }
-        else
-        {
-            playerChar.touchPlatforms(platformsFuture);
-            for(int i = 0; i < enemies.size(); i++)
-            {
-                enemies.get(i).touchPlatforms(platformsFuture);
-            }
-        }
-        playerChar.touchGravityPads(gravPads);
-        for(int i = 0; i < enemies.size(); i++)
-        {
-            enemies.get(i).touchGravityPads(gravPads);
-        }
-
-        // Handles collision events for when the player touches goals, time machines,
-        // power-ups, and enemies
-        playerChar.touchGoal(goalPost);
-        playerChar.touchTimeMachines(timeMachines);
-        playerChar.touchPowerUps(powerUps);
-        playerChar.touchEnemies(enemies);
-
-        // Controls horizontal movement of player, including wall collision
-        if(presentTime)
-        {
-            // Player moves while collidiing with walls and platforms of present time
-            playerChar.moveHorizontal(platformsPresent);
-
-            // Makes enemies attack if they're within a given proximity to the player
-            for(int i = 0; i < enemies.size(); i++)
-            {
-                enemies.get(i).moveHorizontal(platformsPresent);
-            }
-        }
-        else
-        {
-            // Player moves while colliding with walls and platforms of future time
-            playerChar.moveHorizontal(platformsFuture);
+        // Steps the player, enemies, and their collisions with the level, then
+        // drops the images of any enemies the step took out of the level.
+        // Everything that changes happens here; draw() only reads.
+        world.step();
+        levelPlaying.cleanEnemyList();
 
-            // Makes enemies attack if they're within a given proximity to the player
-            for(int i = 0; i < enemies.size(); i++)
-            {
-                enemies.get(i).moveHorizontal(platformsPresent);
-            }
-        }
+        // If the player is touching a time machine, show the time-changing button;
+        // otherwise, hide it
+        timeChangeButton.setShow(world.isTouchingMachine());
+    }
 
-        // Keeps player and enemies from going off-screen horizontally
-        if(playerChar.getXPos() < 0)
-        {
-            playerChar.setXPos(0);
-        }
-        if(playerChar.getXPos() + playerChar.getWidth() > screenX)
-        {
-            playerChar.setXPos(screenX - playerChar.getWidth());
-        }
-        for(int i = 0; i < enemies.size(); i++)
+    // Records the level display into a frame snapshot for the render thread.
+    // Entries are drawn in the order they're added.
+    public void draw(WorldSnapshot frame)
+    {
+        frame.clear();
+
+        // Draws the background and non-moving platforms into the snapshot as one image
+        levelPlaying.drawStaticLayer(frame, this);
+
+        // Draws platforms, enemies, power-ups, goals, time machines, and gravity pads
+        // of the Level into the snapshot
+        levelPlaying.drawPads(frame);
+        levelPlaying.drawEnemies(frame);
+        levelPlaying.drawGoal(frame);
+        levelPlaying.drawMachines(frame, this);
+        levelPlaying.drawPowerUps(frame);
+        // === PUT THIS BELOW THE PLAYER CHARACTER DRAWING LATER ===
+        levelPlaying.drawPlatforms(frame, this);
+
+        // Draws saved TimeState of the player into the snapshot
+        if(playerChar.getSavedState() != null)
         {
-            if(enemies.get(i).getX() < 0)
-            {
-                enemies.get(i).setX(0);
-            }
-            if(enemies.get(i).getX() + enemies.get(i).getWidth() > screenX)
-            {
-                enemies.get(i).setX(screenX - enemies.get(i).getWidth());
-            }
+            playerChar.getSavedState().drawSavedState(frame);
         }
 
-        // Sends player back to start if they fall down to bottom of screen
-        // with downwards gravity or rise up to top of screen with upwards
-        // gravity
-        if(playerChar.getGravAccel() >= 0)
-        {
-            if(playerChar.getYPos() + playerChar.getHeight() > screenY)
-            {
-                resetPlayer();
-            }
-        }
-        else
-        {
-            if(playerChar.getYPos() < 1)
-            {
-                resetPlayer();
-            }
-        }
+        // Draws player character into the snapshot, from where it started the tick
+        // to where it is now
+        playerChar.drawPlayer(frame);
 
-        // Removes enemies from the list if they fall off-screen
-        cleanEnemyList();
+        // Draws TimeState saving and time period changing buttons into the snapshot
+        timeStateButton.drawButton(frame);
+        timeChangeButton.drawButton(frame);
     }
 
-    // Updates the level display
-    public void draw()
+    // Sleeps until the next tick is due, given in nanoseconds. Very short waits
+    // are skipped since Thread.sleep can't time them accurately.
+    public void sleep(long nanos)
     {
-        // Checks if the SurfaceView is accessible, returns NULL if not
-        if(getHolder().getSurface().isValid())
+        long millis = nanos / 1000000;
+        if(millis < 1)
         {
-            // Retrieves the current Canvas to allow drawing to the background
-            Canvas currentCanvas = getHolder().lockCanvas();
-
-            // Draws background onto Canvas
-            levelBG.drawBackground(currentCanvas, paintInfo);
-
-            // Draws platforms, enemies, power-ups, goals, time machines, and gravity pads
-            // of the Level onto the Canvas. Platforms are moved prior to drawing them.
-            levelPlaying.drawPads(currentCanvas, paintInfo);
-            levelPlaying.drawEnemies(currentCanvas, paintInfo);
-            levelPlaying.drawGoal(currentCanvas, paintInfo);
-            levelPlaying.drawMachines(currentCanvas, paintInfo, this);
-            levelPlaying.drawPowerUps(currentCanvas, paintInfo);
-            // === PUT THIS BELOW THE PLAYER CHARACTER DRAWING LATER ===
-            levelPlaying.drawPlatforms(currentCanvas, paintInfo, this);
-
-            // Draws saved TimeState of the player onto the Canvas
-            if(playerChar.getSavedState() != null)
-            {
-                playerChar.getSavedState().drawSavedState(currentCanvas);
-            }
-
-            // Draws player character on the Canvas
-            currentCanvas.drawBitmap(playerChar.getImage(), playerChar.getXPos(), playerChar.getYPos(), paintInfo);
-
-            // Draws TimeState saving and time period changing buttons on the Canvas
-            timeStateButton.drawButton(currentCanvas);
-            timeChangeButton.drawButton(currentCanvas);
-
-            // Shows updated Canvas on the screen
-            getHolder().unlockCanvasAndPost(currentCanvas);
+            return;
         }
-    }
 
-    public void sleep()
-    {
         try
         {
-            Thread.sleep(10);
+            Thread.sleep(millis);
         }
         catch (InterruptedException e)
         {
@@ -352,13 +337,17 @@ public class GameView extends SurfaceView implements Runnable
     public void resume()
     {
         isPlaying = true;
-        thread = new Thread(this);
+        thread = new Thread(this, "GameSimulation");
         thread.start();
+        governor.start();
+        renderer.resume();
     }
 
-    // Pauses the game
+    // Pauses the game, stopping both the simulation and render threads
     public void pause()
     {
+        governor.stop();
+        renderer.pause();
         try
         {
             isPlaying = false;
@@ -370,7 +359,16 @@ public class GameView extends SurfaceView implements Runnable
         }
     }
 
-    // User controls for moving the player character on the screen
+    // Hands the level's sprites back to the sprite cache once the level is left.
+    // Called after the game is paused, so neither thread is still drawing them.
+    public void release()
+    {
+        levelPlaying.releaseSprites();
+    }
+
+    // User controls for moving the player character on the screen. Touches are
+    // only latched here, on the UI thread, and applied at the start of the next
+    // tick by applyInput.
     // ===== MUST CHANGE TO ACCOMMODATE MULTIPLE FINGERS ON THE SCREEN =====
     @Override
     public boolean onTouchEvent(MotionEvent event)
@@ -383,76 +381,121 @@ public class GameView extends SurfaceView implements Runnable
             // finger.
             case MotionEvent.ACTION_DOWN:
 
-                movePlayer(event);
+                input.post(toMoveInput(event));
 
                 // Checks if the user tapped the TimeState or time changing buttons with a separate
                 // finger, activates it if they're visible
             case MotionEvent.ACTION_POINTER_DOWN:
 
-                timeStateButton.buttonClick(event);
-                timeChangeButton.buttonClick(event);
+                if(timeStateButton.isTapped(event))
+                {
+                    input.post(INPUT_SAVE_STATE);
+                }
+                if(timeChangeButton.isTapped(event))
+                {
+                    input.post(INPUT_TIME_CHANGE);
+                }
                 break;
 
             // Movement actions for when user slides finger across the screen
             case MotionEvent.ACTION_MOVE:
 
-                movePlayer(event);
+                input.post(toMoveInput(event));
                 break;
 
             // Movement actions for when finger is not touching the screen
             case MotionEvent.ACTION_UP:
 
-                playerChar.setJumping(false);
-                playerChar.setXSpeed(0);
-
+                input.post(INPUT_RELEASE);
                 break;
         }
 
         return true;
     }
 
-    // Moves player according to user control input
-    public void movePlayer(MotionEvent event)
+    // Returns the move command for a touch: which side of the screen it's on,
+    // and whether it's in the top half
+    private int toMoveInput(MotionEvent event)
     {
-        // If user touches right half of screen, move player right
+        int command = INPUT_MOVE;
         if(event.getX() >= screenX / 2)
+        {
+            command |= INPUT_RIGHT;
+        }
+        if(event.getY() <= screenY / 2)
+        {
+            command |= INPUT_TOP;
+        }
+        return command;
+    }
+
+    // Applies a touch input command latched by onTouchEvent. Called from the
+    // simulation thread at the start of a tick.
+    private void applyInput(int command)
+    {
+        if(command == INPUT_RELEASE)
+        {
+            // Finger is not touching the screen
+            playerChar.setJumping(false);
+            playerChar.setXSpeed(0);
+        }
+        else if(command == INPUT_SAVE_STATE)
+        {
+            timeStateButton.press();
+        }
+        else if(command == INPUT_TIME_CHANGE)
+        {
+            timeChangeButton.press();
+        }
+        else
+        {
+            movePlayer((command & INPUT_RIGHT) != 0, (command & INPUT_TOP) != 0);
+        }
+    }
+
+    // Moves player according to which side of the screen was touched, and
+    // whether the touch was in the top half
+    public void movePlayer(boolean right, boolean top)
+    {
+        // If user touches right half of screen, move player right
+        if(right)
         {
             // Move player to the right 1.5x as fast if they have the speed power-up,
             // or go at normal speed if they don't
-            PowerUp currentPow = playerChar.getCurrentPower();
+            PowerUpBody currentPow = playerChar.getCurrentPower();
             if(currentPow != null && currentPow.getType().equals("SPEED"))
             {
-                playerChar.setXSpeed(10*1.5*screenRatioX);
+                playerChar.setXSpeed(Fixed.fromInt(10)*3/2);
             }
             else
             {
-                playerChar.setXSpeed(10*screenRatioX);
+                playerChar.setXSpeed(Fixed.fromInt(10));
             }
         }
         // If user touches left side of screen, move player left
-        if(event.getX() < screenX / 2)
+        else
         {
             // Move player to the left 1.5x as fast if they have the speed power-up,
             // or go at normal speed if they don't
-            PowerUp currentPow = playerChar.getCurrentPower();
+            PowerUpBody currentPow = playerChar.getCurrentPower();
             if(currentPow != null && currentPow.getType().equals("SPEED"))
             {
-                playerChar.setXSpeed(-10*1.5*screenRatioX);
+                playerChar.setXSpeed(-Fixed.fromInt(10)*3/2);
             }
             else
             {
-                playerChar.setXSpeed(-10*screenRatioX);
+                playerChar.setXSpeed(-Fixed.fromInt(10));
             }
         }
         // If user touches top half of screen AND gravity pulls downwards,
         // make player jump
-        if(event.getY() <= screenY / 2 && playerChar.getGravAccel() >= 0)
+        if(top && playerChar.getGravAccel() >= 0)
         {
             playerChar.jump();
         }
         // If user touches bottom half of screen AND gravity pulls upwards,
         // make player jump
-        else if(event.getY() > screenY / 2 && playerChar.getGravAccel() < 0)
+        else if(!top && playerChar.getGravAccel() < 0)
         {
             playerChar.jump();
         }
@@ -463,69 +506,4 @@ public class GameView extends SurfaceView implements Runnable
             playerChar.setJumping(false);
         }
     }
-
-    // Resets player to starting position upon dying
-    public void resetPlayer()
-    {
-        // Reset time period back to present
-        presentTime = true;
-
-        // Resets player x-y location to level's start.
-        // y-position accounts for player height
-        playerChar.setXPos(levelPlaying.getStartX());
-        playerChar.setYPos(levelPlaying.getStartY() - playerChar.getHeight());
-
-        // Sets speed to zero and current state to IDLE
-        playerChar.setXSpeed(0);
-        playerChar.setYSpeed(0);
-        playerChar.setPlayerState(Player.PlayerState.IDLE);
-        if(playerChar.isFlipped())
-        {
-            playerChar.flipImages();
-        }
-
-        // Resets gravity back to original direction
-        playerChar.setGravAccel(levelPlaying.getGravityAccel());
-
-        // Resets the player back to normal state without powers
-        playerChar.setPowTimer(0);
-    }
-
-    // Removes enemies from the level's list if they go off-screen
-    public void cleanEnemyList()
-    {
-        for(int i = 0; i < enemies.size(); i++)
-        {
-            // If the enemy is dead and their existence timer is zero,
-            // remove them from the list
-            if(!enemies.get(i).isAlive() && enemies.get(i).getExistTimer() == 0)
-            {
-                enemies.remove(i);
-                i--;
-            }
-            // If the enemy is alive but off-screen, remove them
-            else
-            {
-                int enemyY = enemies.get(i).getY();
-                double enemyGrav = enemies.get(i).getGravAccel();
-
-                if(enemyGrav >= 0)
-                {
-                    if(enemyY + enemies.get(i).getHeight() > screenY)
-                    {
-                        enemies.remove(i);
-                        i--;
-                    }
-                }
-                else
-                {
-                    if(enemyY < 1)
-                    {
-                        enemies.remove(i);
-                        i--;
-                    }
-                }
-            }
-        }
-    }
 }
@@ -1,180 +1,82 @@
 package com.example.game;
 
-import static com.example.game.GameView.screenRatioX;
-import static com.example.game.GameView.screenRatioY;
 import com.example.logindemo.R;
 import android.content.res.Resources;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Rect;
+
+import com.example.game.engine.GravityPadBody;
 
 public class GravityPad
 {
-    // x-y coordinate locations of the gravity pad
-    private int x;
-    private int y;
-
-    // Height and width of the gravity pad
-    private int width;
-    private int height;
+    // Simulated gravity pad this draws
+    private GravityPadBody body;
 
-    // Bitmap image array for on and off states of the gravity pad
+    // Atlas sprites for on and off states of the gravity pad
     // 0 = off
     // 1 = on
-    private Bitmap[] images;
-
-    // Cooldown timer to control how long it takes for the player to be able
-    // to use the gravity pad again
-    // 0 = gravity pad ready to activate
-    private int cooldown;
+    private Atlas.Region[] sprites;
 
-    // "Flip" boolean to indicate whether the gravity pad is right-side up or
-    // upside down.
-    // True = upside down
-    // False = right-side up
-    private boolean flip;
-
-    public GravityPad(int x, int y, boolean f, Resources res)
+    public GravityPad(GravityPadBody body, Resources res)
     {
-        // Creates the Bitmap image array for the gravity pads different
-        // states
-        images = new Bitmap[2];
-
-        // Sets orientation of the gravity pad based on the "flip" value.
-        // If "flip" is True, the flipped variants of the gravity pad PNGs
-        // are used instead.
-        flip = f;
-
-        // Retrieves the PNGs for the gravity pad's on and off states,
-        // along with their dimensions.
-        if(flip)
-        {
-            images[0] = BitmapFactory.decodeResource(res, R.drawable.gravity_pad_off_flipped);
-            images[1] = BitmapFactory.decodeResource(res, R.drawable.gravity_pad_on_flipped);
-        }
-        else
-        {
-            images[0] = BitmapFactory.decodeResource(res, R.drawable.gravity_pad_off);
-            images[1] = BitmapFactory.decodeResource(res, R.drawable.gravity_pad_on);
-        }
+        this.body = body;
 
-        // Scales the gravity pad images to the device screen size
-        width = images[0].getWidth()/2;
-        height = images[0].getHeight()/2;
-        width = (int)(width*screenRatioX);
-        height = (int)(height*screenRatioY);
-        for(int i = 0; i < images.length; i++)
-        {
-            images[i] = Bitmap.createScaledBitmap(images[i], width, height, false);
-        }
+        // Creates the sprite array for the gravity pads different
+        // states
+        sprites = new Atlas.Region[2];
 
-        // Initializes x-y location of the gravity pad, adjusted for device
-        // screen size. Adjusts y-location for height and orientation of the
-        // gravity pad's image.
-        if(flip)
+        // Looks up the sprites for the gravity pad's on and off states in the atlas.
+        // If the pad is flipped, the flipped variants of the PNGs are used instead.
+        Atlas atlas = Atlas.getInstance(res);
+        if(body.isFlipped())
         {
-            this.x = (int)(x*screenRatioX);
-            this.y = (int)(y*screenRatioY);
+            sprites[0] = atlas.getRegion(R.drawable.gravity_pad_off_flipped);
+            sprites[1] = atlas.getRegion(R.drawable.gravity_pad_on_flipped);
         }
         else
         {
-            this.x = (int)(x*screenRatioX);
-            this.y = (int)((y-height)*screenRatioY);
+            sprites[0] = atlas.getRegion(R.drawable.gravity_pad_off);
+            sprites[1] = atlas.getRegion(R.drawable.gravity_pad_on);
         }
-
-        // Set the gravity pad cooldown to 0, indicating it can be activated
-        cooldown = 0;
     }
 
     // === GETTERS ===
 
-    // Return x-coordinate of the gravity pad
-    public int getX()
-    {
-        return x;
-    }
-
-    // Return y-coordinate of the gravity pad
-    public int getY()
-    {
-        return y;
-    }
-
-    // Return activation box width of the gravity pad
-    public int getWidth()
-    {
-        return width;
-    }
-
-    // Return activation box height of the gravity pad
-    public int getHeight()
-    {
-        return height;
-    }
-
-    // Returns a status flag based on the gravity pad's cooldown timer,
-    // indicating whether it can be used
-    public boolean canUse()
-    {
-        return cooldown == 0;
-    }
-
-    // Returns Bitmap image of the gravity pad based on whether it's usable or not
-    public Bitmap getImage()
+    // Returns the simulated gravity pad
+    public GravityPadBody getBody()
     {
-        // If cooldown is still active, return "off" image
-        if(cooldown > 0)
-        {
-            return images[0];
-        }
-        // If no longer in cooldown, return "on" image
-        else
-        {
-            return images[1];
-        }
+        return body;
     }
 
-    // Returns collision shape of the gravity pad for determining when the player
-    // touches it. It's made to be smaller than the actual image for a more logical
-    // activation.
-    public Rect getCollisionShape()
+    // Returns atlas sprite of the gravity pad based on whether it's usable or not
+    public Atlas.Region getSprite()
     {
-        if(flip)
+        // If cooldown is still active, return "off" sprite
+        if(!body.canUse())
         {
-            return new Rect(x, y, x + width, y + (int)(height*0.25));
+            return sprites[0];
         }
+        // If no longer in cooldown, return "on" sprite
         else
         {
-            return new Rect(x, y + (int)(height*0.75), x + width, y + height);
+            return sprites[1];
         }
     }
 
-    // === SETTERS ===
-
-    // Sets cooldown timer for gravity pad
-    public void setCooldown(int c)
-    {
-        cooldown = c;
-    }
-
     // === OTHER METHODS ===
 
-    // Draws the gravity pad onto the Canvas based on its on or off state
-    public void drawPad(Canvas levelMap, Paint paintInfo)
+    // Draws the gravity pad onto a frame snapshot based on its on or off state
+    public void drawPad(WorldSnapshot frame)
     {
-        // If gravity pad is in cooldown, draw its "off" state and decrement the
-        // cooldown timer
-        if(cooldown > 0)
+        // If gravity pad is in cooldown, draw its "off" state
+        if(!body.canUse())
         {
-            cooldown--;
-            levelMap.drawBitmap(images[0], x, y, paintInfo);
+            frame.addRegion(sprites[0], false, body.getX(), body.getY(), body.getX(), body.getY(),
+                    body.getWidth(), body.getHeight(), 255);
         }
         // If gravity pad isn't in cooldown, draw its "on" state
         else
         {
-            levelMap.drawBitmap(images[1], x, y, paintInfo);
+            frame.addRegion(sprites[1], false, body.getX(), body.getY(), body.getX(), body.getY(),
+                    body.getWidth(), body.getHeight(), 255);
         }
     }
 }
@@ -0,0 +1,50 @@
+package com.example.game;
+
+public class InputBuffer
+{
+    // Most commands held between two ticks. Touch events arrive a few times a
+    // tick at most, so this only fills if the simulation thread stalls.
+    public static final int CAPACITY = 32;
+
+    // Commands posted since the simulation thread last took them, oldest first
+    private final int[] commands;
+    private int count;
+
+    // Constructor for an empty buffer
+    public InputBuffer()
+    {
+        commands = new int[CAPACITY];
+    }
+
+    // === OTHER METHODS ===
+
+    // Adds a command for the next tick. A command repeating the one before it
+    // is dropped, since applying it twice in a tick does nothing more. Once the
+    // buffer is full, a new command replaces the newest one, so the latest
+    // input still lands. Called from the UI thread.
+    public synchronized void post(int command)
+    {
+        if(count > 0 && commands[count - 1] == command)
+        {
+            return;
+        }
+        if(count == CAPACITY)
+        {
+            count--;
+        }
+        commands[count] = command;
+        count++;
+    }
+
+    // Copies the commands posted since the last call into a given array, which
+    // holds at least CAPACITY commands, oldest first, and empties the buffer.
+    // Returns how many were copied. Called from the simulation thread at the
+    // start of each tick, so input is always applied between ticks.
+    public synchronized int take(int[] into)
+    {
+        int taken = count;
+        System.arraycopy(commands, 0, into, 0, taken);
+        count = 0;
+        return taken;
+    }
+}
@@ -1,27 +1,39 @@
 package com.example.game;
 
-import static com.example.game.GameView.screenRatioX;
-import static com.example.game.GameView.screenRatioY;
-import static com.example.game.LevelSelectActivity.levelChosen;
-import static com.example.game.Platform.MAX_HEIGHT;
-import static com.example.game.Platform.MAX_WIDTH;
+import static com.example.game.engine.PlatformBody.MAX_HEIGHT;
+import static com.example.game.engine.PlatformBody.MAX_WIDTH;
 
+import android.content.res.AssetFileDescriptor;
 import android.content.res.Resources;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+import com.example.logindemo.R;
+
+import com.example.game.engine.BinaryLevelFormat;
+import com.example.game.engine.EnemyBody;
+import com.example.game.engine.GravityPadBody;
+import com.example.game.engine.LevelData;
+import com.example.game.engine.PlatformBody;
+import com.example.game.engine.PowerUpBody;
+import com.example.game.engine.TileType;
+import com.example.game.engine.TimeMachineBody;
+import com.example.game.engine.World;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
-
-// === ADD import com.example.logindemo.R; AS NEEDED ===
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class Level
 {
-    // Gravitational acceleration of level
-    private double gravityAccel;
-
-    // Starting x and y coordinates of player in level
-    private int startX;
-    private int startY;
+    // Simulated level, holding the physics of every entity. The lists below
+    // hold the images drawing each simulated entity.
+    private World world;
 
     // Width and height of the device
     private int screenX;
@@ -30,6 +42,11 @@ public class Level
     // Background Object of the level
     private Background lvlBackground;
 
+    // Background and non-moving platforms of each time period, baked into one
+    // image. Each is built the first time its time period is shown.
+    private StaticLayer layerPresent;
+    private StaticLayer layerFuture;
+
     // Resources Object to access platform images
     private Resources res;
 
@@ -52,15 +69,20 @@ public class Level
     // Goal post of the level
     private Goal goalPost;
 
-    // Constructor for the level.
-    public Level(Resources r, int screenX, int screenY)
+    // Player character of the level
+    private Player playerChar;
+
+    // Constructor for a given level, reading it into the simulated world. Its
+    // images are made afterwards by decodeImages() and bakeStaticLayers(), so
+    // a level can be built in stages off the UI thread (see AsyncLevelLoader).
+    public Level(Resources r, int screenX, int screenY, int levelNum)
     {
         // Initializes the device screen width and height
         this.screenX = screenX;
         this.screenY = screenY;
 
-        // Initializes the Canvas paint style, platform lists, time machine list,
-        // gravity pad list, power-up list, and enemy list
+        // Initializes the platform lists, time machine list, gravity pad list,
+        // power-up list, and enemy list
         res = r;
         platformsPresent = new ArrayList<>();
         platformsFuture = new ArrayList<>();
@@ -69,296 +91,326 @@ public class Level
         powerUps = new ArrayList<>();
         enemies = new ArrayList<>();
 
-        createLevel(levelChosen);
+        // Simulates the chosen level in design space, sizing entities from their
+        // drawables. The device's screen only matters once the level is drawn.
+        world = new World(MAX_WIDTH, MAX_HEIGHT, new ResourceSpriteMetrics(res));
+        loadWorld(levelNum);
     }
 
     // === GETTERS ===
 
-    // Returns gravitational acceleration of level
-    public double getGravityAccel()
+    // Returns the simulated level
+    public World getWorld()
     {
-        return gravityAccel;
+        return world;
     }
 
-    // Returns player's starting x-coordinate in the level
-    public int getStartX()
+    // Returns level background Object
+    public Background getLvlBackground()
     {
-        return startX;
+        return lvlBackground;
     }
 
-    // Returns player's starting y-coordinate in the level
-    public int getStartY()
+    // Returns the player character of the level
+    public Player getPlayerChar()
     {
-        return startY;
+        return playerChar;
     }
 
-    // Returns level background Object
-    public Background getLvlBackground()
+    // Returns the memory, in bytes, held by images only this level uses: its
+    // static layers and wood platform tiles. Sprites shared through the sprite
+    // cache and the atlas aren't counted.
+    public long getImageBytes()
     {
-        return lvlBackground;
+        long bytes = 0;
+        if(layerPresent != null)
+        {
+            bytes += layerPresent.getImage().getByteCount();
+        }
+        if(layerFuture != null)
+        {
+            bytes += layerFuture.getImage().getByteCount();
+        }
+        for(int i = 0; i < platformsPresent.size(); i++)
+        {
+            bytes += getImageBytes(platformsPresent.get(i));
+        }
+        for(int i = 0; i < platformsFuture.size(); i++)
+        {
+            bytes += getImageBytes(platformsFuture.get(i));
+        }
+        return bytes;
     }
 
-    // Returns level's platforms for "present" time period
-    public ArrayList<Platform> getPlatformsPresent()
+    // === OTHER METHODS ===
+
+    // Reads a given level's file from the app's assets into the simulated world.
+    // Level files ship inside the app, so one that can't be read is a packaging
+    // error and the level can't be played.
+    private void loadWorld(int levelNum)
     {
-        return platformsPresent;
+        try
+        {
+            readLevel(levelNum).populate(world);
+        }
+        catch (IOException e)
+        {
+            Log.d("LEVEL ERROR", "Could not load level " + levelNum + ".");
+            e.printStackTrace();
+            throw new IllegalStateException("Level " + levelNum + " could not be loaded", e);
+        }
     }
 
-    // Returns level's platforms for "future" time period
-    public ArrayList<Platform> getPlatformsFuture()
+    // Reads a given level's binary file, mapped straight out of the APK (binary
+    // level files are stored uncompressed so they can be). The files are
+    // compiled from the level sources at build time by the compileLevels task.
+    private LevelData readLevel(int levelNum) throws IOException
     {
-        return platformsFuture;
+        AssetFileDescriptor fd = res.getAssets().openFd(BinaryLevelFormat.getLevelPath(levelNum));
+        try
+        {
+            FileInputStream in = fd.createInputStream();
+            try
+            {
+                // The mapping stays valid after the file is closed
+                return BinaryLevelFormat.read(in.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                        fd.getStartOffset(), fd.getLength()));
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        finally
+        {
+            fd.close();
+        }
     }
 
-    // Returns the level's list of time machines
-    public ArrayList<TimeMachine> getTimeMachines()
+    // Decodes the level's images on a given pool, all at once, and waits for
+    // them: the background, the sprite atlas (if no level has loaded it yet),
+    // and the tile sheet wood platforms are cut from. Then creates the images
+    // for every entity of the simulated level.
+    public void decodeImages(ExecutorService pool) throws InterruptedException, ExecutionException
     {
-        return timeMachines;
+        Future<Background> background = pool.submit(new Callable<Background>()
+        {
+            @Override
+            public Background call()
+            {
+                return new Background(screenX, screenY, res, world.getBackgroundType());
+            }
+        });
+        Future<Atlas> atlas = pool.submit(new Callable<Atlas>()
+        {
+            @Override
+            public Atlas call()
+            {
+                return Atlas.getInstance(res);
+            }
+        });
+        Future<Bitmap> tileSheet = null;
+        if(hasWoodPlatforms())
+        {
+            tileSheet = pool.submit(new Callable<Bitmap>()
+            {
+                @Override
+                public Bitmap call()
+                {
+                    return BitmapFactory.decodeResource(res, R.drawable.wood_tiles, ResourceSpriteMetrics.designOptions());
+                }
+            });
+        }
+
+        lvlBackground = background.get();
+        atlas.get();
+        createLevel(tileSheet != null ? tileSheet.get() : null);
     }
 
-    // Returns the level's list of power ups
-    public ArrayList<PowerUp> getPowerUps()
+    // Draws the background and non-moving platforms into the static layers at
+    // the screen's resolution, so the first frame of each time period doesn't
+    // have to. The future layer is only made if a time machine can reach it.
+    public void bakeStaticLayers()
     {
-        return powerUps;
+        layerPresent = new StaticLayer(lvlBackground, platformsPresent, screenX, screenY);
+        if(!timeMachines.isEmpty())
+        {
+            layerFuture = new StaticLayer(lvlBackground, platformsFuture, screenX, screenY);
+        }
     }
 
-    // Returns level's gravity pads
-    public ArrayList<GravityPad> getGravPads()
+    // Returns the memory, in bytes, held by a given platform's tile image
+    private static long getImageBytes(Platform p)
     {
-        return gravPads;
+        return p.getImage() != null ? p.getImage().getByteCount() : 0;
     }
 
-    // Returns level's enemies
-    public ArrayList<Enemy> getEnemies()
+    // Returns true if any platform of the level is cut from the wood tile sheet
+    private boolean hasWoodPlatforms()
     {
-        return enemies;
+        for(int i = 0; i < world.getPlatformsPresent().size(); i++)
+        {
+            if(world.getPlatformsPresent().get(i).getTileType() == TileType.WOOD)
+            {
+                return true;
+            }
+        }
+        for(int i = 0; i < world.getPlatformsFuture().size(); i++)
+        {
+            if(world.getPlatformsFuture().get(i).getTileType() == TileType.WOOD)
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
-    // Returns level's goalpost.
-    public Goal getGoalPost() { return goalPost; }
-
-    // === OTHER METHODS ===
-
-    // Creates the level's platforms and other entities based on the level
-    // number given.
-    // LIMITS:
-    // x-coordinates of platforms can't be > (1080 - platform width) pixels
-    // y-coordinates of platforms can't be > (2280 - platform height) pixels
-    public void createLevel(int levelNum)
+    // Creates the images for every entity of the simulated level, cutting wood
+    // platforms from a given decoded tile sheet
+    private void createLevel(Bitmap tileSheet)
     {
-        switch(levelNum)
+        for(PlatformBody p : world.getPlatformsPresent())
         {
-            // Level 1 start data
-            case 1:
-
-                // Sets starting location of player and gravitational acceleration
-                startX = (int)(10*screenRatioX);
-                startY = (int)(2180*screenRatioY);
-                gravityAccel = 3;
-
-                // Sets background to "facility", initializes background image
-                lvlBackground = new Background(screenX, screenY, res, "FACILITY");
-
-                // === LEVEL 1 PLATFORMS ===
-
-                // Left and right walls
-                platformsPresent.add(new Platform(0, 0, 50, MAX_HEIGHT-200, res, "METAL"));
-                platformsPresent.add(new Platform(880, 750, 200, MAX_HEIGHT, res, "METAL"));
-
-                // Other platforms
-                platformsPresent.add(new Platform(680, 1515, 200, 50, res, "METAL"));
-                platformsPresent.add(new Platform(300, 1300, 200, 50, res, "METAL"));
-                platformsPresent.add(new Platform(480, 1100, 200, 50, res, "METAL"));
-                platformsPresent.add(new Platform(380, 950, 100, 50, res, "METAL"));
-                platformsPresent.add(new Platform(680, 800, 200, 50, res, "METAL"));
-
-                // Gravity pads
-                gravPads.add(new GravityPad(690, 2180, false, res));
-                gravPads.add(new GravityPad(540, 1150, true, res));
-
-                // Goalpost
-                goalPost = new Goal(980, 750, res);
-
-                // Main floor platforms
-                platformsPresent.add(new Platform(0, 2180, 390, MAX_HEIGHT, res, "DARK_METAL"));
-                platformsPresent.add(new Platform(590, 2180, 490, MAX_HEIGHT, res, "DARK_METAL"));
-
-                break;
-
-            // Level 2 start data
-            case 2:
-
-                // Sets starting location of player and gravitational acceleration
-                startX = (int)(10*screenRatioX);
-                startY = (int)(800*screenRatioY);
-                gravityAccel = 1;
-
-                // Sets background to "space"
-                lvlBackground = new Background(screenX, screenY, res, "SPACE");
-
-                // Adds goal post to Level 2
-                goalPost = new Goal(1015, 2180, res);
-
-                // Adds present time platforms to Level 2
-                platformsPresent.add(new Platform(0, 800, 300, MAX_HEIGHT, res, "DIRT"));
-                platformsPresent.add(new Platform(500, 200, 75, 1800, res, "STONE"));
-                platformsPresent.add(new Platform(125, 0, MAX_WIDTH, 200, res, "STONE"));
-                platformsPresent.add(new Platform(880, 2180, MAX_WIDTH, MAX_HEIGHT, res, "DIRT"));
-
-                // Adds future time platforms to Level 2
-                platformsFuture.add(new Platform(0, 800, 300, MAX_HEIGHT, res, "DIRT"));
-                platformsFuture.add(new Platform(575, 0, MAX_WIDTH, 200, res, "STONE"));
-                platformsFuture.add(new Platform(880, 2180, MAX_WIDTH, MAX_HEIGHT, res, "DIRT"));
-                platformsFuture.add(new Platform(300, 800, 1080, 800, 10, 0, 200, 50, res, "STONE"));
-                platformsFuture.add(new Platform(1080, 1400, 300, 1600, 10, 0, 200, 50, res, "STONE"));
-
-                // Adds gravity pads to Level 2
-                gravPads.add(new GravityPad(150, 800, false, res));
-
-                // Add power-ups to Level 2
-                powerUps.add(new PowerUp(700, 200, "JUMP", res));
-
-                // Adds time machine to Level 2
-                timeMachines.add(new TimeMachine(1000, 200, true, res));
-
-                break;
-
-            // Level 3 start data
-            case 3:
-
-                // Sets starting location of player and gravitational acceleration
-                startX = (int)(10*screenRatioX);
-                startY = (int)(1200*screenRatioY);
-                gravityAccel = 3;
-
-                // Sets background to "night"
-                lvlBackground = new Background(screenX, screenY, res, "NIGHT");
-
-                // Adds goal post to Level 3
-                goalPost = new Goal(50, 400, res);
-
-                // Adds present time platforms to Level 3
-                platformsPresent.add(new Platform(200, 1500, MAX_WIDTH, 75, res, "WOOD"));
-                platformsPresent.add(new Platform(200, 2180, MAX_WIDTH, MAX_HEIGHT, res, "STONE"));
-                platformsPresent.add(new Platform(0, 400, 300, 100, res, "STONE"));
-                platformsPresent.add(new Platform(0, 1500, 200, MAX_HEIGHT, res, "DIRT"));
-                platformsPresent.add(new Platform(0, 1500, 200, 50, res, "GRASS"));
-                platformsPresent.add(new Platform(0, 1250, 125, MAX_HEIGHT, res, "DIRT"));
-                platformsPresent.add(new Platform(0, 1250, 125, 50, res, "GRASS"));
-                platformsPresent.add(new Platform(900, 1500, 180, MAX_HEIGHT, res, "DIRT"));
-                platformsPresent.add(new Platform(900, 1500, 180, 50, res, "GRASS"));
-
-                // Adds future time platforms to Level 3
-                platformsFuture.add(new Platform(200, 2180, MAX_WIDTH, MAX_HEIGHT, res, "STONE"));
-                platformsFuture.add(new Platform(0, 1500, 200, MAX_HEIGHT, res, "DIRT"));
-                platformsFuture.add(new Platform(0, 1500, 200, 50, res, "GRASS"));
-                platformsFuture.add(new Platform(0, 1250, 125, MAX_HEIGHT, res, "DIRT"));
-                platformsFuture.add(new Platform(0, 1250, 125, 50, res, "GRASS"));
-                platformsFuture.add(new Platform(900, 1500, 180, MAX_HEIGHT, res, "DIRT"));
-                platformsFuture.add(new Platform(900, 1500, 180, 50, res, "GRASS"));
-                platformsFuture.add(new Platform(0, 400, 300, 100, res, "STONE"));
-
-                // Adds gravity pads to Level 3
-                gravPads.add(new GravityPad(250, 2180, false, res));
-                gravPads.add(new GravityPad(500, 2180, false, res));
-                gravPads.add(new GravityPad(750, 2180, false, res));
-
-                // Adds time machines to Level 3
-                timeMachines.add(new TimeMachine(990, 1500, false, res));
-
-                // Add enemies to Level 3
-                enemies.add(new Enemy(600, 1500, gravityAccel, res));
-                enemies.add(new Enemy(820, 1500, gravityAccel, res));
-
-                // Add shield power up to Level 3
-                powerUps.add(new PowerUp(10, 1000, "SHIELD", res));
-
-                break;
-
-            // Level 4 start data
-            default:
-
-                // Sets starting location of player and gravitational acceleration
-                startX = (int)(500*screenRatioX);
-                startY = (int)(1980*screenRatioY);
-                gravityAccel = 3;
+            platformsPresent.add(new Platform(p, tileSheet));
+        }
+        for(PlatformBody p : world.getPlatformsFuture())
+        {
+            platformsFuture.add(new Platform(p, tileSheet));
+        }
+        for(GravityPadBody g : world.getGravPads())
+        {
+            gravPads.add(new GravityPad(g, res));
+        }
+        for(TimeMachineBody m : world.getTimeMachines())
+        {
+            timeMachines.add(new TimeMachine(m, res));
+        }
+        for(EnemyBody e : world.getEnemies())
+        {
+            enemies.add(new Enemy(e, res));
+        }
+        for(PowerUpBody p : world.getPowerUps())
+        {
+            powerUps.add(new PowerUp(p, res));
+        }
+        goalPost = new Goal(world.getGoalPost(), res);
+        playerChar = new Player(world.getPlayer(), res);
+    }
 
-                // Sets background to "night"
-                lvlBackground = new Background(screenX, screenY, res, "NIGHT");
-
-                // Adds goal post to Level 4
-                goalPost = new Goal(1030, 1780, res);
-
-                // Adds platforms to Level 3
-                platformsPresent.add(new Platform(0, 1000, 200, 1280, res, "STONE"));
-                platformsPresent.add(new Platform(200, 1200, 100, 1080, res, "WOOD"));
-                platformsPresent.add(new Platform(980, 1780, 100, 500, res, "WOOD"));
-
-                // Main floor of the level
-                platformsPresent.add(new Platform(0, 1980, MAX_WIDTH, 300, res, "DIRT"));
+    // Draws the background and non-moving platforms of the current time period to
+    // a given frame snapshot (in GameView) as one image, baking it on first use
+    public void drawStaticLayer(WorldSnapshot frame, GameView currentGV)
+    {
+        if(currentGV.isPresentTime())
+        {
+            if(layerPresent == null)
+            {
+                layerPresent = new StaticLayer(lvlBackground, platformsPresent, screenX, screenY);
+            }
+            layerPresent.drawLayer(frame);
+        }
+        else
+        {
+            if(layerFuture == null)
+            {
+                layerFuture = new StaticLayer(lvlBackground, platformsFuture, screenX, screenY);
+            }
+            layerFuture.drawLayer(frame);
         }
     }
 
-    // Moves and draws the platforms of the Level to a given Canvas (in GameView)
-    public void drawPlatforms(Canvas levelMap, Paint paintInfo, GameView currentGV)
+    // Draws the moving platforms of the Level to a given frame snapshot (in
+    // GameView). Platforms that don't move are part of the static layer.
+    public void drawPlatforms(WorldSnapshot frame, GameView currentGV)
     {
         if(currentGV.isPresentTime())
         {
-            for(Platform p: platformsPresent)
+            for(int i = 0; i < platformsPresent.size(); i++)
             {
-                p.movePlatform();
-                p.drawPlatform(levelMap, paintInfo);
+                if(platformsPresent.get(i).getBody().isMoving())
+                {
+                    platformsPresent.get(i).drawPlatform(frame);
+                }
             }
         }
         else
         {
-            for(Platform p: platformsFuture)
+            for(int i = 0; i < platformsFuture.size(); i++)
             {
-                p.movePlatform();
-                p.drawPlatform(levelMap, paintInfo);
+                if(platformsFuture.get(i).getBody().isMoving())
+                {
+                    platformsFuture.get(i).drawPlatform(frame);
+                }
             }
         }
     }
 
-    // Draws the gravity pads of the Level to a given Canvas (in GameView)
-    public void drawPads(Canvas levelMap, Paint paintInfo)
+    // Draws the gravity pads of the Level to a given frame snapshot (in GameView)
+    public void drawPads(WorldSnapshot frame)
     {
-        for(GravityPad g : gravPads)
+        for(int i = 0; i < gravPads.size(); i++)
         {
-            g.drawPad(levelMap, paintInfo);
+            gravPads.get(i).drawPad(frame);
         }
     }
 
-    // Draws the goalposts of the Level to a given Canvas (in GameView)
-    public void drawGoal(Canvas levelMap, Paint paintInfo)
+    // Draws the goalposts of the Level to a given frame snapshot (in GameView)
+    public void drawGoal(WorldSnapshot frame)
+    {
+        goalPost.drawGoal(frame);
+    }
+
+    // Draws the time machines of the Level to a given frame snapshot (in GameView)
+    public void drawMachines(WorldSnapshot frame, GameView currentGV)
     {
-        goalPost.drawGoal(levelMap, paintInfo);
+        for(int i = 0; i < timeMachines.size(); i++)
+        {
+            timeMachines.get(i).drawTimeMachine(frame, currentGV);
+        }
     }
 
-    // Draws the time machines of the Level to a given Canvas (in GameView)
-    public void drawMachines(Canvas levelMap, Paint paintInfo, GameView currentGV)
+    // Drops the enemies the simulation has taken out of the level. Run after
+    // each tick so drawing only has to read the list.
+    public void cleanEnemyList()
     {
-        for(TimeMachine m : timeMachines)
+        for(int i = 0; i < enemies.size(); i++)
         {
-            m.drawTimeMachine(levelMap, paintInfo, currentGV);
+            if(enemies.get(i).getBody().isRemoved())
+            {
+                enemies.remove(i);
+                i--;
+            }
         }
     }
 
-    // Draws the enemies of the level to a given Canvas (in GameView)
-    public void drawEnemies(Canvas levelMap, Paint paintInfo)
+    // Draws the enemies of the level to a given frame snapshot (in GameView)
+    public void drawEnemies(WorldSnapshot frame)
     {
         for(int i = 0; i < enemies.size(); i++)
         {
-            enemies.get(i).drawEnemy(levelMap, paintInfo);
+            enemies.get(i).drawEnemy(frame);
+        }
+    }
+
+    // Draws the power-ups of the level to a given frame snapshot (in GameView)
+    public void drawPowerUps(WorldSnapshot frame)
+    {
+        for(int i = 0; i < powerUps.size(); i++)
+        {
+            powerUps.get(i).drawPowerUp(frame);
         }
     }
 
-    // Draws the power-ups of the level to a given Canvas (in GameView)
-    public void drawPowerUps(Canvas levelMap, Paint paintInfo)
+    // Hands the level's background back to the sprite cache, then lets the
+    // cache drop the least recently used images no longer needed. Called when
+    // the level is left. Entity sprites come from the atlas, which is shared by
+    // every level.
+    public void releaseSprites()
     {
-        for(PowerUp p : powerUps)
+        if(lvlBackground != null)
         {
-            p.drawPowerUp(levelMap, paintInfo);
+            lvlBackground.releaseImage();
         }
+        SpriteCache.getInstance().trim();
     }
 }
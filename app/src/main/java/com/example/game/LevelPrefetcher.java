@@ -0,0 +1,253 @@
+package com.example.game;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public class LevelPrefetcher implements ComponentCallbacks2
+{
+    // Most memory kept for the images of levels loaded ahead of time and not
+    // yet played, in screen-sized 32-bit images. A level's images are mostly
+    // its two screen-sized static layers, so this holds a level and its
+    // platform tiles with room to spare. The least recently loaded levels are
+    // dropped past this limit, but never the one just loaded.
+    private static final int MAX_CACHED_SCREENS = 3;
+
+    // The one prefetcher shared by the whole app
+    private static final LevelPrefetcher instance = new LevelPrefetcher();
+
+    // A level loaded, or being loaded, ahead of time, and the screen size its
+    // images were made for. A level that's claimed while still loading passes
+    // the loader's progress and result on to the claiming listener.
+    private class Entry implements AsyncLevelLoader.Listener
+    {
+        private final int levelNum;
+        private final int screenX, screenY;
+        private AsyncLevelLoader loader;
+        private Level level;
+        private long bytes;
+        private int stage;
+        private AsyncLevelLoader.Listener claimant;
+
+        private Entry(int levelNum, int screenX, int screenY)
+        {
+            this.levelNum = levelNum;
+            this.screenX = screenX;
+            this.screenY = screenY;
+        }
+
+        // Passes the stage on to the claimant, if there is one yet
+        @Override
+        public void onLoadProgress(int stage)
+        {
+            this.stage = stage;
+            if(claimant != null)
+            {
+                claimant.onLoadProgress(stage);
+            }
+        }
+
+        // Hands the level to the claimant, or keeps it until it's claimed
+        @Override
+        public void onLevelLoaded(Level level)
+        {
+            loader = null;
+            if(claimant != null)
+            {
+                entries.remove(levelNum);
+                claimant.onLevelLoaded(level);
+            }
+            else
+            {
+                this.level = level;
+                bytes = level.getImageBytes();
+                cachedBytes += bytes;
+                trim(this);
+            }
+        }
+
+        // Tells the claimant the level couldn't be loaded, and forgets it
+        @Override
+        public void onLoadFailed(Exception e)
+        {
+            loader = null;
+            entries.remove(levelNum);
+            if(claimant != null)
+            {
+                claimant.onLoadFailed(e);
+            }
+        }
+    }
+
+    // Levels loaded or being loaded ahead of time, by level number, in least to
+    // most recently requested order
+    private final LinkedHashMap<Integer, Entry> entries;
+
+    // Memory used by the images of loaded levels waiting to be played
+    private long cachedBytes;
+
+    // Whether the prefetcher is told when the system is low on memory
+    private boolean registered;
+
+    private LevelPrefetcher()
+    {
+        entries = new LinkedHashMap<>();
+    }
+
+    // Returns the prefetcher shared by the whole app
+    public static LevelPrefetcher getInstance()
+    {
+        return instance;
+    }
+
+    // === OTHER METHODS ===
+
+    // Starts loading a given level in the background, at low priority, for a
+    // given screen size, unless it's already loaded or being loaded. Called
+    // from the UI thread while another level is being played.
+    public void prefetch(Context context, int screenX, int screenY, int levelNum)
+    {
+        // Listens for memory pressure through the application, which outlives
+        // the activity asking, so the cache is dropped whichever screen is up
+        if(!registered)
+        {
+            context.getApplicationContext().registerComponentCallbacks(this);
+            registered = true;
+        }
+
+        Entry entry = entries.get(levelNum);
+        if(entry != null && (entry.claimant != null || (entry.screenX == screenX && entry.screenY == screenY)))
+        {
+            return;
+        }
+        if(entry != null)
+        {
+            discard(entry);
+        }
+
+        entry = new Entry(levelNum, screenX, screenY);
+        entries.put(levelNum, entry);
+        entry.loader = new AsyncLevelLoader(context.getResources(), screenX, screenY, levelNum, entry);
+        entry.loader.start();
+    }
+
+    // Claims a given level for a listener, if it was prefetched for the same
+    // screen size. A level that's already loaded is handed to the listener
+    // before this returns; one still loading is handed over when it's done,
+    // along with its remaining progress. Returns false if the level wasn't
+    // prefetched, and the caller must load it itself. Called from the UI thread.
+    public boolean claim(int levelNum, int screenX, int screenY, AsyncLevelLoader.Listener listener)
+    {
+        Entry entry = entries.get(levelNum);
+        if(entry == null || entry.claimant != null || entry.screenX != screenX || entry.screenY != screenY)
+        {
+            return false;
+        }
+
+        entry.claimant = listener;
+        if(entry.level != null)
+        {
+            entries.remove(levelNum);
+            cachedBytes -= entry.bytes;
+            listener.onLevelLoaded(entry.level);
+        }
+        else
+        {
+            listener.onLoadProgress(entry.stage);
+        }
+        return true;
+    }
+
+    // Withdraws a listener's claim on a level still loading, e.g. when the
+    // player leaves before it's ready. The level goes back to waiting in the
+    // cache once it's loaded, instead of being thrown away.
+    public void unclaim(AsyncLevelLoader.Listener listener)
+    {
+        Iterator<Entry> it = entries.values().iterator();
+        while(it.hasNext())
+        {
+            Entry entry = it.next();
+            if(entry.claimant == listener)
+            {
+                entry.claimant = null;
+            }
+        }
+    }
+
+    // Drops every level that isn't claimed, loaded or still loading, when the
+    // system starts running low on memory. Called from the UI thread.
+    @Override
+    public void onTrimMemory(int level)
+    {
+        if(level >= TRIM_MEMORY_RUNNING_LOW)
+        {
+            clear();
+        }
+    }
+
+    // Drops every level that isn't claimed when the system is out of memory
+    @Override
+    public void onLowMemory()
+    {
+        clear();
+    }
+
+    // Screen size changes are handled by prefetch, as each level remembers the
+    // size it was loaded for
+    @Override
+    public void onConfigurationChanged(Configuration newConfig)
+    {
+    }
+
+    // Forgets every level that isn't claimed, abandoning loads and handing back
+    // sprites. Claimed levels are still loading for a player waiting on them.
+    public void clear()
+    {
+        Object[] all = entries.values().toArray();
+        for(int i = 0; i < all.length; i++)
+        {
+            Entry entry = (Entry)all[i];
+            if(entry.claimant == null)
+            {
+                discard(entry);
+            }
+        }
+    }
+
+    // Drops the least recently requested loaded levels, other than one just
+    // loaded, until the rest fit in the memory limit for its screen size.
+    // Levels still loading are counted once they're loaded.
+    private void trim(Entry keep)
+    {
+        long maxCachedBytes = MAX_CACHED_SCREENS * keep.screenX * keep.screenY * 4L;
+        Iterator<Entry> it = entries.values().iterator();
+        while(cachedBytes > maxCachedBytes && it.hasNext())
+        {
+            Entry entry = it.next();
+            if(entry != keep && entry.level != null)
+            {
+                it.remove();
+                cachedBytes -= entry.bytes;
+                entry.level.releaseSprites();
+            }
+        }
+    }
+
+    // Forgets a level, abandoning its load or handing back its sprites
+    private void discard(Entry entry)
+    {
+        entries.remove(entry.levelNum);
+        if(entry.loader != null)
+        {
+            entry.loader.cancel();
+        }
+        if(entry.level != null)
+        {
+            cachedBytes -= entry.bytes;
+            entry.level.releaseSprites();
+        }
+    }
+}
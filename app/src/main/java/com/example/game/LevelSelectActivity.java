@@ -6,7 +6,9 @@ import android.content.SharedPreferences;
 import android.content.pm.ActivityInfo;
 import android.os.Bundle;
 import android.view.View;
+import android.widget.CompoundButton;
 import android.widget.ImageButton;
+import android.widget.Switch;
 import android.widget.TextView;
 import com.example.logindemo.R;
 import java.util.Date;
@@ -39,12 +41,24 @@ public class LevelSelectActivity extends AppCompatActivity
     // Icon for saving progress locally
     private ImageButton save_button;
 
+    // Settings toggles for drawing with a hardware-accelerated Canvas, for
+    // lowering the resolution under load, and for showing the diagnostics
+    // overlay while playing
+    private Switch hardware_canvas_switch;
+    private Switch dynamic_resolution_switch;
+    private Switch diagnostics_switch;
+
     // Indicates what level is clicked on
     public static int levelChosen;
 
     // Indicates locked/unlocked status of each level
     public static boolean[] levelAccess;
     public static boolean levelComplete = false;
+
+    // Settings for how levels are drawn, saved between sessions
+    public static boolean hardwareCanvas = false;
+    public static boolean dynamicResolution = false;
+    public static boolean showDiagnostics = false;
     //Timer Values
     public Date levelStartTime = new Date();
     private long[] bestTimes = new long[10];
@@ -75,6 +89,11 @@ public class LevelSelectActivity extends AppCompatActivity
         // Save icon for saving progress locally
         save_button = findViewById(R.id.save_button);
 
+        // Settings toggles
+        hardware_canvas_switch = findViewById(R.id.hardware_canvas_switch);
+        dynamic_resolution_switch = findViewById(R.id.dynamic_resolution_switch);
+        diagnostics_switch = findViewById(R.id.diagnostics_switch);
+
         //Loading Best Times
 
 
@@ -104,9 +123,58 @@ public class LevelSelectActivity extends AppCompatActivity
             levelAccess[i] = true;
         }
 
+        // Loads the drawing settings from previous sessions, all off by default
+        hardwareCanvas = prefs.getBoolean(getString(R.string.hardwareCanvas), false);
+        dynamicResolution = prefs.getBoolean(getString(R.string.dynamicResolution), false);
+        showDiagnostics = prefs.getBoolean(getString(R.string.diagnostics), false);
+        hardware_canvas_switch.setChecked(hardwareCanvas);
+        dynamic_resolution_switch.setChecked(dynamicResolution);
+        diagnostics_switch.setChecked(showDiagnostics);
+
         // Locks screen in Portrait view
         this.setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_PORTRAIT);
 
+        // Saves the hardware Canvas setting as soon as it's toggled. It takes effect
+        // on the next level played.
+        hardware_canvas_switch.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener()
+        {
+            @Override
+            public void onCheckedChanged(CompoundButton b, boolean checked)
+            {
+                hardwareCanvas = checked;
+                SharedPreferences.Editor editor = prefs.edit();
+                editor.putBoolean(getString(R.string.hardwareCanvas), checked);
+                editor.apply();
+            }
+        });
+
+        // Saves the dynamic resolution setting as soon as it's toggled. It takes
+        // effect on the next level played.
+        dynamic_resolution_switch.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener()
+        {
+            @Override
+            public void onCheckedChanged(CompoundButton b, boolean checked)
+            {
+                dynamicResolution = checked;
+                SharedPreferences.Editor editor = prefs.edit();
+                editor.putBoolean(getString(R.string.dynamicResolution), checked);
+                editor.apply();
+            }
+        });
+
+        // Saves the diagnostics overlay setting as soon as it's toggled
+        diagnostics_switch.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener()
+        {
+            @Override
+            public void onCheckedChanged(CompoundButton b, boolean checked)
+            {
+                showDiagnostics = checked;
+                SharedPreferences.Editor editor = prefs.edit();
+                editor.putBoolean(getString(R.string.diagnostics), checked);
+                editor.apply();
+            }
+        });
+
         // Saves data up to the last level finished upon clicking the save icon
         save_button.setOnClickListener(new View.OnClickListener()
         {
@@ -0,0 +1,89 @@
+package com.example.game;
+
+public class ResolutionScaler
+{
+    // Smallest and largest fraction of the screen's resolution the game is drawn
+    // at, and how much the fraction changes each step
+    public static final float MIN_SCALE = 0.5f;
+    public static final float MAX_SCALE = 1f;
+    private static final float SCALE_STEP = 0.1f;
+
+    // Number of frames averaged before deciding whether to change the scale
+    private static final int WINDOW_FRAMES = 60;
+
+    // Number of frames ignored after a change, while the surface is resized
+    // and the new size's frame times settle
+    private static final int SETTLE_FRAMES = 30;
+
+    // Fractions of the frame budget above which the scale goes down, and below
+    // which it goes back up. The gap keeps the scale from flip-flopping.
+    private static final float HIGH_LOAD = 0.85f;
+    private static final float LOW_LOAD = 0.5f;
+
+    // Current fraction of the screen's resolution the game is drawn at
+    private float scale;
+
+    // Draw time and number of frames counted in the current window, and frames
+    // left to ignore after the last change
+    private long windowNanos;
+    private int windowFrames;
+    private int settleFrames;
+
+    // Constructor for the scaler, starting at full resolution
+    public ResolutionScaler()
+    {
+        scale = MAX_SCALE;
+    }
+
+    // === GETTERS ===
+
+    // Returns the fraction of the screen's resolution the game should be drawn at
+    public float getScale()
+    {
+        return scale;
+    }
+
+    // === OTHER METHODS ===
+
+    // Adds how long a frame took to draw, given the time each frame has at the
+    // target frame rate. Once a window of frames is counted, steps the scale
+    // down if drawing is using most of the budget, or up if it has plenty to
+    // spare. Returns true if the scale changed.
+    public boolean addFrame(long drawNanos, long budgetNanos)
+    {
+        if(settleFrames > 0)
+        {
+            settleFrames--;
+            return false;
+        }
+
+        windowNanos += drawNanos;
+        windowFrames++;
+        if(windowFrames < WINDOW_FRAMES)
+        {
+            return false;
+        }
+
+        float load = windowNanos / (float)windowFrames / budgetNanos;
+        windowNanos = 0;
+        windowFrames = 0;
+
+        float newScale = scale;
+        if(load > HIGH_LOAD)
+        {
+            newScale = Math.max(MIN_SCALE, scale - SCALE_STEP);
+        }
+        else if(load < LOW_LOAD)
+        {
+            newScale = Math.min(MAX_SCALE, scale + SCALE_STEP);
+        }
+
+        if(newScale == scale)
+        {
+            return false;
+        }
+        scale = newScale;
+        settleFrames = SETTLE_FRAMES;
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.game;
+
+import android.content.res.Resources;
+import android.graphics.BitmapFactory;
+import com.example.logindemo.R;
+
+import com.example.game.engine.SpriteMetrics;
+import com.example.game.engine.SpriteType;
+
+import java.util.Arrays;
+
+public class ResourceSpriteMetrics implements SpriteMetrics
+{
+    // Screen density of the Google Pixel 4 the design space is laid out on, in
+    // dpi. Drawables are always measured and decoded at this density so sprite
+    // sizes are the same on every device.
+    public static final int DESIGN_DENSITY = 440;
+
+    // Resources Object to read the drawables from
+    private Resources res;
+
+    // Widths and heights of each sprite's drawable, indexed by SpriteType.
+    // -1 until the drawable has been measured.
+    private int[] widths;
+    private int[] heights;
+
+    // Constructor for the metrics, reading drawables from given Resources
+    public ResourceSpriteMetrics(Resources res)
+    {
+        this.res = res;
+        widths = new int[SpriteType.values().length];
+        heights = new int[SpriteType.values().length];
+        Arrays.fill(widths, -1);
+        Arrays.fill(heights, -1);
+    }
+
+    // Returns the width of a sprite's drawable, in design-space units
+    @Override
+    public int getWidth(SpriteType type)
+    {
+        measure(type);
+        return widths[type.ordinal()];
+    }
+
+    // Returns the height of a sprite's drawable, in design-space units
+    @Override
+    public int getHeight(SpriteType type)
+    {
+        measure(type);
+        return heights[type.ordinal()];
+    }
+
+    // Returns the drawable resource a given sprite is drawn with
+    public static int getResourceId(SpriteType type)
+    {
+        switch(type)
+        {
+            case PLAYER:
+                return R.drawable.player_char_og;
+            case ENEMY:
+                return R.drawable.enemy_neutral;
+            case GRAVITY_PAD:
+                return R.drawable.gravity_pad_off;
+            case GOAL:
+                return R.drawable.goalpost;
+            case TIME_MACHINE:
+                return R.drawable.time_machine_pres;
+            case SPEED_POWER:
+                return R.drawable.speed_power;
+            case JUMP_POWER:
+                return R.drawable.jump_power;
+            case SHIELD_POWER:
+                return R.drawable.shield_power;
+            default:
+                return R.drawable.wood_tiles;
+        }
+    }
+
+    // Returns options that decode a drawable at the size it has in design space,
+    // whatever this device's screen density is
+    public static BitmapFactory.Options designOptions()
+    {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inTargetDensity = DESIGN_DENSITY;
+        return options;
+    }
+
+    // Reads the size a sprite's drawable has in design space without decoding
+    // its pixels, if it hasn't been measured already
+    private void measure(SpriteType type)
+    {
+        int i = type.ordinal();
+        if(widths[i] < 0)
+        {
+            BitmapFactory.Options options = designOptions();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(res, getResourceId(type), options);
+            widths[i] = options.outWidth;
+            heights[i] = options.outHeight;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands WorldSnapshots from the simulation thread to the render thread without
+// locks. The simulation fills a back buffer and publishes it; the renderer
+// always picks up the newest published one. A third, spare buffer sits between
+// the two so the simulation never writes into the snapshot being drawn and
+// neither thread ever waits on the other.
+public class SnapshotBuffer
+{
+    // Flag set alongside the published index when it hasn't been picked up yet
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final WorldSnapshot[] snapshots;
+
+    // Snapshot being filled by the simulation thread (only touched by that thread)
+    private int backIndex;
+
+    // Snapshot being drawn by the render thread (only touched by that thread)
+    private int frontIndex;
+
+    // Index of the most recently published snapshot, plus the FRESH flag
+    private final AtomicInteger published;
+
+    // Creates the buffer with three empty snapshots
+    public SnapshotBuffer()
+    {
+        snapshots = new WorldSnapshot[3];
+        for(int i = 0; i < snapshots.length; i++)
+        {
+            snapshots[i] = new WorldSnapshot();
+        }
+
+        backIndex = 0;
+        frontIndex = 1;
+        published = new AtomicInteger(2);
+    }
+
+    // Returns the snapshot the simulation thread should fill next
+    public WorldSnapshot getBack()
+    {
+        return snapshots[backIndex];
+    }
+
+    // Publishes the filled back snapshot to the renderer and takes the
+    // previously published one as the new back snapshot. tickTime is the
+    // System.nanoTime() the snapshot's last tick represents.
+    // Called only by the simulation thread.
+    public void publish(long tickTime)
+    {
+        snapshots[backIndex].setPublishTime(tickTime);
+        backIndex = published.getAndSet(backIndex | FRESH) & INDEX_MASK;
+    }
+
+    // Returns the newest published snapshot. If nothing new was published
+    // since the last call, the same snapshot is returned again so it can be
+    // redrawn further along between ticks.
+    // Called only by the render thread.
+    public WorldSnapshot acquireFront()
+    {
+        if((published.get() & FRESH) != 0)
+        {
+            frontIndex = published.getAndSet(frontIndex) & INDEX_MASK;
+        }
+        return snapshots[frontIndex];
+    }
+}
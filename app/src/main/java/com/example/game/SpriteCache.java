@@ -0,0 +1,176 @@
+package com.example.game;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public class SpriteCache
+{
+    // Most memory, in bytes, kept for sprites no entity is using. Unused sprites
+    // stay cached so the next level can reuse them, and the least recently used
+    // are dropped past this limit.
+    private static final long MAX_UNUSED_BYTES = 16L * 1024 * 1024;
+
+    // The one cache shared by the whole app
+    private static final SpriteCache instance = new SpriteCache();
+
+    // Identifies a sprite by its drawable, the size it's scaled to, and whether
+    // it's flipped upside down
+    private static class Key
+    {
+        private final int resId;
+        private final int width, height;
+        private final boolean flipped;
+
+        private Key(int resId, int width, int height, boolean flipped)
+        {
+            this.resId = resId;
+            this.width = width;
+            this.height = height;
+            this.flipped = flipped;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if(!(o instanceof Key))
+            {
+                return false;
+            }
+            Key k = (Key)o;
+            return resId == k.resId && width == k.width && height == k.height && flipped == k.flipped;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return ((resId*31 + width)*31 + height)*2 + (flipped ? 1 : 0);
+        }
+    }
+
+    // A cached sprite and how many entities are using it
+    private static class Entry
+    {
+        private final Key key;
+        private final Bitmap image;
+        private int refCount;
+
+        private Entry(Key key, Bitmap image)
+        {
+            this.key = key;
+            this.image = image;
+        }
+    }
+
+    // Cached sprites in least to most recently used order, and the entry each
+    // handed-out Bitmap belongs to
+    private final LinkedHashMap<Key, Entry> entries;
+    private final HashMap<Bitmap, Entry> owners;
+
+    // Memory used by sprites no entity is using
+    private long unusedBytes;
+
+    private SpriteCache()
+    {
+        entries = new LinkedHashMap<>(64, 0.75f, true);
+        owners = new HashMap<>();
+    }
+
+    // Returns the cache shared by the whole app
+    public static SpriteCache getInstance()
+    {
+        return instance;
+    }
+
+    // === OTHER METHODS ===
+
+    // Returns a drawable scaled to a given size, and flipped upside down if asked,
+    // decoding it only if no entity has asked for the same sprite before. The
+    // Bitmap is shared, so it must not be drawn into, and must be handed back
+    // with release() when the entity is done with it.
+    public synchronized Bitmap acquire(Resources res, int resId, int width, int height, boolean flipped)
+    {
+        Key key = new Key(resId, width, height, flipped);
+        Entry entry = entries.get(key);
+        if(entry == null)
+        {
+            entry = new Entry(key, createImage(res, key));
+            entries.put(key, entry);
+            owners.put(entry.image, entry);
+        }
+        else if(entry.refCount == 0)
+        {
+            unusedBytes -= entry.image.getByteCount();
+        }
+        entry.refCount++;
+        return entry.image;
+    }
+
+    // Hands back a sprite from acquire(). Once no entity is using it, it's kept
+    // until trim() needs the memory.
+    public synchronized void release(Bitmap image)
+    {
+        Entry entry = owners.get(image);
+        if(entry != null && entry.refCount > 0)
+        {
+            entry.refCount--;
+            if(entry.refCount == 0)
+            {
+                unusedBytes += entry.image.getByteCount();
+            }
+        }
+    }
+
+    // Drops the least recently used sprites no entity is using until the unused
+    // ones fit in the memory limit. Called when a level is left.
+    public synchronized void trim()
+    {
+        Iterator<Entry> it = entries.values().iterator();
+        while(unusedBytes > MAX_UNUSED_BYTES && it.hasNext())
+        {
+            Entry entry = it.next();
+            if(entry.refCount == 0)
+            {
+                it.remove();
+                owners.remove(entry.image);
+                unusedBytes -= entry.image.getByteCount();
+            }
+        }
+    }
+
+    // Decodes and scales a sprite. Flipped sprites are made from the upright one
+    // so the drawable is only decoded once for both. Throws if the drawable
+    // can't be decoded, so nothing is cached for it.
+    private Bitmap createImage(Resources res, Key key)
+    {
+        if(key.flipped)
+        {
+            Bitmap upright = acquire(res, key.resId, key.width, key.height, false);
+            Matrix matrix = new Matrix();
+            matrix.postScale(1, -1, upright.getWidth() / 2f, upright.getHeight() / 2f);
+            Bitmap image = Bitmap.createBitmap(upright, 0, 0, upright.getWidth(), upright.getHeight(), matrix, true);
+            release(upright);
+            return image;
+        }
+
+        Bitmap image = BitmapFactory.decodeResource(res, key.resId);
+        if(image == null)
+        {
+            throw new IllegalStateException("Drawable " + key.resId + " could not be decoded");
+        }
+
+        // Frees the full-size decode as soon as the scaled copy is made, unless
+        // it was already the right size and is the copy itself
+        Bitmap scaled = Bitmap.createScaledBitmap(image, key.width, key.height, false);
+        if(scaled != image)
+        {
+            image.recycle();
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import com.example.game.engine.PlatformBody;
+
+import java.util.ArrayList;
+
+public class StaticLayer
+{
+    // Background and non-moving platforms of one time period, drawn once into a
+    // screen-sized Bitmap so each frame blits one image instead of redrawing them
+    private Bitmap image;
+
+    // Constructor for the layer, drawing a given background and the platforms in
+    // a given list that don't move. The Bitmap is never drawn into again after
+    // this, so the render thread can keep using it while new layers are built.
+    // The layer is kept at the screen's resolution and drawn in design space.
+    public StaticLayer(Background background, ArrayList<Platform> platforms, int screenX, int screenY)
+    {
+        image = Bitmap.createBitmap(screenX, screenY, Bitmap.Config.ARGB_8888);
+        Canvas layerCanvas = new Canvas(image);
+        layerCanvas.scale(screenX / (float)PlatformBody.MAX_WIDTH, screenY / (float)PlatformBody.MAX_HEIGHT);
+        Paint paintInfo = new Paint();
+
+        // Draws the background over the whole design space, then the platforms on
+        // top of it in level order
+        layerCanvas.drawBitmap(background.getImage(), null,
+                new RectF(0, 0, PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT), paintInfo);
+        for(Platform p : platforms)
+        {
+            if(!p.getBody().isMoving())
+            {
+                p.drawPlatform(layerCanvas, paintInfo);
+            }
+        }
+
+        // The background covers the whole screen, so the layer can be drawn
+        // without blending
+        image.setHasAlpha(false);
+    }
+
+    // === GETTERS ===
+
+    // Returns the layer's Bitmap
+    public Bitmap getImage()
+    {
+        return image;
+    }
+
+    // === OTHER METHODS ===
+
+    // Draws the layer to a given frame snapshot
+    public void drawLayer(WorldSnapshot frame)
+    {
+        frame.addSprite(image, 0, 0, 0, 0, PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT, 255);
+    }
+}
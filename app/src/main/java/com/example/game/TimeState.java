@@ -1,33 +1,35 @@
 package com.example.game;
 
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-
 public class TimeState
 {
-    // x-y positions and speeds saved in this time-frozen state
+    // x-y positions and fixed-point speeds saved in this time-frozen state
     // All of these are final since they shouldn't ever change once
     // initialized
     private final int x, y;
-    private final double xSpeed, ySpeed;
+    private final int xSpeed, ySpeed;
 
-    // Bitmap image to show where the time-frozen state is made
-    private Bitmap image;
+    // Atlas sprite to show where the time-frozen state is made, its orientation,
+    // and the size it's drawn at
+    private final Atlas.Region sprite;
+    private final boolean flipped;
+    private final int width, height;
 
     // Constructor for the time-frozen state
-    public TimeState(int xPos, int yPos, double xs, double ys, Bitmap img)
+    public TimeState(int xPos, int yPos, int xs, int ys, Atlas.Region s, boolean f, int w, int h)
     {
         // Saves the given x-y positions and speeds to this time-frozen state
-        // None of these are adjusted for device screen size since they're already
-        // adjusted for in each object that creates a SavedState
+        // exactly, so returning to it always puts the player in the same place
         x = xPos;
         y = yPos;
         xSpeed = xs;
         ySpeed = ys;
 
-        // Saves the Bitmap image of the object that creates this saved time state
-        image = img;
+        // Saves the sprite of the object that creates this saved time state, as
+        // it was drawn at the time
+        sprite = s;
+        flipped = f;
+        width = w;
+        height = h;
     }
 
     // === GETTERS ===
@@ -44,32 +46,30 @@ public class TimeState
         return y;
     }
 
-    // Returns x-speed of the SavedState
-    public double getXSpeed()
+    // Returns fixed-point x-speed of the SavedState
+    public int getXSpeed()
     {
         return xSpeed;
     }
 
-    // Returns y-speed of the SavedState
-    public double getYSpeed()
+    // Returns fixed-point y-speed of the SavedState
+    public int getYSpeed()
     {
         return ySpeed;
     }
 
-    // Returns Bitmap image of the SavedState
-    public Bitmap getImage()
+    // Returns atlas sprite of the SavedState
+    public Atlas.Region getSprite()
     {
-        return image;
+        return sprite;
     }
 
     // === OTHER METHODS ===
 
-    // Draws a translucent Bitmap image of the saved time-frozen state
-    // to the level Canvas
-    public void drawSavedState(Canvas levelMap)
+    // Draws a translucent sprite of the saved time-frozen state
+    // to the level's frame snapshot
+    public void drawSavedState(WorldSnapshot frame)
     {
-        Paint alpha = new Paint();
-        alpha.setAlpha(122);
-        levelMap.drawBitmap(image, x, y, alpha);
+        frame.addRegion(sprite, flipped, x, y, x, y, width, height, 122);
     }
 }
@@ -0,0 +1,258 @@
+package com.example.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import java.util.Arrays;
+
+public class WorldSnapshot
+{
+    // Kinds of entries a snapshot can hold: a Bitmap scaled to a given size, a
+    // solid-colored rectangle (used for platforms drawn without a tile image), or
+    // a sprite from the atlas scaled to a given size
+    private static final int SPRITE = 0;
+    private static final int RECT = 1;
+    private static final int REGION = 2;
+
+    // Starting number of entries the snapshot has room for. The arrays grow
+    // when a level needs more, then get reused for every later tick.
+    private static final int START_CAPACITY = 64;
+
+    // Number of entries recorded, in the order they're drawn
+    private int count;
+
+    // Per-entry data, in design-space units. Locations are stored for both the
+    // previous and current tick so the renderer can draw entities between the two.
+    private int[] kinds;
+    private Bitmap[] images;
+    private Atlas.Region[] regions;
+    private boolean[] flips;
+    private int[] prevXs, prevYs;
+    private int[] xs, ys;
+    private int[] widths, heights;
+    private int[] colors;
+    private int[] alphas;
+
+    // Area a Bitmap or atlas sprite is drawn into. Only used by the render thread.
+    private final RectF drawArea;
+
+    // Time the simulation thread published this snapshot, from System.nanoTime()
+    private long publishTime;
+
+    // Hash of every entry recorded, and whether any entry moved during the tick.
+    // Two snapshots with the same hash and no movement draw the same frame, which
+    // lets the renderer skip redrawing a screen where nothing changes.
+    private long contentHash;
+    private boolean moving;
+
+    // Creates an empty snapshot
+    public WorldSnapshot()
+    {
+        kinds = new int[START_CAPACITY];
+        images = new Bitmap[START_CAPACITY];
+        regions = new Atlas.Region[START_CAPACITY];
+        flips = new boolean[START_CAPACITY];
+        prevXs = new int[START_CAPACITY];
+        prevYs = new int[START_CAPACITY];
+        xs = new int[START_CAPACITY];
+        ys = new int[START_CAPACITY];
+        widths = new int[START_CAPACITY];
+        heights = new int[START_CAPACITY];
+        colors = new int[START_CAPACITY];
+        alphas = new int[START_CAPACITY];
+        drawArea = new RectF();
+    }
+
+    // === GETTERS ===
+
+    // Returns the time the snapshot was published, from System.nanoTime()
+    public long getPublishTime()
+    {
+        return publishTime;
+    }
+
+    // Returns a hash of every entry in the snapshot
+    public long getContentHash()
+    {
+        return contentHash;
+    }
+
+    // Returns true if any entry moved during the tick, so the frame drawn
+    // depends on how far it's blended between the two ticks
+    public boolean isMoving()
+    {
+        return moving;
+    }
+
+    // === SETTERS ===
+
+    // Sets the time the snapshot was published, from System.nanoTime()
+    public void setPublishTime(long t)
+    {
+        publishTime = t;
+    }
+
+    // === OTHER METHODS ===
+
+    // Removes all entries so the snapshot can be filled for a new tick.
+    // Image references are cleared so finished levels can be garbage collected.
+    public void clear()
+    {
+        for(int i = 0; i < count; i++)
+        {
+            images[i] = null;
+            regions[i] = null;
+        }
+        count = 0;
+        contentHash = 0;
+        moving = false;
+    }
+
+    // Adds a Bitmap image, scaled to a given width and height, drawn at a location
+    // that moved from (prevX, prevY) to (x, y) during the last tick, with a given
+    // translucency (0-255)
+    public void addSprite(Bitmap image, int prevX, int prevY, int x, int y, int width, int height, int alpha)
+    {
+        int i = nextEntry();
+        kinds[i] = SPRITE;
+        images[i] = image;
+        prevXs[i] = prevX;
+        prevYs[i] = prevY;
+        xs[i] = x;
+        ys[i] = y;
+        widths[i] = width;
+        heights[i] = height;
+        alphas[i] = alpha;
+        record(SPRITE, System.identityHashCode(image), prevX, prevY, x, y, alpha);
+        contentHash = contentHash*31 + width*31 + height;
+    }
+
+    // Adds a sprite from the atlas, scaled to a given width and height and flipped
+    // upside down if asked, that moved from (prevX, prevY) to (x, y) during the
+    // last tick, with a given translucency (0-255). Sprites missing from the
+    // atlas are skipped.
+    public void addRegion(Atlas.Region region, boolean flipped, int prevX, int prevY, int x, int y, int width, int height, int alpha)
+    {
+        if(region == null)
+        {
+            return;
+        }
+
+        int i = nextEntry();
+        kinds[i] = REGION;
+        regions[i] = region;
+        flips[i] = flipped;
+        prevXs[i] = prevX;
+        prevYs[i] = prevY;
+        xs[i] = x;
+        ys[i] = y;
+        widths[i] = width;
+        heights[i] = height;
+        alphas[i] = alpha;
+        record(REGION, System.identityHashCode(region), prevX, prevY, x, y, alpha);
+        contentHash = contentHash*31 + (flipped ? 1 : 0);
+        contentHash = contentHash*31 + width*31 + height;
+    }
+
+    // Adds a solid rectangle of a given color that moved from (prevX, prevY) to
+    // (x, y) during the last tick
+    public void addRect(int prevX, int prevY, int x, int y, int width, int height, int color)
+    {
+        int i = nextEntry();
+        kinds[i] = RECT;
+        prevXs[i] = prevX;
+        prevYs[i] = prevY;
+        xs[i] = x;
+        ys[i] = y;
+        widths[i] = width;
+        heights[i] = height;
+        colors[i] = color;
+        record(RECT, color, prevX, prevY, x, y, 255);
+        contentHash = contentHash*31 + width*31 + height;
+    }
+
+    // Draws every entry onto a given Canvas in the order they were added. The
+    // Canvas must already be transformed from design space to its pixels.
+    // alpha (0 to 1) is how far to blend between previous and current locations.
+    public void draw(Canvas levelMap, Paint paintInfo, float alpha)
+    {
+        for(int i = 0; i < count; i++)
+        {
+            float drawX = prevXs[i] + (xs[i] - prevXs[i])*alpha;
+            float drawY = prevYs[i] + (ys[i] - prevYs[i])*alpha;
+
+            if(kinds[i] == SPRITE)
+            {
+                paintInfo.setAlpha(alphas[i]);
+                drawArea.set(drawX, drawY, drawX + widths[i], drawY + heights[i]);
+                levelMap.drawBitmap(images[i], null, drawArea, paintInfo);
+            }
+            else if(kinds[i] == REGION)
+            {
+                paintInfo.setAlpha(alphas[i]);
+                drawArea.set(drawX, drawY, drawX + widths[i], drawY + heights[i]);
+
+                // Flipped sprites are drawn mirrored about their middle, so the atlas
+                // only needs to hold them upright
+                if(flips[i])
+                {
+                    levelMap.save();
+                    levelMap.scale(1, -1, drawArea.centerX(), drawArea.centerY());
+                    levelMap.drawBitmap(regions[i].getPage(), regions[i].getBounds(), drawArea, paintInfo);
+                    levelMap.restore();
+                }
+                else
+                {
+                    levelMap.drawBitmap(regions[i].getPage(), regions[i].getBounds(), drawArea, paintInfo);
+                }
+            }
+            else
+            {
+                paintInfo.setColor(colors[i]);
+                levelMap.drawRect(drawX, drawY, drawX + widths[i], drawY + heights[i], paintInfo);
+            }
+        }
+    }
+
+    // Mixes an entry into the content hash and notes whether it moved
+    private void record(int kind, int look, int prevX, int prevY, int x, int y, int alpha)
+    {
+        long h = contentHash;
+        h = h*31 + kind;
+        h = h*31 + look;
+        h = h*31 + prevX;
+        h = h*31 + prevY;
+        h = h*31 + x;
+        h = h*31 + y;
+        h = h*31 + alpha;
+        contentHash = h;
+        if(prevX != x || prevY != y)
+        {
+            moving = true;
+        }
+    }
+
+    // Returns the index of the next free entry, growing the arrays if they're full
+    private int nextEntry()
+    {
+        if(count == kinds.length)
+        {
+            int capacity = kinds.length*2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            images = Arrays.copyOf(images, capacity);
+            regions = Arrays.copyOf(regions, capacity);
+            flips = Arrays.copyOf(flips, capacity);
+            prevXs = Arrays.copyOf(prevXs, capacity);
+            prevYs = Arrays.copyOf(prevYs, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            alphas = Arrays.copyOf(alphas, capacity);
+        }
+        return count++;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.os.PowerManager;
+
+import org.junit.Test;
+
+// The frame rates the governor steps between for each thermal status and
+// battery saver state, on displays of each refresh rate
+public class FrameRateGovernorTest
+{
+    // Every thermal status, from coolest to hottest
+    private static final int[] THERMAL_STATUSES = {
+            PowerManager.THERMAL_STATUS_NONE,
+            PowerManager.THERMAL_STATUS_LIGHT,
+            PowerManager.THERMAL_STATUS_MODERATE,
+            PowerManager.THERMAL_STATUS_SEVERE,
+            PowerManager.THERMAL_STATUS_CRITICAL,
+            PowerManager.THERMAL_STATUS_EMERGENCY,
+            PowerManager.THERMAL_STATUS_SHUTDOWN
+    };
+
+    // A cool device draws at the display's fastest rate, a moderately hot one
+    // or one in battery saver at 60 fps, and a severely hot one at 30 fps
+    @Test
+    public void stepsFrom120To60To30()
+    {
+        int max = GameRenderer.FRAME_RATE_120;
+        assertEquals(120, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_NONE, false, max));
+        assertEquals(120, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_LIGHT, false, max));
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_MODERATE, false, max));
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_NONE, true, max));
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_LIGHT, true, max));
+        assertEquals(30, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_MODERATE, true, max));
+        assertEquals(30, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_SEVERE, false, max));
+        assertEquals(30, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_SHUTDOWN, true, max));
+    }
+
+    // A 90 Hz display steps from 90 to 60 to 30 fps
+    @Test
+    public void stepsFrom90To60To30()
+    {
+        int max = GameRenderer.FRAME_RATE_90;
+        assertEquals(90, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_NONE, false, max));
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_MODERATE, false, max));
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_NONE, true, max));
+        assertEquals(30, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_SEVERE, false, max));
+    }
+
+    // A 60 Hz display can't go faster, so it only drops to 30 fps once the
+    // device is severely hot
+    @Test
+    public void stepsFrom60To30()
+    {
+        int max = GameRenderer.FRAME_RATE_60;
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_NONE, false, max));
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_MODERATE, false, max));
+        assertEquals(60, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_NONE, true, max));
+        assertEquals(30, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_SEVERE, false, max));
+        assertEquals(30, FrameRateGovernor.pickFrameRate(PowerManager.THERMAL_STATUS_MODERATE, true, max));
+    }
+
+    // Getting hotter or turning on battery saver never raises the frame rate
+    @Test
+    public void neverSpeedsUpUnderMorePressure()
+    {
+        int[] maxes = {GameRenderer.FRAME_RATE_60, GameRenderer.FRAME_RATE_90, GameRenderer.FRAME_RATE_120};
+        for(int m = 0; m < maxes.length; m++)
+        {
+            for(int i = 1; i < THERMAL_STATUSES.length; i++)
+            {
+                for(int s = 0; s < 2; s++)
+                {
+                    boolean powerSave = s == 1;
+                    int cooler = FrameRateGovernor.pickFrameRate(THERMAL_STATUSES[i - 1], powerSave, maxes[m]);
+                    int hotter = FrameRateGovernor.pickFrameRate(THERMAL_STATUSES[i], powerSave, maxes[m]);
+                    assertTrue(hotter <= cooler);
+                    assertTrue(FrameRateGovernor.pickFrameRate(THERMAL_STATUSES[i], true, maxes[m])
+                            <= FrameRateGovernor.pickFrameRate(THERMAL_STATUSES[i], false, maxes[m]));
+                }
+            }
+        }
+    }
+
+    // Displays are drawn at the fastest of the renderer's rates they can show,
+    // allowing for refresh rates reported just under their nominal rate
+    @Test
+    public void maxFrameRateMatchesDisplay()
+    {
+        assertEquals(120, FrameRateGovernor.pickMaxFrameRate(144f));
+        assertEquals(120, FrameRateGovernor.pickMaxFrameRate(120f));
+        assertEquals(120, FrameRateGovernor.pickMaxFrameRate(119.88f));
+        assertEquals(90, FrameRateGovernor.pickMaxFrameRate(90f));
+        assertEquals(90, FrameRateGovernor.pickMaxFrameRate(89.9f));
+        assertEquals(60, FrameRateGovernor.pickMaxFrameRate(60f));
+        assertEquals(60, FrameRateGovernor.pickMaxFrameRate(59.94f));
+        assertEquals(60, FrameRateGovernor.pickMaxFrameRate(50f));
+    }
+}
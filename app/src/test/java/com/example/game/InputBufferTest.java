@@ -0,0 +1,62 @@
+package com.example.game;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// Commands latched between ticks come out once each, in the order posted
+public class InputBufferTest
+{
+    // Commands are taken oldest first, and taking them empties the buffer
+    @Test
+    public void takesCommandsInOrder()
+    {
+        InputBuffer input = new InputBuffer();
+        int[] taken = new int[InputBuffer.CAPACITY];
+        input.post(4);
+        input.post(2);
+        input.post(1);
+
+        assertEquals(3, input.take(taken));
+        assertEquals(4, taken[0]);
+        assertEquals(2, taken[1]);
+        assertEquals(1, taken[2]);
+        assertEquals(0, input.take(taken));
+    }
+
+    // A command repeating the one just before it is dropped, but the same
+    // command after a different one is kept
+    @Test
+    public void dropsRepeatedCommands()
+    {
+        InputBuffer input = new InputBuffer();
+        int[] taken = new int[InputBuffer.CAPACITY];
+        input.post(12);
+        input.post(12);
+        input.post(1);
+        input.post(12);
+
+        assertEquals(3, input.take(taken));
+        assertEquals(12, taken[0]);
+        assertEquals(1, taken[1]);
+        assertEquals(12, taken[2]);
+    }
+
+    // Once the buffer is full, the latest command replaces the newest one
+    // rather than being lost
+    @Test
+    public void keepsLatestCommandWhenFull()
+    {
+        InputBuffer input = new InputBuffer();
+        int[] taken = new int[InputBuffer.CAPACITY];
+        for(int i = 0; i < InputBuffer.CAPACITY + 5; i++)
+        {
+            input.post(100 + i);
+        }
+
+        assertEquals(InputBuffer.CAPACITY, input.take(taken));
+        assertEquals(100, taken[0]);
+        assertEquals(100 + InputBuffer.CAPACITY - 2, taken[InputBuffer.CAPACITY - 2]);
+        assertEquals(100 + InputBuffer.CAPACITY + 4, taken[InputBuffer.CAPACITY - 1]);
+    }
+}
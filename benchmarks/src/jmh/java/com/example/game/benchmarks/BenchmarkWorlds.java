@@ -0,0 +1,139 @@
+package com.example.game.benchmarks;
+
+import com.example.game.engine.EnemyBody;
+import com.example.game.engine.Fixed;
+import com.example.game.engine.FixedSpriteMetrics;
+import com.example.game.engine.GoalBody;
+import com.example.game.engine.LevelLoader;
+import com.example.game.engine.PlatformBody;
+import com.example.game.engine.PlayerBody;
+import com.example.game.engine.World;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// Builds the worlds the benchmarks run on: the shipped level layouts, and
+// synthetic layouts with large numbers of platforms
+public class BenchmarkWorlds
+{
+    // Size of the Google Pixel 4 screen the levels are designed for
+    public static final int SCREEN_WIDTH = 1080;
+    public static final int SCREEN_HEIGHT = 2280;
+
+    // App folder the shipped level sources are read from. Gradle passes in the
+    // app's folder; the default works when run from the benchmarks folder.
+    private static final String LEVELS_DIR = System.getProperty("game.levels", "../app/src/main/levels");
+
+    // Layout of synthetic platforms: rows of platforms spaced down a world as
+    // tall as it needs to be to fit them without overlapping
+    private static final int PLATFORMS_PER_ROW = 4;
+    private static final int ROW_SPACING = 400;
+    private static final int PLATFORM_WIDTH = 150;
+    private static final int PLATFORM_HEIGHT = 30;
+
+    // Speed synthetic moving platforms travel back and forth across their column at
+    private static final int OSCILLATING_SPEED = 5;
+
+    // Seed for placing synthetic platforms, so every run measures the same layout
+    private static final long SYNTHETIC_SEED = 1080L;
+
+    // Ticks stepped after building a world so the player and enemies have
+    // landed before anything is measured
+    private static final int SETTLE_TICKS = 120;
+
+    // Creates the world for a layout name. "level1" to "level4" are the shipped
+    // levels, "synthetic<N>" is a synthetic layout with N platforms, and
+    // "oscillating<N>" is the same layout with every platform moving.
+    public static World create(String layout)
+    {
+        World world;
+        if(layout.startsWith("level"))
+        {
+            world = createShipped(Integer.parseInt(layout.substring("level".length())));
+        }
+        else if(layout.startsWith("synthetic"))
+        {
+            world = createSynthetic(Integer.parseInt(layout.substring("synthetic".length())), false);
+        }
+        else if(layout.startsWith("oscillating"))
+        {
+            world = createSynthetic(Integer.parseInt(layout.substring("oscillating".length())), true);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Unknown benchmark layout: " + layout);
+        }
+
+        for(int i = 0; i < SETTLE_TICKS; i++)
+        {
+            world.step();
+        }
+
+        // Every layout gets an enemy standing where the player has landed, so
+        // enemy paths are measured too (only level 3 ships with enemies)
+        PlayerBody player = world.getPlayer();
+        world.getEnemies().add(0, new EnemyBody(world, player.getXPos() + player.getWidth() / 2, player.getYPos() + player.getHeight(), world.getGravityAccel()));
+        return world;
+    }
+
+    // Creates one of the shipped levels at the reference screen size, read from
+    // the same level file the app loads
+    public static World createShipped(int levelNum)
+    {
+        World world = new World(SCREEN_WIDTH, SCREEN_HEIGHT, new FixedSpriteMetrics());
+        File file = new File(LEVELS_DIR, LevelLoader.getLevelFileName(levelNum));
+        try
+        {
+            LevelLoader.load(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), world);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Could not load " + file, e);
+        }
+        return world;
+    }
+
+    // Creates a world with a given number of platforms in rows beneath the
+    // player's start, each row offset by a random amount. Moving platforms
+    // travel back and forth across their column.
+    public static World createSynthetic(int platformCount, boolean moving)
+    {
+        int rows = (platformCount + PLATFORMS_PER_ROW - 1) / PLATFORMS_PER_ROW;
+        int height = Math.max(SCREEN_HEIGHT, (rows + 1) * ROW_SPACING);
+        World world = new World(SCREEN_WIDTH, height, new FixedSpriteMetrics());
+        Random random = new Random(SYNTHETIC_SEED);
+
+        // Fills the rows, starting with the row the player lands on
+        int columnWidth = SCREEN_WIDTH / PLATFORMS_PER_ROW;
+        for(int i = 0; i < platformCount; i++)
+        {
+            int x = (i % PLATFORMS_PER_ROW) * columnWidth + random.nextInt(columnWidth - PLATFORM_WIDTH);
+            int y = (i / PLATFORMS_PER_ROW + 1) * ROW_SPACING;
+            if(moving)
+            {
+                int columnX = (i % PLATFORMS_PER_ROW) * columnWidth;
+                world.getPlatformsPresent().add(new PlatformBody(world, x, y, columnX + columnWidth, y, OSCILLATING_SPEED, 0,
+                        PLATFORM_WIDTH, PLATFORM_HEIGHT, "STONE"));
+            }
+            else
+            {
+                world.getPlatformsPresent().add(new PlatformBody(world, x, y, PLATFORM_WIDTH, PLATFORM_HEIGHT, "STONE"));
+            }
+        }
+
+        // Starts the player just above the first platform, with the goal at the
+        // bottom of the world out of reach
+        PlatformBody first = world.getPlatformsPresent().get(0);
+        world.setStart(first.getX(), first.getY());
+        world.setGravityAccel(Fixed.fromInt(3));
+        world.setBackgroundType("NIGHT");
+        world.setGoalPost(new GoalBody(world, SCREEN_WIDTH / 2, height));
+        world.buildPlatformGrids();
+        world.setPlayer(new PlayerBody(world, world.getStartX(), world.getStartY(), world.getGravityAccel()));
+        return world;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.game.benchmarks;
+
+import com.example.game.engine.BinaryLevelFormat;
+import com.example.game.engine.Fixed;
+import com.example.game.engine.FixedSpriteMetrics;
+import com.example.game.engine.LevelData;
+import com.example.game.engine.LevelLoader;
+import com.example.game.engine.TileType;
+import com.example.game.engine.World;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+// Measures reading a level with a given number of platforms from its binary
+// file, memory-mapped the way the app maps it out of the APK, against reading
+// the same level from JSON, and how much building its bodies adds. The binary
+// file has its grids baked in, the same as the level compiler writes it.
+@State(Scope.Thread)
+public class LevelLoadBenchmark
+{
+    // Number of platforms in the level
+    @Param({"100", "10000"})
+    public int platformCount;
+
+    // Binary file of the level, and the same level as JSON text
+    private File binaryFile;
+    private String json;
+
+    // Writes the level out in both formats once per trial
+    @Setup
+    public void setUp() throws IOException
+    {
+        LevelData level = new LevelData();
+        StringBuilder text = new StringBuilder();
+        text.append("{ \"start\": { \"x\": 10, \"y\": 10 }, \"gravity\": 3, \"background\": \"NIGHT\",");
+        text.append(" \"goal\": { \"x\": 540, \"y\": 2280 }, \"platforms\": { \"present\": [");
+
+        Random random = new Random(BenchmarkWorlds.SCREEN_WIDTH);
+        for(int i = 0; i < platformCount; i++)
+        {
+            int x = random.nextInt(BenchmarkWorlds.SCREEN_WIDTH - 150);
+            int y = random.nextInt(BenchmarkWorlds.SCREEN_HEIGHT - 30);
+            level.addPlatform(false, x, y, 150, 30, TileType.STONE);
+            text.append(i == 0 ? "" : ",").append("\n{ \"x\": ").append(x).append(", \"y\": ").append(y)
+                    .append(", \"width\": 150, \"height\": 30, \"tile\": \"STONE\" }");
+        }
+        level.setStart(10, 10);
+        level.setGravityAccel(Fixed.fromInt(3));
+        level.setBackground("NIGHT");
+        level.setGoal(540, 2280);
+        text.append("] } }");
+        json = text.toString();
+        level.bakePlatformGrids(new FixedSpriteMetrics(), BenchmarkWorlds.SCREEN_WIDTH, BenchmarkWorlds.SCREEN_HEIGHT);
+
+        binaryFile = File.createTempFile("level", ".lvl");
+        FileOutputStream out = new FileOutputStream(binaryFile);
+        try
+        {
+            BinaryLevelFormat.write(level, out);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    // Deletes the binary file after each trial
+    @TearDown
+    public void tearDown()
+    {
+        binaryFile.delete();
+    }
+
+    // Mapping and reading the binary file, which creates no bodies
+    @Benchmark
+    public LevelData readBinary() throws IOException
+    {
+        return mapBinary();
+    }
+
+    // Parsing the JSON text, which creates no bodies either
+    @Benchmark
+    public LevelData readJson() throws IOException
+    {
+        return LevelLoader.read(new StringReader(json));
+    }
+
+    // Reading the binary file and building the level's bodies and grids, as
+    // done when a level starts
+    @Benchmark
+    public World readBinaryAndPopulate() throws IOException
+    {
+        World world = new World(BenchmarkWorlds.SCREEN_WIDTH, BenchmarkWorlds.SCREEN_HEIGHT, new FixedSpriteMetrics());
+        mapBinary().populate(world);
+        return world;
+    }
+
+    // Maps the binary file and reads the level from it
+    private LevelData mapBinary() throws IOException
+    {
+        RandomAccessFile file = new RandomAccessFile(binaryFile, "r");
+        try
+        {
+            FileChannel channel = file.getChannel();
+            return BinaryLevelFormat.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        finally
+        {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.game.benchmarks;
+
+import com.example.game.engine.Fixed;
+import com.example.game.engine.EnemyBody;
+import com.example.game.engine.PlatformGrid;
+import com.example.game.engine.PlayerBody;
+import com.example.game.engine.World;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Measures the physics and collision hot paths of a tick on each layout.
+// Single-entity benchmarks put the entity back where it started after each
+// call, so every call measures the same collision checks instead of the
+// entity wandering off the layout.
+@State(Scope.Thread)
+public class PhysicsBenchmark
+{
+    // Layout the world is built from (see BenchmarkWorlds.create)
+    @Param({"level1", "level2", "level3", "level4", "synthetic1000", "synthetic10000", "synthetic100000",
+            "oscillating1000", "oscillating10000"})
+    public String layout;
+
+    // World being measured, and the entities and platforms it's measured with
+    private World world;
+    private PlayerBody player;
+    private EnemyBody enemy;
+    private PlatformGrid platforms;
+
+    // Builds and settles the world once per trial
+    @Setup
+    public void setUp()
+    {
+        world = BenchmarkWorlds.create(layout);
+        player = world.getPlayer();
+        enemy = world.getEnemies().get(0);
+        platforms = world.getPlatformGridPresent();
+    }
+
+    // Player collision with floors and ceilings
+    @Benchmark
+    public PlayerBody playerTouchPlatforms()
+    {
+        int y = player.getYPos();
+        player.touchPlatforms(platforms);
+        player.setYPos(y);
+        return player;
+    }
+
+    // Player walking into walls
+    @Benchmark
+    public PlayerBody playerMoveHorizontal()
+    {
+        int x = player.getXPos();
+        player.setXSpeed(Fixed.fromInt(10));
+        player.moveHorizontal(platforms);
+        player.setXPos(x);
+        return player;
+    }
+
+    // Enemy collision with floors and ceilings
+    @Benchmark
+    public EnemyBody enemyTouchPlatforms()
+    {
+        int y = enemy.getY();
+        enemy.touchPlatforms(platforms);
+        enemy.setY(y);
+        return enemy;
+    }
+
+    // Enemy chasing the player and walking into walls
+    @Benchmark
+    public EnemyBody enemyMoveHorizontal()
+    {
+        int x = enemy.getX();
+        enemy.moveHorizontal(platforms);
+        enemy.setX(x);
+        return enemy;
+    }
+
+    // Moving platforms stepping along their paths, including relisting them in
+    // the broadphase grid when they cross cells
+    @Benchmark
+    public World movePlatforms()
+    {
+        world.movePlatforms();
+        return world;
+    }
+
+    // One full simulation tick, as run by the game loop
+    @Benchmark
+    public World tick()
+    {
+        world.step();
+        return world;
+    }
+}
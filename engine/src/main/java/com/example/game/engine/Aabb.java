@@ -0,0 +1,74 @@
+package com.example.game.engine;
+
+public class Aabb
+{
+    // Edges of the axis-aligned bounding box. right and bottom are exclusive,
+    // matching android.graphics.Rect so collision results are unchanged.
+    // Bodies keep one box each and move it in place, so checking collisions
+    // never allocates.
+    private int left, top, right, bottom;
+
+    // Constructor for a box with the given edges
+    public Aabb(int left, int top, int right, int bottom)
+    {
+        set(left, top, right, bottom);
+    }
+
+    // === GETTERS ===
+
+    // Returns the left edge of the box
+    public int getLeft()
+    {
+        return left;
+    }
+
+    // Returns the top edge of the box
+    public int getTop()
+    {
+        return top;
+    }
+
+    // Returns the right edge of the box
+    public int getRight()
+    {
+        return right;
+    }
+
+    // Returns the bottom edge of the box
+    public int getBottom()
+    {
+        return bottom;
+    }
+
+    // === SETTERS ===
+
+    // Moves the box to the given edges
+    public void set(int left, int top, int right, int bottom)
+    {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    // === OTHER METHODS ===
+
+    // Returns true if this box overlaps a box with the given edges
+    public boolean intersects(int left, int top, int right, int bottom)
+    {
+        return overlaps(this.left, this.top, this.right, this.bottom, left, top, right, bottom);
+    }
+
+    // Returns true if this box overlaps another box. Boxes that only share an
+    // edge don't count as overlapping, same as Rect.intersects.
+    public boolean intersects(Aabb b)
+    {
+        return overlaps(left, top, right, bottom, b.left, b.top, b.right, b.bottom);
+    }
+
+    // Returns true if two boxes given by their raw edges overlap
+    public static boolean overlaps(int aLeft, int aTop, int aRight, int aBottom, int bLeft, int bTop, int bRight, int bBottom)
+    {
+        return aLeft < bRight && bLeft < aRight && aTop < bBottom && bTop < aBottom;
+    }
+}
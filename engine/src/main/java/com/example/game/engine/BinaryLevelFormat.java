@@ -0,0 +1,232 @@
+package com.example.game.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+// Binary level files (assets/levels/level<N>.lvl in the app), written at
+// build time by the level compiler (:levelc). A file is a fixed header
+// followed by the level's LevelData columns, every value a little-endian
+// 32-bit int, so a memory-mapped file is read straight into the columns with
+// bulk copies instead of being parsed. The layout is:
+//
+//   header    magic "TMLV", version (short), header size in bytes (short),
+//             startX, startY, gravity (fixed-point), background index,
+//             goalX, goalY, then the number of platforms, gravity pads,
+//             time machines, enemies, and power-ups, then the lengths of the
+//             present and future baked grids in ints (0 if not baked)
+//   platforms x[], y[], width[], height[], tile[], flags[], toX[], toY[],
+//             speedX[], speedY[]
+//   pads      x[], y[], flipped[]
+//   machines  x[], y[], flipped[]
+//   enemies   x[], y[]
+//   power-ups x[], y[], type[]
+//   grids     present grid, future grid (see PlatformGrid.bake)
+//
+// Readers skip to the end of the header using its stored size, so later
+// versions can add header fields without moving the columns.
+public class BinaryLevelFormat
+{
+    // "TMLV" read as a little-endian int
+    public static final int MAGIC = 'T' | 'M' << 8 | 'L' << 16 | 'V' << 24;
+
+    // Version of the format written, and the only version read
+    public static final int VERSION = 2;
+
+    // Size of the version 2 header in bytes
+    public static final int HEADER_SIZE = 60;
+
+    // Number of columns stored for each kind of entity
+    private static final int PLATFORM_COLUMNS = 10;
+    private static final int PAD_COLUMNS = 3;
+    private static final int MACHINE_COLUMNS = 3;
+    private static final int ENEMY_COLUMNS = 2;
+    private static final int POWER_UP_COLUMNS = 3;
+
+    // Path of a given level's binary file, relative to the app's assets folder
+    public static String getLevelPath(int levelNum)
+    {
+        return "levels/level" + levelNum + ".lvl";
+    }
+
+    // Reads a level from a buffer holding a whole binary level file, such as a
+    // memory-mapped one. Only the columns are allocated; no entity is created.
+    public static LevelData read(ByteBuffer buffer) throws IOException
+    {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = in.position();
+        if(in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+        {
+            throw new IOException("Not a binary level file");
+        }
+        int version = in.getShort();
+        int headerSize = in.getShort();
+        if(version != VERSION)
+        {
+            throw new IOException("Unsupported level file version " + version);
+        }
+        if(headerSize < HEADER_SIZE || headerSize > in.limit() - base)
+        {
+            throw new IOException("Invalid level file header size " + headerSize);
+        }
+
+        int startX = in.getInt();
+        int startY = in.getInt();
+        int gravityAccel = in.getInt();
+        int background = in.getInt();
+        int goalX = in.getInt();
+        int goalY = in.getInt();
+        int platforms = in.getInt();
+        int gravPads = in.getInt();
+        int timeMachines = in.getInt();
+        int enemies = in.getInt();
+        int powerUps = in.getInt();
+        int gridPresentLength = in.getInt();
+        int gridFutureLength = in.getInt();
+
+        // Checks the counts against the file's size before allocating anything
+        // for them, so a damaged file can't ask for huge arrays
+        in.position(base + headerSize);
+        if(platforms < 0 || gravPads < 0 || timeMachines < 0 || enemies < 0 || powerUps < 0
+                || gridPresentLength < 0 || gridFutureLength < 0)
+        {
+            throw new IOException("Invalid entity count in level file");
+        }
+        if((gridPresentLength == 0) != (gridFutureLength == 0))
+        {
+            throw new IOException("Level file has only one time period's grid baked");
+        }
+        long ints = (long)platforms*PLATFORM_COLUMNS + (long)gravPads*PAD_COLUMNS
+                + (long)timeMachines*MACHINE_COLUMNS + (long)enemies*ENEMY_COLUMNS + (long)powerUps*POWER_UP_COLUMNS
+                + gridPresentLength + gridFutureLength;
+        if(ints*4 != in.remaining())
+        {
+            throw new IOException("Level file is " + in.remaining() + " bytes after its header but should be " + ints*4);
+        }
+        if(background < 0 || background >= LevelData.BACKGROUNDS.length)
+        {
+            throw new IOException("Invalid background in level file: " + background);
+        }
+
+        LevelData level = new LevelData(platforms, gravPads, timeMachines, enemies, powerUps);
+        level.setStart(startX, startY);
+        level.setGravityAccel(gravityAccel);
+        level.background = background;
+        level.setGoal(goalX, goalY);
+
+        IntBuffer columns = in.asIntBuffer();
+        columns.get(level.platformX);
+        columns.get(level.platformY);
+        columns.get(level.platformWidth);
+        columns.get(level.platformHeight);
+        columns.get(level.platformTile);
+        columns.get(level.platformFlags);
+        columns.get(level.platformToX);
+        columns.get(level.platformToY);
+        columns.get(level.platformSpeedX);
+        columns.get(level.platformSpeedY);
+        columns.get(level.gravPadX);
+        columns.get(level.gravPadY);
+        columns.get(level.gravPadFlipped);
+        columns.get(level.timeMachineX);
+        columns.get(level.timeMachineY);
+        columns.get(level.timeMachineFlipped);
+        columns.get(level.enemyX);
+        columns.get(level.enemyY);
+        columns.get(level.powerUpX);
+        columns.get(level.powerUpY);
+        columns.get(level.powerUpType);
+        if(gridPresentLength > 0)
+        {
+            level.gridPresent = new int[gridPresentLength];
+            level.gridFuture = new int[gridFutureLength];
+            columns.get(level.gridPresent);
+            columns.get(level.gridFuture);
+        }
+
+        // Tile and power-up indexes are used to look up tables when the level
+        // is built, so they're checked here rather than failing there
+        int tiles = TileType.values().length;
+        for(int i = 0; i < platforms; i++)
+        {
+            if(level.platformTile[i] < 0 || level.platformTile[i] >= tiles)
+            {
+                throw new IOException("Invalid tile type for platform " + i + ": " + level.platformTile[i]);
+            }
+        }
+        for(int i = 0; i < powerUps; i++)
+        {
+            if(level.powerUpType[i] < 0 || level.powerUpType[i] >= LevelData.POWER_UPS.length)
+            {
+                throw new IOException("Invalid type for power-up " + i + ": " + level.powerUpType[i]);
+            }
+        }
+        if(level.gridPresent != null && (!PlatformGrid.isValidBake(level.gridPresent, level.getPlatformCount(false))
+                || !PlatformGrid.isValidBake(level.gridFuture, level.getPlatformCount(true))))
+        {
+            throw new IOException("Invalid baked grid in level file");
+        }
+        return level;
+    }
+
+    // Writes a level as a binary level file. The stream is left open.
+    public static void write(LevelData level, OutputStream out) throws IOException
+    {
+        int ints = level.platformCount*PLATFORM_COLUMNS + level.gravPadCount*PAD_COLUMNS
+                + level.timeMachineCount*MACHINE_COLUMNS + level.enemyCount*ENEMY_COLUMNS
+                + level.powerUpCount*POWER_UP_COLUMNS;
+        int gridPresentLength = level.gridPresent != null ? level.gridPresent.length : 0;
+        int gridFutureLength = level.gridFuture != null ? level.gridFuture.length : 0;
+        ints += gridPresentLength + gridFutureLength;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + ints*4).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC);
+        buffer.putShort((short)VERSION);
+        buffer.putShort((short)HEADER_SIZE);
+        buffer.putInt(level.startX);
+        buffer.putInt(level.startY);
+        buffer.putInt(level.gravityAccel);
+        buffer.putInt(level.background);
+        buffer.putInt(level.goalX);
+        buffer.putInt(level.goalY);
+        buffer.putInt(level.platformCount);
+        buffer.putInt(level.gravPadCount);
+        buffer.putInt(level.timeMachineCount);
+        buffer.putInt(level.enemyCount);
+        buffer.putInt(level.powerUpCount);
+        buffer.putInt(gridPresentLength);
+        buffer.putInt(gridFutureLength);
+
+        IntBuffer columns = buffer.asIntBuffer();
+        columns.put(level.platformX, 0, level.platformCount);
+        columns.put(level.platformY, 0, level.platformCount);
+        columns.put(level.platformWidth, 0, level.platformCount);
+        columns.put(level.platformHeight, 0, level.platformCount);
+        columns.put(level.platformTile, 0, level.platformCount);
+        columns.put(level.platformFlags, 0, level.platformCount);
+        columns.put(level.platformToX, 0, level.platformCount);
+        columns.put(level.platformToY, 0, level.platformCount);
+        columns.put(level.platformSpeedX, 0, level.platformCount);
+        columns.put(level.platformSpeedY, 0, level.platformCount);
+        columns.put(level.gravPadX, 0, level.gravPadCount);
+        columns.put(level.gravPadY, 0, level.gravPadCount);
+        columns.put(level.gravPadFlipped, 0, level.gravPadCount);
+        columns.put(level.timeMachineX, 0, level.timeMachineCount);
+        columns.put(level.timeMachineY, 0, level.timeMachineCount);
+        columns.put(level.timeMachineFlipped, 0, level.timeMachineCount);
+        columns.put(level.enemyX, 0, level.enemyCount);
+        columns.put(level.enemyY, 0, level.enemyCount);
+        columns.put(level.powerUpX, 0, level.powerUpCount);
+        columns.put(level.powerUpY, 0, level.powerUpCount);
+        columns.put(level.powerUpType, 0, level.powerUpCount);
+        if(gridPresentLength > 0)
+        {
+            columns.put(level.gridPresent);
+            columns.put(level.gridFuture);
+        }
+
+        out.write(buffer.array());
+    }
+}
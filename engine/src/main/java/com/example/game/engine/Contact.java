@@ -0,0 +1,83 @@
+package com.example.game.engine;
+
+// Result of sweeping a body along one axis against the level's platforms.
+// Each body keeps its own Contacts and refills them every tick, so collision
+// resolution doesn't allocate.
+public class Contact
+{
+    // Whether the body touched a platform
+    private boolean hit;
+
+    // Fraction of the move completed before touching, from 0 to 1. 0 also means
+    // the body started the move embedded in the platform and was pushed out.
+    private float time;
+
+    // Normal of the surface touched, pointing out of the platform towards the body.
+    // (0, -1) is the top of a platform, (0, 1) its bottom, (-1, 0) its left side,
+    // and (1, 0) its right side.
+    private int normalX, normalY;
+
+    // Platform touched
+    private PlatformBody platform;
+
+    // === GETTERS ===
+
+    // Returns whether the body touched a platform
+    public boolean isHit()
+    {
+        return hit;
+    }
+
+    // Returns the fraction of the move completed before touching
+    public float getTime()
+    {
+        return time;
+    }
+
+    // Returns the x-component of the surface normal
+    public int getNormalX()
+    {
+        return normalX;
+    }
+
+    // Returns the y-component of the surface normal
+    public int getNormalY()
+    {
+        return normalY;
+    }
+
+    // Returns the platform touched, or null if nothing was touched
+    public PlatformBody getPlatform()
+    {
+        return platform;
+    }
+
+    // === OTHER METHODS ===
+
+    // Clears the contact before a new sweep
+    public void clear()
+    {
+        hit = false;
+        time = 1;
+        normalX = 0;
+        normalY = 0;
+        platform = null;
+    }
+
+    // Records a touch with a platform
+    public void set(float time, int normalX, int normalY, PlatformBody platform)
+    {
+        hit = true;
+        this.time = time;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.platform = platform;
+    }
+
+    // Returns true if the surface touched holds the body up against a given
+    // gravitational acceleration, meaning the body is standing on it
+    public boolean isGround(int gravAccel)
+    {
+        return hit && (gravAccel >= 0 ? normalY < 0 : normalY > 0);
+    }
+}
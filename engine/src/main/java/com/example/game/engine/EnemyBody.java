@@ -0,0 +1,397 @@
+package com.example.game.engine;
+
+import java.util.ArrayList;
+
+public class EnemyBody
+{
+    // x-y location and speeds of the enemy. Speeds are fixed-point (see Fixed).
+    private int x, y;
+    private int xSpeed, ySpeed;
+
+    // x-y location at the start of the current tick, used to smoothly draw
+    // the enemy between ticks
+    private int prevX, prevY;
+
+    // Gravitational acceleration on the enemy, fixed-point
+    private int gravAccel;
+
+    // Movement speed of the enemy when it charges towards the player, fixed-point
+    private static final int chargeSpeed = Fixed.fromInt(30);
+
+    // Range at which the enemy will try to attack the player
+    private static final int attackRange = 200;
+
+    // Friction variable to simulate "sliding" motion and momentum
+    // of the enemy, fixed-point
+    private static final int friction = Fixed.fromDouble(0.9);
+
+    // Fixed value for how long the enemy remains on-screen after being killed
+    public static final double afterDeathTime = 100;
+
+    // y-location before the last vertical move, where the vertical sweep starts
+    private int moveStartY;
+
+    // Vertical and horizontal contacts from the last tick's collision sweeps
+    private final Contact yContact;
+    private final Contact xContact;
+
+    // Width and height of the enemy
+    private int width, height;
+
+    // Sprite number for determining which sprite the enemy is currently showing
+    // spriteNum = 0 is Neutral
+    // spriteNum = 1 is Angry
+    // spriteNum = 2 is Dead
+    private int spriteNum;
+
+    // World the enemy is in, for interaction with the level's entities and
+    // the player
+    private World world;
+
+    // "Flip" variable to indicate the orientation of the enemy
+    private boolean flip;
+
+    // Cooldown timer for indicating when the enemy will attack again
+    // 0 = enemy ready to attack
+    private int cooldown;
+
+    // Boolean indicating if the enemy is still alive
+    private boolean alive;
+
+    // Timer for how long the enemy remains on-screen after being killed
+    private int existTimer;
+
+    // Boolean indicating the enemy has been taken out of the world's enemy list
+    private boolean removed;
+
+    // Collision box of the enemy, updated in place so collision checks don't allocate
+    private final Aabb bounds;
+
+    // Constructor for the enemy
+    public EnemyBody(World world, int xLoc, int yLoc, int gravAccel)
+    {
+        this.world = world;
+
+        // Makes the enemy right-side up on creation
+        flip = false;
+
+        // Initializes the enemy sprite number to 0, making it "neutral"
+        // on creation
+        spriteNum = 0;
+
+        // Sets attack cooldown to zero, making enemy ready to attack on
+        // creation
+        cooldown = 0;
+
+        // Initializes the enemy's x-y speeds to 0
+        xSpeed = 0;
+        ySpeed = 0;
+        yContact = new Contact();
+        xContact = new Contact();
+
+        // Initializes the level's gravitational acceleration on the enemy
+        this.gravAccel = gravAccel;
+
+        // Sizes the enemy to a third of its sprite
+        width = world.getMetrics().getWidth(SpriteType.ENEMY)/3;
+        height = world.getMetrics().getHeight(SpriteType.ENEMY)/3;
+
+        // Sets the x-y location of the enemy. y-position is adjusted for the
+        // enemy's height, and x-position is centered.
+        x = (int)(xLoc-width/2f);
+        y = yLoc-height;
+        prevX = x;
+        prevY = y;
+        moveStartY = y;
+
+        // Makes the enemy alive on creation
+        alive = true;
+
+        bounds = new Aabb(x, y, x + width, y + height);
+    }
+
+    // === GETTERS ===
+
+    // Returns x-coordinate of the enemy
+    public int getX()
+    {
+        return x;
+    }
+
+    // Returns y-coordinate of the enemy
+    public int getY()
+    {
+        return y;
+    }
+
+    // Returns x-coordinate of the enemy at the start of the current tick
+    public int getPrevX()
+    {
+        return prevX;
+    }
+
+    // Returns y-coordinate of the enemy at the start of the current tick
+    public int getPrevY()
+    {
+        return prevY;
+    }
+
+    // Returns the x-speed of the enemy, fixed-point
+    public int getXSpeed()
+    {
+        return xSpeed;
+    }
+
+    // Returns the y-speed of the enemy, fixed-point
+    public int getYSpeed()
+    {
+        return ySpeed;
+    }
+
+    // Returns the width of the enemy
+    public int getWidth()
+    {
+        return width;
+    }
+
+    // Returns the height of the enemy
+    public int getHeight()
+    {
+        return height;
+    }
+
+    // Returns the sprite number the enemy is currently showing
+    public int getSpriteNum()
+    {
+        return spriteNum;
+    }
+
+    // Returns the gravitational acceleration on the enemy, fixed-point
+    public int getGravAccel()
+    {
+        return gravAccel;
+    }
+
+    // Returns orientation boolean of the enemy
+    public boolean isFlipped()
+    {
+        return flip;
+    }
+
+    // Returns flag indicating if the enemy is alive or not
+    public boolean isAlive()
+    {
+        return alive;
+    }
+
+    // Returns current remaining time on the enemy's existence timer
+    // for when it dies
+    public int getExistTimer()
+    {
+        return existTimer;
+    }
+
+    // Returns flag indicating if the enemy has been taken out of the world
+    public boolean isRemoved()
+    {
+        return removed;
+    }
+
+    // === SETTERS ===
+
+    // Sets the x-coordinate of the enemy
+    public void setX(int xPos)
+    {
+        x = xPos;
+    }
+
+    // Sets the y-coordinate of the enemy. The jump to the new location isn't
+    // swept against platforms.
+    public void setY(int yPos)
+    {
+        y = yPos;
+        moveStartY = yPos;
+    }
+
+    // Marks the enemy as taken out of the world
+    public void setRemoved(boolean r)
+    {
+        removed = r;
+    }
+
+    // === OTHER METHODS ===
+
+    // Saves the current location as the start of the tick for drawing
+    // between ticks
+    public void savePreviousPosition()
+    {
+        prevX = x;
+        prevY = y;
+    }
+
+    // Counts down how long a killed enemy stays on-screen
+    public void fade()
+    {
+        if(!alive && existTimer > 0)
+        {
+            existTimer--;
+        }
+    }
+
+    // Returns the collision hitbox of the enemy for determining when it touches
+    // the player or a gravity pad
+    public Aabb getCollisionShape()
+    {
+        bounds.set(x, y, x + width, y + height);
+        return bounds;
+    }
+
+    // Handles enemy collision with floors and ceilings. The vertical move made by
+    // moveVertical is swept against the platforms, stopping the enemy at the
+    // first surface it crosses. Returns the contact with that surface.
+    public Contact touchPlatforms(PlatformGrid platforms)
+    {
+        // Only the platforms near the enemy's path can be touched
+        int dy = y - moveStartY;
+        ArrayList<PlatformBody> nearby = platforms.query(x, Math.min(moveStartY, y), x + width, Math.max(moveStartY, y) + height);
+
+        // Pushes the enemy out of any platform it started the move inside of
+        moveStartY += Sweep.pushOutY(x, moveStartY, x + width, moveStartY + height, gravAccel, nearby, yContact);
+
+        // Sweeps the rest of the move if the enemy wasn't embedded
+        if(!yContact.isHit())
+        {
+            dy = Sweep.sweepY(x, moveStartY, x + width, moveStartY + height, dy, nearby, yContact);
+        }
+        else
+        {
+            dy = 0;
+        }
+        y = moveStartY + dy;
+
+        // Set y-speed to zero for colliding with ceiling or floor
+        if(yContact.isHit())
+        {
+            ySpeed = 0;
+        }
+        return yContact;
+    }
+
+    // Moves enemy vertically based on gravity
+    public void moveVertical()
+    {
+        // Controls falling movement of enemy from gravity. Where the move started
+        // is kept so touchPlatforms can sweep it against the platforms.
+        moveStartY = y;
+        ySpeed += gravAccel;
+        y += Fixed.toInt(ySpeed);
+    }
+
+    // Moves enemy horizontally in response to proximity to player, stopping it against
+    // walls. Returns the contact with the wall it ran into, if any.
+    public Contact moveHorizontal(PlatformGrid platforms)
+    {
+        // Enemy only attacks if it's alive
+        if(alive)
+        {
+            // Calculates the squared distance from the enemy to the player, which
+            // compares against the squared range without a square root
+            PlayerBody target = world.getPlayer();
+            int targetX = target.getXPos();
+            int targetY = target.getYPos();
+            long distX = x - targetX;
+            long distY = y - targetY;
+            long distSquared = distX*distX + distY*distY;
+
+            // If enemy is ready to attack and player is within attack range of it, change speed
+            // to move towards the player
+            if(cooldown == 0)
+            {
+                if(distSquared <= (long)attackRange*attackRange)
+                {
+                    // Set the enemy sprite to "angry" for attacking
+                    spriteNum = 1;
+
+                    // Player is to the left of the enemy or directly on its x-position
+                    if(x - targetX >= 0)
+                    {
+                        xSpeed = -chargeSpeed;
+                    }
+                    // Player is to the right of the enemy
+                    else
+                    {
+                        xSpeed = chargeSpeed;
+                    }
+
+                    // Set the cooldown timer of the enemy to keep it from attacking
+                    // again immediately afterwards
+                    cooldown = 50;
+                }
+            }
+            else
+            {
+                // Decrement the attack cooldown timer while the enemy is still in cooldown
+                cooldown--;
+
+                // Set the enemy sprite to "neutral" if its cooldown is zero to indicate it's
+                // passive again
+                if(cooldown == 0)
+                {
+                    spriteNum = 0;
+                }
+            }
+        }
+
+        // Move the enemy horizontally with friction imposed on it, stopping it
+        // against walls
+        int dx = Fixed.toInt(xSpeed);
+        ArrayList<PlatformBody> nearby = platforms.query(Math.min(x, x + dx), y, Math.max(x, x + dx) + width, y + height);
+        x += Sweep.sweepX(x, y, x + width, y + height, dx, nearby, xContact);
+        xSpeed = Fixed.mul(xSpeed, friction);
+        return xContact;
+    }
+
+    // Handles enemy collision with gravity pads
+    public void touchGravityPads(ArrayList<GravityPadBody> gravPads)
+    {
+        for(int i = 0; i < gravPads.size(); i++)
+        {
+            GravityPadBody g = gravPads.get(i);
+
+            // If the gravity pad is on and the enemy touches it, reverse the direction of gravity
+            // and set the cooldown timer for the gravity pad
+            if(g.canUse())
+            {
+                if(getCollisionShape().intersects(g.getCollisionShape()))
+                {
+                    gravAccel = -gravAccel;
+                    g.setCooldown(50);
+
+                    // Flips the enemy to match the direction of gravity
+                    flip = !flip;
+                }
+            }
+        }
+    }
+
+    // "Kills" the enemy when player touches them and shield power is activated
+    public void killEnemy(PlayerBody playerChar)
+    {
+        if(alive)
+        {
+            // Indicate the enemy is dead
+            alive = false;
+
+            // Set enemy sprite to dead image
+            spriteNum = 2;
+
+            // Launch enemy in the direction the player is moving at 5x their
+            // speed
+            xSpeed = 5*playerChar.getXSpeed();
+            ySpeed = 5*playerChar.getYSpeed();
+
+            // Set timer for how long enemy remains on-screen before disappearing
+            existTimer = (int)afterDeathTime;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.game.engine;
+
+// 16.16 fixed-point numbers, stored in an int, used for every speed and
+// acceleration in the physics. Integer math gives the same result on every
+// device and JVM, so a recorded stream of inputs always replays to the exact
+// same positions.
+public final class Fixed
+{
+    // Number of fractional bits, and the fixed-point value of 1
+    public static final int SHIFT = 16;
+    public static final int ONE = 1 << SHIFT;
+
+    // Fixed-point numbers are only ever plain ints, so this is never created
+    private Fixed()
+    {
+    }
+
+    // Returns the fixed-point value of a whole number
+    public static int fromInt(int n)
+    {
+        return n << SHIFT;
+    }
+
+    // Returns the fixed-point value nearest a given double. Only used to bring
+    // tuning constants in; the physics itself never uses floating point.
+    public static int fromDouble(double d)
+    {
+        return (int)Math.round(d * ONE);
+    }
+
+    // Returns a fixed-point value as a double, for showing it
+    public static double toDouble(int f)
+    {
+        return f / (double)ONE;
+    }
+
+    // Returns the whole part of a fixed-point value, rounded toward zero the
+    // same way an (int) cast rounds a double
+    public static int toInt(int f)
+    {
+        return f / ONE;
+    }
+
+    // Multiplies two fixed-point values, rounding toward zero
+    public static int mul(int a, int b)
+    {
+        return (int)(((long)a * b) / ONE);
+    }
+
+    // Divides one fixed-point value by another, rounding toward zero
+    public static int div(int a, int b)
+    {
+        return (int)(((long)a << SHIFT) / b);
+    }
+}
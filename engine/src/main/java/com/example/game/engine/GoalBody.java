@@ -0,0 +1,50 @@
+package com.example.game.engine;
+
+public class GoalBody
+{
+    // x-y coordinate locations of the Goal
+    private int x;
+    private int y;
+
+    // Height and width of the Goal
+    private int width;
+    private int height;
+
+    // Collision box of the goalpost, kept in place so collision checks don't allocate
+    private final Aabb bounds;
+
+    public GoalBody(World world, int x, int y)
+    {
+        // Sizes the goalpost to 1.5x its sprite
+        width = (world.getMetrics().getWidth(SpriteType.GOAL)*3)/2;
+        height = (world.getMetrics().getHeight(SpriteType.GOAL)*3)/2;
+
+        // Initializes x-y location of the goalpost.
+        // Adjusts y-location for height of the goalpost.
+        // Adjust x-location to center the goalpost on the desired position.
+        this.x = (int)(x-width/2f);
+        this.y = y-height;
+        bounds = new Aabb(this.x, this.y, this.x + width, this.y + height);
+    }
+
+    /* === GETTERS === */
+
+    // Return x-coordinate of the Goalpost.
+    public int getX(){return x;}
+
+    // Return y-coordinate of the Goalpost.
+    public int getY(){return y;}
+
+    // Return activation box width of the Goalpost.
+    public int getWidth(){return width;}
+
+    // Return activation box height of the Goalpost.
+    public int getHeight() {return height;}
+
+    // Returns collision shape of the goalpost for determining when the player
+    // touches it.
+    public Aabb getCollisionShape()
+    {
+        return bounds;
+    }
+}
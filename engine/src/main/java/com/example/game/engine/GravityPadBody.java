@@ -0,0 +1,129 @@
+package com.example.game.engine;
+
+public class GravityPadBody
+{
+    // x-y coordinate locations of the gravity pad
+    private int x;
+    private int y;
+
+    // Height and width of the gravity pad
+    private int width;
+    private int height;
+
+    // Cooldown timer to control how long it takes for the player to be able
+    // to use the gravity pad again
+    // 0 = gravity pad ready to activate
+    private int cooldown;
+
+    // "Flip" boolean to indicate whether the gravity pad is right-side up or
+    // upside down.
+    // True = upside down
+    // False = right-side up
+    private boolean flip;
+
+    // Collision box of the gravity pad, kept in place so collision checks don't allocate
+    private final Aabb bounds;
+
+    public GravityPadBody(World world, int x, int y, boolean f)
+    {
+        // Sets orientation of the gravity pad based on the "flip" value
+        flip = f;
+
+        // Sizes the gravity pad to half its sprite
+        width = world.getMetrics().getWidth(SpriteType.GRAVITY_PAD)/2;
+        height = world.getMetrics().getHeight(SpriteType.GRAVITY_PAD)/2;
+
+        // Initializes x-y location of the gravity pad. Adjusts y-location for
+        // height and orientation of the gravity pad.
+        if(flip)
+        {
+            this.x = x;
+            this.y = y;
+        }
+        else
+        {
+            this.x = x;
+            this.y = y-height;
+        }
+
+        // Set the gravity pad cooldown to 0, indicating it can be activated
+        cooldown = 0;
+
+        // The collision box is made to be smaller than the actual image for a more
+        // logical activation
+        if(flip)
+        {
+            bounds = new Aabb(this.x, this.y, this.x + width, this.y + (int)(height*0.25));
+        }
+        else
+        {
+            bounds = new Aabb(this.x, this.y + (int)(height*0.75), this.x + width, this.y + height);
+        }
+    }
+
+    // === GETTERS ===
+
+    // Return x-coordinate of the gravity pad
+    public int getX()
+    {
+        return x;
+    }
+
+    // Return y-coordinate of the gravity pad
+    public int getY()
+    {
+        return y;
+    }
+
+    // Return activation box width of the gravity pad
+    public int getWidth()
+    {
+        return width;
+    }
+
+    // Return activation box height of the gravity pad
+    public int getHeight()
+    {
+        return height;
+    }
+
+    // Returns orientation boolean of the gravity pad
+    public boolean isFlipped()
+    {
+        return flip;
+    }
+
+    // Returns a status flag based on the gravity pad's cooldown timer,
+    // indicating whether it can be used
+    public boolean canUse()
+    {
+        return cooldown == 0;
+    }
+
+    // Returns collision shape of the gravity pad for determining when the player
+    // touches it. It's made to be smaller than the actual image for a more logical
+    // activation.
+    public Aabb getCollisionShape()
+    {
+        return bounds;
+    }
+
+    // === SETTERS ===
+
+    // Sets cooldown timer for gravity pad
+    public void setCooldown(int c)
+    {
+        cooldown = c;
+    }
+
+    // === OTHER METHODS ===
+
+    // Counts down the gravity pad's cooldown timer while it's off
+    public void coolDown()
+    {
+        if(cooldown > 0)
+        {
+            cooldown--;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.game.engine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Streaming JSON reader. Values are pulled one at a time straight off the
+// stream, the same way as android.util.JsonReader, so a caller can build what
+// it reads as it goes without the whole document ever being held in memory.
+// Works on a plain JVM as well as on Android.
+public class JsonPullReader
+{
+    // Number of characters read from the stream at a time
+    private static final int BUFFER_SIZE = 8192;
+
+    // Stream being read and the characters buffered from it
+    private final Reader in;
+    private final char[] buffer;
+    private int position, limit;
+
+    // Line being read, for error messages
+    private int line;
+
+    // For each object or array the reader is inside, whether a value has been
+    // read from it yet, which decides whether a comma comes before the next one
+    private boolean[] started;
+    private int depth;
+
+    // Builds up strings and numbers as they're read
+    private final StringBuilder token;
+
+    // Constructor for a reader of a given stream
+    public JsonPullReader(Reader in)
+    {
+        this.in = in;
+        buffer = new char[BUFFER_SIZE];
+        line = 1;
+        started = new boolean[16];
+        token = new StringBuilder();
+    }
+
+    // === GETTERS ===
+
+    // Returns the line being read
+    public int getLine()
+    {
+        return line;
+    }
+
+    // === OTHER METHODS ===
+
+    // Reads the start of an object
+    public void beginObject() throws IOException
+    {
+        beginValue();
+        expect('{');
+        push();
+    }
+
+    // Reads the end of an object. Every member must have been read.
+    public void endObject() throws IOException
+    {
+        expect('}');
+        depth--;
+    }
+
+    // Reads the start of an array
+    public void beginArray() throws IOException
+    {
+        beginValue();
+        expect('[');
+        push();
+    }
+
+    // Reads the end of an array. Every element must have been read.
+    public void endArray() throws IOException
+    {
+        expect(']');
+        depth--;
+    }
+
+    // Returns true if the current object or array has another member or element
+    public boolean hasNext() throws IOException
+    {
+        int c = peekSignificant();
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    // Reads the name of the next member of the current object
+    public String nextName() throws IOException
+    {
+        beginValue();
+        String name = readString();
+        expect(':');
+
+        // The member's value follows the colon, not a comma
+        started[depth - 1] = false;
+        return name;
+    }
+
+    // Reads a string value
+    public String nextString() throws IOException
+    {
+        beginValue();
+        return readString();
+    }
+
+    // Reads a boolean value
+    public boolean nextBoolean() throws IOException
+    {
+        beginValue();
+        String word = readWord();
+        if(word.equals("true"))
+        {
+            return true;
+        }
+        if(word.equals("false"))
+        {
+            return false;
+        }
+        throw syntaxError("Expected true or false but was " + word);
+    }
+
+    // Reads a whole-number value
+    public int nextInt() throws IOException
+    {
+        beginValue();
+        String number = readWord();
+        try
+        {
+            return Integer.parseInt(number);
+        }
+        catch (NumberFormatException e)
+        {
+            throw syntaxError("Expected a whole number but was " + number);
+        }
+    }
+
+    // Reads a number value
+    public double nextDouble() throws IOException
+    {
+        beginValue();
+        String number = readWord();
+        try
+        {
+            return Double.parseDouble(number);
+        }
+        catch (NumberFormatException e)
+        {
+            throw syntaxError("Expected a number but was " + number);
+        }
+    }
+
+    // Skips the next value, along with everything inside it if it's an object
+    // or array. Used to pass over members the reader doesn't know. The comma
+    // before the value is read first, so the value's kind is told from its own
+    // first character.
+    public void skipValue() throws IOException
+    {
+        beginValue();
+        int c = peekSignificant();
+        if(c == '{')
+        {
+            expect('{');
+            push();
+            while(hasNext())
+            {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        }
+        else if(c == '[')
+        {
+            expect('[');
+            push();
+            while(hasNext())
+            {
+                skipValue();
+            }
+            endArray();
+        }
+        else if(c == '"')
+        {
+            readString();
+        }
+        else
+        {
+            readWord();
+        }
+    }
+
+    // Closes the stream
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    // Returns an exception describing a problem at the line being read
+    public IOException syntaxError(String message)
+    {
+        return new IOException(message + " at line " + line);
+    }
+
+    // Reads the comma separating a value from the one before it in the current
+    // object or array, if there is one before it
+    private void beginValue() throws IOException
+    {
+        if(depth == 0)
+        {
+            return;
+        }
+        if(started[depth - 1])
+        {
+            expect(',');
+        }
+        started[depth - 1] = true;
+    }
+
+    // Marks entering a new object or array
+    private void push()
+    {
+        if(depth == started.length)
+        {
+            started = Arrays.copyOf(started, depth*2);
+        }
+        started[depth++] = false;
+    }
+
+    // Reads the next character that isn't whitespace, which must be a given one
+    private void expect(char expected) throws IOException
+    {
+        int c = peekSignificant();
+        if(c != expected)
+        {
+            throw syntaxError("Expected '" + expected + "' but was " + describe(c));
+        }
+        position++;
+    }
+
+    // Reads a quoted string, after any whitespace before it
+    private String readString() throws IOException
+    {
+        expect('"');
+        token.setLength(0);
+        while(true)
+        {
+            int c = read();
+            if(c == '"')
+            {
+                return token.toString();
+            }
+            else if(c == '\\')
+            {
+                token.append(readEscape());
+            }
+            else if(c == -1 || c == '\n')
+            {
+                throw syntaxError("Unterminated string");
+            }
+            else
+            {
+                token.append((char)c);
+            }
+        }
+    }
+
+    // Reads the character an escape sequence in a string stands for, after its backslash
+    private char readEscape() throws IOException
+    {
+        int c = read();
+        switch(c)
+        {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'u':
+                int code = 0;
+                for(int i = 0; i < 4; i++)
+                {
+                    int digit = Character.digit(read(), 16);
+                    if(digit < 0)
+                    {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    code = code*16 + digit;
+                }
+                return (char)code;
+            case '"':
+            case '\\':
+            case '/':
+                return (char)c;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    // Reads an unquoted word (a number, true, false, or null), after any
+    // whitespace before it
+    private String readWord() throws IOException
+    {
+        peekSignificant();
+        token.setLength(0);
+        while(true)
+        {
+            int c = peek();
+            if(c == -1 || c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c))
+            {
+                break;
+            }
+            token.append((char)c);
+            position++;
+        }
+        if(token.length() == 0)
+        {
+            throw syntaxError("Expected a value but was " + describe(peek()));
+        }
+        return token.toString();
+    }
+
+    // Skips whitespace and returns the character after it without reading it,
+    // or -1 at the end of the stream
+    private int peekSignificant() throws IOException
+    {
+        while(true)
+        {
+            int c = peek();
+            if(c == -1 || !Character.isWhitespace(c))
+            {
+                return c;
+            }
+            if(c == '\n')
+            {
+                line++;
+            }
+            position++;
+        }
+    }
+
+    // Returns the next character without reading it, or -1 at the end of the stream
+    private int peek() throws IOException
+    {
+        if(position == limit)
+        {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if(limit <= 0)
+            {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    // Reads the next character, or -1 at the end of the stream
+    private int read() throws IOException
+    {
+        int c = peek();
+        if(c != -1)
+        {
+            position++;
+        }
+        return c;
+    }
+
+    // Returns a character as text for error messages
+    private static String describe(int c)
+    {
+        return c == -1 ? "the end of the file" : "'" + (char)c + "'";
+    }
+}
@@ -0,0 +1,547 @@
+package com.example.game.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// A level as plain columns of numbers, one array per field of each kind of
+// entity, the way it's stored in a binary level file (see BinaryLevelFormat).
+// Nothing is created per entity until populate() builds the level's bodies in
+// a world, so a level can be read, checked, or written out without the cost
+// of building it.
+public class LevelData
+{
+    // Names of the backgrounds and power-up types, stored as their index here
+    public static final String[] BACKGROUNDS = {"DAY", "NIGHT", "SPACE", "FACILITY"};
+    public static final String[] POWER_UPS = {"SPEED", "JUMP", "SHIELD"};
+
+    // Bits of a platform's flags: whether it's in the future time period
+    // rather than the present, and whether it moves along a path
+    public static final int PLATFORM_FUTURE = 1;
+    public static final int PLATFORM_MOVING = 2;
+
+    // Room made for each kind of entity before any are added
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Player's starting location, gravitational acceleration (fixed-point, see
+    // Fixed), background index (DAY unless set), and goal post location
+    int startX, startY;
+    int gravityAccel;
+    int background;
+    int goalX, goalY;
+    boolean hasGoal;
+
+    // Platforms: location, size, tile type ordinal, flags, and for moving
+    // platforms the end of their path and their speed (fixed-point)
+    int platformCount;
+    int[] platformX, platformY, platformWidth, platformHeight, platformTile, platformFlags;
+    int[] platformToX, platformToY, platformSpeedX, platformSpeedY;
+
+    // Gravity pads and time machines: location, and 1 if flipped or else 0
+    int gravPadCount;
+    int[] gravPadX, gravPadY, gravPadFlipped;
+    int timeMachineCount;
+    int[] timeMachineX, timeMachineY, timeMachineFlipped;
+
+    // Enemies: location
+    int enemyCount;
+    int[] enemyX, enemyY;
+
+    // Power-ups: location and type index
+    int powerUpCount;
+    int[] powerUpX, powerUpY, powerUpType;
+
+    // Broadphase grids over each time period's platforms, baked by the level
+    // compiler (see PlatformGrid.bake), or null to build them when populated
+    int[] gridPresent, gridFuture;
+
+    // Constructor for an empty level that entities are added to one at a time
+    public LevelData()
+    {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY, INITIAL_CAPACITY, INITIAL_CAPACITY, INITIAL_CAPACITY);
+        platformCount = 0;
+        gravPadCount = 0;
+        timeMachineCount = 0;
+        enemyCount = 0;
+        powerUpCount = 0;
+    }
+
+    // Constructor for a level with a given number of each entity, whose columns
+    // are filled in directly by a reader
+    LevelData(int platforms, int gravPads, int timeMachines, int enemies, int powerUps)
+    {
+        platformCount = platforms;
+        platformX = new int[platforms];
+        platformY = new int[platforms];
+        platformWidth = new int[platforms];
+        platformHeight = new int[platforms];
+        platformTile = new int[platforms];
+        platformFlags = new int[platforms];
+        platformToX = new int[platforms];
+        platformToY = new int[platforms];
+        platformSpeedX = new int[platforms];
+        platformSpeedY = new int[platforms];
+
+        gravPadCount = gravPads;
+        gravPadX = new int[gravPads];
+        gravPadY = new int[gravPads];
+        gravPadFlipped = new int[gravPads];
+
+        timeMachineCount = timeMachines;
+        timeMachineX = new int[timeMachines];
+        timeMachineY = new int[timeMachines];
+        timeMachineFlipped = new int[timeMachines];
+
+        enemyCount = enemies;
+        enemyX = new int[enemies];
+        enemyY = new int[enemies];
+
+        powerUpCount = powerUps;
+        powerUpX = new int[powerUps];
+        powerUpY = new int[powerUps];
+        powerUpType = new int[powerUps];
+    }
+
+    // === GETTERS ===
+
+    // Returns the number of platforms in both time periods
+    public int getPlatformCount()
+    {
+        return platformCount;
+    }
+
+    // Returns the number of platforms in one time period
+    public int getPlatformCount(boolean future)
+    {
+        int count = 0;
+        for(int i = 0; i < platformCount; i++)
+        {
+            if(((platformFlags[i] & PLATFORM_FUTURE) != 0) == future)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Returns whether the level has a goal post
+    public boolean hasGoal()
+    {
+        return hasGoal;
+    }
+
+    // Returns whether the level's broadphase grids have been baked
+    public boolean hasBakedGrids()
+    {
+        return gridPresent != null;
+    }
+
+    // === SETTERS ===
+
+    // Sets the player's starting location
+    public void setStart(int x, int y)
+    {
+        startX = x;
+        startY = y;
+    }
+
+    // Sets the gravitational acceleration, fixed-point
+    public void setGravityAccel(int g)
+    {
+        gravityAccel = g;
+    }
+
+    // Sets the background by name, returning false if there's no such background
+    public boolean setBackground(String name)
+    {
+        int index = indexOf(BACKGROUNDS, name);
+        if(index < 0)
+        {
+            return false;
+        }
+        background = index;
+        return true;
+    }
+
+    // Sets the goal post's location
+    public void setGoal(int x, int y)
+    {
+        goalX = x;
+        goalY = y;
+        hasGoal = true;
+    }
+
+    // === OTHER METHODS ===
+
+    // Adds a platform that stays where it is
+    public void addPlatform(boolean future, int x, int y, int width, int height, TileType tile)
+    {
+        addPlatform(future ? PLATFORM_FUTURE : 0, x, y, width, height, tile, 0, 0, 0, 0);
+    }
+
+    // Adds a platform that moves back and forth between its location and a
+    // given point, at a given fixed-point speed
+    public void addMovingPlatform(boolean future, int x, int y, int toX, int toY, int speedX, int speedY,
+                                  int width, int height, TileType tile)
+    {
+        addPlatform((future ? PLATFORM_FUTURE : 0) | PLATFORM_MOVING, x, y, width, height, tile, toX, toY, speedX, speedY);
+    }
+
+    // Adds a gravity pad
+    public void addGravityPad(int x, int y, boolean flipped)
+    {
+        if(gravPadCount == gravPadX.length)
+        {
+            int capacity = gravPadCount*2;
+            gravPadX = Arrays.copyOf(gravPadX, capacity);
+            gravPadY = Arrays.copyOf(gravPadY, capacity);
+            gravPadFlipped = Arrays.copyOf(gravPadFlipped, capacity);
+        }
+        gravPadX[gravPadCount] = x;
+        gravPadY[gravPadCount] = y;
+        gravPadFlipped[gravPadCount] = flipped ? 1 : 0;
+        gravPadCount++;
+    }
+
+    // Adds a time machine
+    public void addTimeMachine(int x, int y, boolean flipped)
+    {
+        if(timeMachineCount == timeMachineX.length)
+        {
+            int capacity = timeMachineCount*2;
+            timeMachineX = Arrays.copyOf(timeMachineX, capacity);
+            timeMachineY = Arrays.copyOf(timeMachineY, capacity);
+            timeMachineFlipped = Arrays.copyOf(timeMachineFlipped, capacity);
+        }
+        timeMachineX[timeMachineCount] = x;
+        timeMachineY[timeMachineCount] = y;
+        timeMachineFlipped[timeMachineCount] = flipped ? 1 : 0;
+        timeMachineCount++;
+    }
+
+    // Adds an enemy
+    public void addEnemy(int x, int y)
+    {
+        if(enemyCount == enemyX.length)
+        {
+            int capacity = enemyCount*2;
+            enemyX = Arrays.copyOf(enemyX, capacity);
+            enemyY = Arrays.copyOf(enemyY, capacity);
+        }
+        enemyX[enemyCount] = x;
+        enemyY[enemyCount] = y;
+        enemyCount++;
+    }
+
+    // Adds a power-up of a given type, returning false if there's no such type
+    public boolean addPowerUp(int x, int y, String type)
+    {
+        int index = indexOf(POWER_UPS, type);
+        if(index < 0)
+        {
+            return false;
+        }
+        if(powerUpCount == powerUpX.length)
+        {
+            int capacity = powerUpCount*2;
+            powerUpX = Arrays.copyOf(powerUpX, capacity);
+            powerUpY = Arrays.copyOf(powerUpY, capacity);
+            powerUpType = Arrays.copyOf(powerUpType, capacity);
+        }
+        powerUpX[powerUpCount] = x;
+        powerUpY[powerUpCount] = y;
+        powerUpType[powerUpCount] = index;
+        powerUpCount++;
+        return true;
+    }
+
+    // Returns a description of every position in the level outside a design
+    // space of a given size, and every platform without a positive size.
+    // Platforms may hang off the edges of the design space, but each must start
+    // inside it, as must everything else and the ends of moving platforms' paths.
+    public ArrayList<String> checkBounds(int width, int height)
+    {
+        ArrayList<String> problems = new ArrayList<>();
+        checkPoint(problems, "Start", startX, startY, width, height);
+        checkPoint(problems, "Goal", goalX, goalY, width, height);
+        for(int i = 0; i < platformCount; i++)
+        {
+            checkPoint(problems, "Platform " + i, platformX[i], platformY[i], width, height);
+            if((platformFlags[i] & PLATFORM_MOVING) != 0)
+            {
+                checkPoint(problems, "Path end of platform " + i, platformToX[i], platformToY[i], width, height);
+            }
+            if(platformWidth[i] <= 0 || platformHeight[i] <= 0)
+            {
+                problems.add("Platform " + i + " has no area (" + platformWidth[i] + " by " + platformHeight[i] + ")");
+            }
+        }
+        for(int i = 0; i < gravPadCount; i++)
+        {
+            checkPoint(problems, "Gravity pad " + i, gravPadX[i], gravPadY[i], width, height);
+        }
+        for(int i = 0; i < timeMachineCount; i++)
+        {
+            checkPoint(problems, "Time machine " + i, timeMachineX[i], timeMachineY[i], width, height);
+        }
+        for(int i = 0; i < enemyCount; i++)
+        {
+            checkPoint(problems, "Enemy " + i, enemyX[i], enemyY[i], width, height);
+        }
+        for(int i = 0; i < powerUpCount; i++)
+        {
+            checkPoint(problems, "Power-up " + i, powerUpX[i], powerUpY[i], width, height);
+        }
+        return problems;
+    }
+
+    // Merges non-moving platforms of the same time period and tile type that sit
+    // edge to edge and together make a rectangle, until no more can be merged,
+    // and returns how many merges there were. Only solid-color tiles are merged,
+    // since a merged tile cut from a PNG would show a different part of it, and
+    // only where nothing else overlaps the merged platform, so the level looks
+    // and collides the same with fewer platforms. Any baked grids are dropped.
+    public int mergeStaticPlatforms()
+    {
+        int merges = 0;
+        boolean merged = true;
+        while(merged)
+        {
+            merged = false;
+            for(int i = 0; i < platformCount; i++)
+            {
+                for(int j = i + 1; j < platformCount; j++)
+                {
+                    if(canMerge(i, j))
+                    {
+                        int left = Math.min(platformX[i], platformX[j]);
+                        int top = Math.min(platformY[i], platformY[j]);
+                        platformWidth[i] = Math.max(platformX[i] + platformWidth[i], platformX[j] + platformWidth[j]) - left;
+                        platformHeight[i] = Math.max(platformY[i] + platformHeight[i], platformY[j] + platformHeight[j]) - top;
+                        platformX[i] = left;
+                        platformY[i] = top;
+                        removePlatform(j);
+
+                        // The bigger platform may now line up with ones already passed
+                        j = i;
+                        merges++;
+                        merged = true;
+                    }
+                }
+            }
+        }
+
+        if(merges > 0)
+        {
+            gridPresent = null;
+            gridFuture = null;
+        }
+        return merges;
+    }
+
+    // Bakes the broadphase grids over each time period's platforms, sized the
+    // same way the game sizes them, for a world of a given size
+    public void bakePlatformGrids(SpriteMetrics metrics, int width, int height)
+    {
+        World world = new World(width, height, metrics);
+        addPlatforms(world);
+        world.buildPlatformGrids();
+        gridPresent = world.getPlatformGridPresent().bake();
+        gridFuture = world.getPlatformGridFuture().bake();
+    }
+
+    // Builds the level's bodies in an empty world, indexes its platforms, and
+    // places the player at its start. This is the only point any entity of the
+    // level is created.
+    public void populate(World world)
+    {
+        world.setStart(startX, startY);
+        world.setGravityAccel(gravityAccel);
+        world.setBackgroundType(BACKGROUNDS[background]);
+        world.setGoalPost(new GoalBody(world, goalX, goalY));
+        addPlatforms(world);
+
+        for(int i = 0; i < gravPadCount; i++)
+        {
+            world.getGravPads().add(new GravityPadBody(world, gravPadX[i], gravPadY[i], gravPadFlipped[i] != 0));
+        }
+        for(int i = 0; i < timeMachineCount; i++)
+        {
+            world.getTimeMachines().add(new TimeMachineBody(world, timeMachineX[i], timeMachineY[i], timeMachineFlipped[i] != 0));
+        }
+
+        // Enemies start under the level's gravity
+        for(int i = 0; i < enemyCount; i++)
+        {
+            world.getEnemies().add(new EnemyBody(world, enemyX[i], enemyY[i], gravityAccel));
+        }
+        for(int i = 0; i < powerUpCount; i++)
+        {
+            world.getPowerUps().add(new PowerUpBody(world, powerUpX[i], powerUpY[i], POWER_UPS[powerUpType[i]]));
+        }
+
+        // Indexes the level's platforms for collision checks, using the grids
+        // baked with the level if it has them
+        if(gridPresent != null)
+        {
+            world.usePlatformGrids(gridPresent, gridFuture);
+        }
+        else
+        {
+            world.buildPlatformGrids();
+        }
+
+        // Places the player at the level's start, under the level's gravity
+        world.setPlayer(new PlayerBody(world, startX, startY, gravityAccel));
+    }
+
+    // Builds the level's platforms in a world, in level order
+    private void addPlatforms(World world)
+    {
+        TileType[] tiles = TileType.values();
+        world.getPlatformsPresent().ensureCapacity(platformCount);
+        for(int i = 0; i < platformCount; i++)
+        {
+            PlatformBody platform;
+            if((platformFlags[i] & PLATFORM_MOVING) != 0)
+            {
+                platform = new PlatformBody(world, platformX[i], platformY[i], platformToX[i], platformToY[i],
+                        Fixed.toDouble(platformSpeedX[i]), Fixed.toDouble(platformSpeedY[i]),
+                        platformWidth[i], platformHeight[i], tiles[platformTile[i]]);
+            }
+            else
+            {
+                platform = new PlatformBody(world, platformX[i], platformY[i], platformWidth[i], platformHeight[i],
+                        tiles[platformTile[i]]);
+            }
+
+            if((platformFlags[i] & PLATFORM_FUTURE) != 0)
+            {
+                world.getPlatformsFuture().add(platform);
+            }
+            else
+            {
+                world.getPlatformsPresent().add(platform);
+            }
+        }
+    }
+
+    // Returns true if two platforms can be merged into one: both stay put, share
+    // a time period and a solid-color tile type, sit edge to edge along the whole
+    // of a side, and no other platform of their time period overlaps them
+    private boolean canMerge(int i, int j)
+    {
+        if(((platformFlags[i] | platformFlags[j]) & PLATFORM_MOVING) != 0 || platformFlags[i] != platformFlags[j]
+                || platformTile[i] != platformTile[j] || platformTile[i] == TileType.WOOD.ordinal())
+        {
+            return false;
+        }
+
+        boolean sideBySide = platformY[i] == platformY[j] && platformHeight[i] == platformHeight[j]
+                && (platformX[i] + platformWidth[i] == platformX[j] || platformX[j] + platformWidth[j] == platformX[i]);
+        boolean stacked = platformX[i] == platformX[j] && platformWidth[i] == platformWidth[j]
+                && (platformY[i] + platformHeight[i] == platformY[j] || platformY[j] + platformHeight[j] == platformY[i]);
+        if(!sideBySide && !stacked)
+        {
+            return false;
+        }
+
+        int left = Math.min(platformX[i], platformX[j]);
+        int top = Math.min(platformY[i], platformY[j]);
+        int right = Math.max(platformX[i] + platformWidth[i], platformX[j] + platformWidth[j]);
+        int bottom = Math.max(platformY[i] + platformHeight[i], platformY[j] + platformHeight[j]);
+        for(int k = 0; k < platformCount; k++)
+        {
+            if(k == i || k == j || (platformFlags[k] & PLATFORM_FUTURE) != (platformFlags[i] & PLATFORM_FUTURE))
+            {
+                continue;
+            }
+
+            // Moving platforms are checked against everywhere their path takes them
+            int kLeft = platformX[k], kTop = platformY[k];
+            int kRight = kLeft + platformWidth[k], kBottom = kTop + platformHeight[k];
+            if((platformFlags[k] & PLATFORM_MOVING) != 0)
+            {
+                kLeft = Math.min(kLeft, platformToX[k]);
+                kTop = Math.min(kTop, platformToY[k]);
+                kRight = Math.max(kRight, platformToX[k] + platformWidth[k]);
+                kBottom = Math.max(kBottom, platformToY[k] + platformHeight[k]);
+            }
+            if(kLeft < right && left < kRight && kTop < bottom && top < kBottom)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Removes a platform's record, moving the ones after it up to keep level order
+    private void removePlatform(int index)
+    {
+        int after = platformCount - index - 1;
+        System.arraycopy(platformX, index + 1, platformX, index, after);
+        System.arraycopy(platformY, index + 1, platformY, index, after);
+        System.arraycopy(platformWidth, index + 1, platformWidth, index, after);
+        System.arraycopy(platformHeight, index + 1, platformHeight, index, after);
+        System.arraycopy(platformTile, index + 1, platformTile, index, after);
+        System.arraycopy(platformFlags, index + 1, platformFlags, index, after);
+        System.arraycopy(platformToX, index + 1, platformToX, index, after);
+        System.arraycopy(platformToY, index + 1, platformToY, index, after);
+        System.arraycopy(platformSpeedX, index + 1, platformSpeedX, index, after);
+        System.arraycopy(platformSpeedY, index + 1, platformSpeedY, index, after);
+        platformCount--;
+    }
+
+    // Adds a description of a position to a list of problems if it's outside a
+    // design space of a given size
+    private static void checkPoint(ArrayList<String> problems, String name, int x, int y, int width, int height)
+    {
+        if(x < 0 || x > width || y < 0 || y > height)
+        {
+            problems.add(name + " is outside the " + width + " by " + height + " design space at (" + x + ", " + y + ")");
+        }
+    }
+
+    // Adds a platform's record, growing the platform columns if they're full
+    private void addPlatform(int flags, int x, int y, int width, int height, TileType tile,
+                             int toX, int toY, int speedX, int speedY)
+    {
+        if(platformCount == platformX.length)
+        {
+            int capacity = platformCount*2;
+            platformX = Arrays.copyOf(platformX, capacity);
+            platformY = Arrays.copyOf(platformY, capacity);
+            platformWidth = Arrays.copyOf(platformWidth, capacity);
+            platformHeight = Arrays.copyOf(platformHeight, capacity);
+            platformTile = Arrays.copyOf(platformTile, capacity);
+            platformFlags = Arrays.copyOf(platformFlags, capacity);
+            platformToX = Arrays.copyOf(platformToX, capacity);
+            platformToY = Arrays.copyOf(platformToY, capacity);
+            platformSpeedX = Arrays.copyOf(platformSpeedX, capacity);
+            platformSpeedY = Arrays.copyOf(platformSpeedY, capacity);
+        }
+        platformX[platformCount] = x;
+        platformY[platformCount] = y;
+        platformWidth[platformCount] = width;
+        platformHeight[platformCount] = height;
+        platformTile[platformCount] = tile.ordinal();
+        platformFlags[platformCount] = flags;
+        platformToX[platformCount] = toX;
+        platformToY[platformCount] = toY;
+        platformSpeedX[platformCount] = speedX;
+        platformSpeedY[platformCount] = speedY;
+        platformCount++;
+    }
+
+    // Returns the index of a name in a table of names, or -1 if it isn't there
+    private static int indexOf(String[] names, String name)
+    {
+        for(int i = 0; i < names.length; i++)
+        {
+            if(names[i].equals(name))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
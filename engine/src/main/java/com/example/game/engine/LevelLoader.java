@@ -0,0 +1,427 @@
+package com.example.game.engine;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Loads levels from their JSON sources (app/src/main/levels/level<N>.json),
+// which the level compiler turns into the binary files the app ships. The file
+// is read straight into a LevelData as it streams in, so no copy of the file
+// is held in memory while loading. A level file looks like:
+//
+// {
+//   "start": { "x": 10, "y": 2180 },
+//   "gravity": 3,
+//   "background": "FACILITY",
+//   "goal": { "x": 980, "y": 750 },
+//   "platforms": {
+//     "present": [ { "x": 0, "y": 0, "width": 50, "height": 2080, "tile": "METAL" } ],
+//     "future": [ { "x": 300, "y": 800, "width": 200, "height": 50, "tile": "STONE",
+//                   "path": { "toX": 1080, "toY": 800, "speedX": 10, "speedY": 0 } } ]
+//   },
+//   "gravityPads": [ { "x": 690, "y": 2180, "flipped": false } ],
+//   "timeMachines": [ { "x": 1000, "y": 200, "flipped": true } ],
+//   "enemies": [ { "x": 600, "y": 1500 } ],
+//   "powerUps": [ { "x": 700, "y": 200, "type": "JUMP" } ]
+// }
+//
+// Every position is in design-space units. Members the loader doesn't know
+// are skipped. Platforms may hang off the edges of the design space, but
+// everything must start inside it (see LevelData.checkBounds).
+public class LevelLoader
+{
+    // Name of a given level's source file in the level sources folder
+    public static String getLevelFileName(int levelNum)
+    {
+        return "level" + levelNum + ".json";
+    }
+
+    // Reads a level from a given stream into an empty world, then indexes its
+    // platforms and places the player at its start. The stream is closed once
+    // the level is read.
+    public static void load(Reader in, World world) throws IOException
+    {
+        read(in).populate(world);
+    }
+
+    // Reads a level from a given stream without building any of it. The stream
+    // is closed once the level is read.
+    public static LevelData read(Reader in) throws IOException
+    {
+        JsonPullReader json = new JsonPullReader(in);
+        try
+        {
+            return readLevel(json);
+        }
+        finally
+        {
+            json.close();
+        }
+    }
+
+    // Reads the members of the level object
+    private static LevelData readLevel(JsonPullReader json) throws IOException
+    {
+        LevelData level = new LevelData();
+
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("start"))
+            {
+                readStart(json, level);
+            }
+            else if(name.equals("gravity"))
+            {
+                level.setGravityAccel(Fixed.fromDouble(json.nextDouble()));
+            }
+            else if(name.equals("background"))
+            {
+                String background = json.nextString();
+                if(!level.setBackground(background))
+                {
+                    throw json.syntaxError("Unknown background \"" + background + "\"");
+                }
+            }
+            else if(name.equals("goal"))
+            {
+                readGoal(json, level);
+            }
+            else if(name.equals("platforms"))
+            {
+                readTimelines(json, level);
+            }
+            else if(name.equals("gravityPads"))
+            {
+                json.beginArray();
+                while(json.hasNext())
+                {
+                    readGravityPad(json, level);
+                }
+                json.endArray();
+            }
+            else if(name.equals("timeMachines"))
+            {
+                json.beginArray();
+                while(json.hasNext())
+                {
+                    readTimeMachine(json, level);
+                }
+                json.endArray();
+            }
+            else if(name.equals("enemies"))
+            {
+                json.beginArray();
+                while(json.hasNext())
+                {
+                    readEnemy(json, level);
+                }
+                json.endArray();
+            }
+            else if(name.equals("powerUps"))
+            {
+                json.beginArray();
+                while(json.hasNext())
+                {
+                    readPowerUp(json, level);
+                }
+                json.endArray();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if(!level.hasGoal())
+        {
+            throw json.syntaxError("Level has no \"goal\"");
+        }
+        return level;
+    }
+
+    // Reads the player's starting location
+    private static void readStart(JsonPullReader json, LevelData level) throws IOException
+    {
+        int x = 0, y = 0;
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("x"))
+            {
+                x = json.nextInt();
+            }
+            else if(name.equals("y"))
+            {
+                y = json.nextInt();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        level.setStart(x, y);
+    }
+
+    // Reads the platforms of each time period
+    private static void readTimelines(JsonPullReader json, LevelData level) throws IOException
+    {
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("present"))
+            {
+                readPlatforms(json, level, false);
+            }
+            else if(name.equals("future"))
+            {
+                readPlatforms(json, level, true);
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    // Reads an array of platforms of a given time period
+    private static void readPlatforms(JsonPullReader json, LevelData level, boolean future) throws IOException
+    {
+        json.beginArray();
+        while(json.hasNext())
+        {
+            readPlatform(json, level, future);
+        }
+        json.endArray();
+    }
+
+    // Reads a platform. Platforms with a "path" move back and forth between
+    // their location and the path's end.
+    private static void readPlatform(JsonPullReader json, LevelData level, boolean future) throws IOException
+    {
+        int x = 0, y = 0, width = 0, height = 0;
+        String tile = "";
+        boolean moving = false;
+        int toX = 0, toY = 0;
+        double speedX = 0, speedY = 0;
+
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("x"))
+            {
+                x = json.nextInt();
+            }
+            else if(name.equals("y"))
+            {
+                y = json.nextInt();
+            }
+            else if(name.equals("width"))
+            {
+                width = json.nextInt();
+            }
+            else if(name.equals("height"))
+            {
+                height = json.nextInt();
+            }
+            else if(name.equals("tile"))
+            {
+                tile = json.nextString();
+            }
+            else if(name.equals("path"))
+            {
+                moving = true;
+                json.beginObject();
+                while(json.hasNext())
+                {
+                    String pathName = json.nextName();
+                    if(pathName.equals("toX"))
+                    {
+                        toX = json.nextInt();
+                    }
+                    else if(pathName.equals("toY"))
+                    {
+                        toY = json.nextInt();
+                    }
+                    else if(pathName.equals("speedX"))
+                    {
+                        speedX = json.nextDouble();
+                    }
+                    else if(pathName.equals("speedY"))
+                    {
+                        speedY = json.nextDouble();
+                    }
+                    else
+                    {
+                        json.skipValue();
+                    }
+                }
+                json.endObject();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if(moving)
+        {
+            level.addMovingPlatform(future, x, y, toX, toY, Fixed.fromDouble(speedX), Fixed.fromDouble(speedY),
+                    width, height, TileType.fromName(tile));
+        }
+        else
+        {
+            level.addPlatform(future, x, y, width, height, TileType.fromName(tile));
+        }
+    }
+
+    // Reads the goalpost
+    private static void readGoal(JsonPullReader json, LevelData level) throws IOException
+    {
+        int x = 0, y = 0;
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("x"))
+            {
+                x = json.nextInt();
+            }
+            else if(name.equals("y"))
+            {
+                y = json.nextInt();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        level.setGoal(x, y);
+    }
+
+    // Reads a gravity pad
+    private static void readGravityPad(JsonPullReader json, LevelData level) throws IOException
+    {
+        int x = 0, y = 0;
+        boolean flipped = false;
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("x"))
+            {
+                x = json.nextInt();
+            }
+            else if(name.equals("y"))
+            {
+                y = json.nextInt();
+            }
+            else if(name.equals("flipped"))
+            {
+                flipped = json.nextBoolean();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        level.addGravityPad(x, y, flipped);
+    }
+
+    // Reads a time machine
+    private static void readTimeMachine(JsonPullReader json, LevelData level) throws IOException
+    {
+        int x = 0, y = 0;
+        boolean flipped = false;
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("x"))
+            {
+                x = json.nextInt();
+            }
+            else if(name.equals("y"))
+            {
+                y = json.nextInt();
+            }
+            else if(name.equals("flipped"))
+            {
+                flipped = json.nextBoolean();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        level.addTimeMachine(x, y, flipped);
+    }
+
+    // Reads an enemy
+    private static void readEnemy(JsonPullReader json, LevelData level) throws IOException
+    {
+        int x = 0, y = 0;
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("x"))
+            {
+                x = json.nextInt();
+            }
+            else if(name.equals("y"))
+            {
+                y = json.nextInt();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        level.addEnemy(x, y);
+    }
+
+    // Reads a power-up
+    private static void readPowerUp(JsonPullReader json, LevelData level) throws IOException
+    {
+        int x = 0, y = 0;
+        String type = "";
+        json.beginObject();
+        while(json.hasNext())
+        {
+            String name = json.nextName();
+            if(name.equals("x"))
+            {
+                x = json.nextInt();
+            }
+            else if(name.equals("y"))
+            {
+                y = json.nextInt();
+            }
+            else if(name.equals("type"))
+            {
+                type = json.nextString();
+            }
+            else
+            {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        if(!level.addPowerUp(x, y, type))
+        {
+            throw json.syntaxError("Unknown power-up type \"" + type + "\"");
+        }
+    }
+}
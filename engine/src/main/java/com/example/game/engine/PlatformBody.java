@@ -0,0 +1,248 @@
+package com.example.game.engine;
+
+public class PlatformBody
+{
+    // Size of the design space the whole simulation runs in, the screen of a
+    // Google Pixel 4. Every position, size, and speed in the engine is in
+    // these units; the renderer scales them to the device's screen.
+    public static final int MAX_WIDTH = 1080;
+    public static final int MAX_HEIGHT = 2280;
+
+    // Current x-y coordinates of the platform
+    private int x, y;
+
+    // x-y coordinates before the platform's last move, used to smoothly draw
+    // moving platforms between ticks
+    private int prevX, prevY;
+
+    // Limits on the platform's movement in the x and y directions
+    private int xStart, xEnd, yStart, yEnd;
+
+    // x and y speeds of the platform
+    private double xSpeed;
+    private double ySpeed;
+
+    // Width and height of the platform
+    private int width;
+    private int height;
+
+    // Size of the tile image cut for the platform (only used by tile types
+    // drawn from a PNG)
+    private int imageWidth;
+    private int imageHeight;
+
+    // Type of the platform, defining what it looks like. Level layouts name it
+    // with a String, which is looked up once here so drawing never compares names.
+    private TileType tileType;
+
+    // Collision box of the platform, moved in place along with the platform so
+    // collision checks don't allocate
+    private final Aabb bounds;
+
+    // Default constructor for fixed platforms, with the tile type given by name
+    public PlatformBody(World world, int x, int y, int w, int h, String tileType)
+    {
+        this(world, x, y, w, h, TileType.fromName(tileType));
+    }
+
+    // Constructor for fixed platforms of a given tile type
+    public PlatformBody(World world, int x, int y, int w, int h, TileType tileType)
+    {
+        // Sets starting position and speeds of the platform
+        this.x = x;
+        this.y = y;
+        prevX = this.x;
+        prevY = this.y;
+        xSpeed = 0;
+        ySpeed = 0;
+
+        // Sets x-y movement bounds of the platform to the same coordinates as the initial
+        // x-y position since the platform isn't moving
+        xStart = xEnd = x;
+        yStart = yEnd = y;
+
+        // Sets tileType of the platform to determine its appearance
+        this.tileType = tileType;
+
+        // Width and height get checked against the tile image in the sizePlatform function
+        width = w;
+        height = h;
+
+        sizePlatform(world);
+        bounds = new Aabb(this.x, this.y, this.x + width, this.y + height);
+    }
+
+    // Constructor for moving platforms, with the tile type given by name
+    public PlatformBody(World world, int x1, int y1, int x2, int y2, double xs, double ys, int w, int h, String tileType)
+    {
+        this(world, x1, y1, x2, y2, xs, ys, w, h, TileType.fromName(tileType));
+    }
+
+    // Constructor for moving platforms of a given tile type
+    public PlatformBody(World world, int x1, int y1, int x2, int y2, double xs, double ys, int w, int h, TileType tileType)
+    {
+        // Sets initial location and speeds of the platform. Absolute values of the speeds are
+        // used to help with checking movement bounds later.
+        x = x1;
+        y = y1;
+        prevX = x;
+        prevY = y;
+        xSpeed = Math.abs(xs);
+        ySpeed = Math.abs(ys);
+
+        // Sets the platform's x-y movement bounds
+        xStart = Math.min(x1, x2);
+        xEnd = Math.max(x1, x2);
+        yStart = Math.min(y1, y2);
+        yEnd = Math.max(y1, y2);
+
+        // Sets tileType of the platform to determine its appearance
+        this.tileType = tileType;
+
+        // Sets width and height of the platform, checked against the tile image in the
+        // sizePlatform function
+        width = w;
+        height = h;
+
+        sizePlatform(world);
+        bounds = new Aabb(x, y, x + width, y + height);
+    }
+
+    // === GETTERS ===
+
+    // Returns current x-coordinate of platform
+    public int getX()
+    {
+        return x;
+    }
+
+    // Returns current y-coordinate of platform
+    public int getY()
+    {
+        return y;
+    }
+
+    // Returns x-coordinate of platform before its last move
+    public int getPrevX()
+    {
+        return prevX;
+    }
+
+    // Returns y-coordinate of platform before its last move
+    public int getPrevY()
+    {
+        return prevY;
+    }
+
+    // Returns x-speed of the platform
+    public double getXSpeed()
+    {
+        return xSpeed;
+    }
+
+    // Returns y-speed of the platform
+    public double getYSpeed()
+    {
+        return ySpeed;
+    }
+
+    // Returns width of the platform
+    public int getWidth()
+    {
+        return width;
+    }
+
+    // Returns height of the platform
+    public int getHeight()
+    {
+        return height;
+    }
+
+    // Returns width of the tile image cut for the platform, before scaling
+    public int getImageWidth()
+    {
+        return imageWidth;
+    }
+
+    // Returns height of the tile image cut for the platform, before scaling
+    public int getImageHeight()
+    {
+        return imageHeight;
+    }
+
+    // Returns tile type of the platform
+    public TileType getTileType()
+    {
+        return tileType;
+    }
+
+    // Returns true if the platform moves back and forth
+    public boolean isMoving()
+    {
+        return xSpeed != 0 || ySpeed != 0;
+    }
+
+    // Returns the collision box covering everywhere the platform can be while it
+    // moves back and forth. Each step can carry it up to one tick's speed past
+    // its movement bounds before it turns around.
+    public Aabb getTravelShape()
+    {
+        if(!isMoving())
+        {
+            return getCollisionShape();
+        }
+        int stepX = (int)Math.abs(xSpeed);
+        int stepY = (int)Math.abs(ySpeed);
+        return new Aabb(Math.min(x, xStart) - stepX, Math.min(y, yStart) - stepY,
+                Math.max(x + width, xEnd) + stepX, Math.max(y + height, yEnd) + stepY);
+    }
+
+    // === OTHER METHODS ===
+
+    // Sizes the platform. Platforms cut from a PNG can't be
+    // bigger than the PNG itself, so if the requested size doesn't fit they use
+    // the whole image instead.
+    private void sizePlatform(World world)
+    {
+        if(tileType == TileType.WOOD)
+        {
+            SpriteMetrics metrics = world.getMetrics();
+            if(!(width <= metrics.getWidth(SpriteType.WOOD_TILES) && height <= metrics.getHeight(SpriteType.WOOD_TILES)))
+            {
+                width = metrics.getWidth(SpriteType.WOOD_TILES);
+                height = metrics.getHeight(SpriteType.WOOD_TILES);
+            }
+        }
+        imageWidth = width;
+        imageHeight = height;
+    }
+
+    // Returns collision shape of the platform for determining when the player
+    // touches it
+    public Aabb getCollisionShape()
+    {
+        return bounds;
+    }
+
+    // Moves the platform based on its given x-y speeds and movement bounds
+    public void movePlatform()
+    {
+        // If the platform hits either end of its movement boundaries, reverse its
+        // movement direction
+        if((xSpeed > 0 && (x + width >= xEnd)) || (xSpeed < 0 && x <= xStart))
+        {
+            xSpeed = -xSpeed;
+        }
+        if((ySpeed > 0 && (y + height >= yEnd)) || (ySpeed < 0 && y <= yStart))
+        {
+            ySpeed = -ySpeed;
+        }
+
+        // Move the platform with its x-y speeds, remembering where it started
+        prevX = x;
+        prevY = y;
+        x += (int)xSpeed;
+        y += (int)ySpeed;
+        bounds.set(x, y, x + width, y + height);
+    }
+}
@@ -0,0 +1,434 @@
+package com.example.game.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Uniform grid broadphase over one timeline's platforms. The area the platforms
+// cover is split into square cells, and each cell lists the platforms touching
+// it, so collision checks only look at platforms near an entity instead of
+// every platform in the level. Built once when the level loads, or baked ahead
+// of time by the level compiler (see bake()); moving platforms are moved
+// through the grid, which only relists them when they cross into different
+// cells.
+public class PlatformGrid
+{
+    // Default width and height of a cell, in pixels. A few times the size of the
+    // player so most queries touch one to four cells.
+    public static final int CELL_SIZE = 256;
+
+    // Number of ints at the start of a baked grid before its cell lists: cell
+    // size, origin x and y, columns, and rows
+    private static final int BAKED_HEADER = 5;
+
+    // Platforms indexed by the grid, in level order
+    private final ArrayList<PlatformBody> platforms;
+
+    // Size of a cell, and the top-left corner and size of the grid in cells
+    private final int cellSize;
+    private final int originX, originY;
+    private final int cols, rows;
+
+    // Indices of the platforms touching each cell, and how many of each cell's
+    // slots are used. A cell's array is only created once something touches it.
+    private final int[][] cells;
+    private final int[] cellCounts;
+
+    // Range of cells each platform is listed in, by platform index
+    private final int[] minCols, maxCols;
+    private final int[] minRows, maxRows;
+
+    // Indices of the platforms that move back and forth
+    private final int[] moving;
+
+    // Query stamp of each platform, used to list a platform touching several of
+    // the queried cells only once. The stamp goes up by one each query.
+    private final int[] stamps;
+    private int stamp;
+
+    // Indices found by the last query, and the platforms they're returned as.
+    // Both are reused by every query so querying doesn't allocate.
+    private int[] found;
+    private final ArrayList<PlatformBody> results;
+
+    // Constructor for a grid over a list of platforms in a world of a given size
+    public PlatformGrid(ArrayList<PlatformBody> platforms, int worldWidth, int worldHeight)
+    {
+        this(platforms, worldWidth, worldHeight, CELL_SIZE);
+    }
+
+    // Constructor for a grid over a list of platforms in a world of a given size,
+    // with a given cell size
+    public PlatformGrid(ArrayList<PlatformBody> platforms, int worldWidth, int worldHeight, int cellSize)
+    {
+        this.platforms = platforms;
+        this.cellSize = cellSize;
+
+        // Covers the world and everywhere a platform can reach, since platforms
+        // can hang off the edges of the screen. Anything outside the grid is
+        // still kept in the edge cells, so this only spreads platforms out.
+        int left = 0, top = 0, right = worldWidth, bottom = worldHeight;
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            Aabb p = platforms.get(i).getTravelShape();
+            left = Math.min(left, p.getLeft());
+            top = Math.min(top, p.getTop());
+            right = Math.max(right, p.getRight());
+            bottom = Math.max(bottom, p.getBottom());
+        }
+        originX = left;
+        originY = top;
+        cols = Math.max(1, (right - left + cellSize - 1) / cellSize);
+        rows = Math.max(1, (bottom - top + cellSize - 1) / cellSize);
+
+        cells = new int[cols*rows][];
+        cellCounts = new int[cols*rows];
+        minCols = new int[platforms.size()];
+        maxCols = new int[platforms.size()];
+        minRows = new int[platforms.size()];
+        maxRows = new int[platforms.size()];
+        stamps = new int[platforms.size()];
+        found = new int[16];
+        results = new ArrayList<>();
+
+        // Lists each platform in every cell it touches, and remembers which ones move
+        int movingCount = 0;
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            Aabb p = platforms.get(i).getCollisionShape();
+            minCols[i] = toCol(p.getLeft());
+            maxCols[i] = toCol(p.getRight() - 1);
+            minRows[i] = toRow(p.getTop());
+            maxRows[i] = toRow(p.getBottom() - 1);
+            for(int row = minRows[i]; row <= maxRows[i]; row++)
+            {
+                for(int col = minCols[i]; col <= maxCols[i]; col++)
+                {
+                    addToCell(row*cols + col, i);
+                }
+            }
+
+            if(platforms.get(i).isMoving())
+            {
+                movingCount++;
+            }
+        }
+        moving = findMoving(platforms, movingCount);
+    }
+
+    // Constructor for a grid over a list of platforms from a grid baked over the
+    // same platforms by bake(), which skips working out the cells each platform
+    // touches. The baked grid must have come from platforms of the same size in
+    // the same order (see isValidBake).
+    public PlatformGrid(ArrayList<PlatformBody> platforms, int[] baked)
+    {
+        this.platforms = platforms;
+        cellSize = baked[0];
+        originX = baked[1];
+        originY = baked[2];
+        cols = baked[3];
+        rows = baked[4];
+
+        cells = new int[cols*rows][];
+        cellCounts = new int[cols*rows];
+        minCols = new int[platforms.size()];
+        maxCols = new int[platforms.size()];
+        minRows = new int[platforms.size()];
+        maxRows = new int[platforms.size()];
+        stamps = new int[platforms.size()];
+        found = new int[16];
+        results = new ArrayList<>();
+
+        // Copies each cell's list out of the baked lists, which follow the table
+        // of where each cell's list starts
+        int starts = BAKED_HEADER;
+        int lists = starts + cols*rows + 1;
+        for(int cell = 0; cell < cols*rows; cell++)
+        {
+            int count = baked[starts + cell + 1] - baked[starts + cell];
+            if(count > 0)
+            {
+                cells[cell] = Arrays.copyOfRange(baked, lists + baked[starts + cell], lists + baked[starts + cell + 1]);
+                cellCounts[cell] = count;
+            }
+        }
+
+        // Moving platforms need the range of cells they're listed in to be
+        // relisted as they move
+        int movingCount = 0;
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            Aabb p = platforms.get(i).getCollisionShape();
+            minCols[i] = toCol(p.getLeft());
+            maxCols[i] = toCol(p.getRight() - 1);
+            minRows[i] = toRow(p.getTop());
+            maxRows[i] = toRow(p.getBottom() - 1);
+
+            if(platforms.get(i).isMoving())
+            {
+                movingCount++;
+            }
+        }
+        moving = findMoving(platforms, movingCount);
+    }
+
+    // === GETTERS ===
+
+    // Returns every platform indexed by the grid
+    public ArrayList<PlatformBody> getPlatforms()
+    {
+        return platforms;
+    }
+
+    // Returns the width of the grid, in cells
+    public int getCols()
+    {
+        return cols;
+    }
+
+    // Returns the height of the grid, in cells
+    public int getRows()
+    {
+        return rows;
+    }
+
+    // === OTHER METHODS ===
+
+    // Returns the grid as one array of ints: the cell size, origin, columns and
+    // rows, then where each cell's list starts (plus where the last one ends),
+    // then every cell's list of platform indices one after another. Meant to be
+    // stored with the level and passed back to the baked constructor.
+    public int[] bake()
+    {
+        int listed = 0;
+        for(int cell = 0; cell < cols*rows; cell++)
+        {
+            listed += cellCounts[cell];
+        }
+
+        int[] baked = new int[BAKED_HEADER + cols*rows + 1 + listed];
+        baked[0] = cellSize;
+        baked[1] = originX;
+        baked[2] = originY;
+        baked[3] = cols;
+        baked[4] = rows;
+
+        int starts = BAKED_HEADER;
+        int lists = starts + cols*rows + 1;
+        int next = 0;
+        for(int cell = 0; cell < cols*rows; cell++)
+        {
+            baked[starts + cell] = next;
+            for(int k = 0; k < cellCounts[cell]; k++)
+            {
+                baked[lists + next++] = cells[cell][k];
+            }
+        }
+        baked[starts + cols*rows] = next;
+        return baked;
+    }
+
+    // Returns true if a baked grid is well formed for a given number of
+    // platforms, so a damaged level file can't index outside its arrays
+    public static boolean isValidBake(int[] baked, int platformCount)
+    {
+        if(baked.length < BAKED_HEADER || baked[0] <= 0 || baked[3] <= 0 || baked[4] <= 0)
+        {
+            return false;
+        }
+        long cellTotal = (long)baked[3]*baked[4];
+        if(BAKED_HEADER + cellTotal + 1 > baked.length)
+        {
+            return false;
+        }
+
+        int cellCount = (int)cellTotal;
+        int starts = BAKED_HEADER;
+        int lists = starts + cellCount + 1;
+        if(baked[starts] != 0 || baked[starts + cellCount] != baked.length - lists)
+        {
+            return false;
+        }
+        for(int cell = 0; cell < cellCount; cell++)
+        {
+            if(baked[starts + cell + 1] < baked[starts + cell])
+            {
+                return false;
+            }
+        }
+        for(int i = lists; i < baked.length; i++)
+        {
+            if(baked[i] < 0 || baked[i] >= platformCount)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns the platforms listed in the cells a box touches, in level order so
+    // collision results match checking every platform. The returned list is
+    // reused by the next query.
+    public ArrayList<PlatformBody> query(int left, int top, int right, int bottom)
+    {
+        results.clear();
+        stamp++;
+        int foundCount = 0;
+
+        int minCol = toCol(left);
+        int maxCol = toCol(right - 1);
+        int minRow = toRow(top);
+        int maxRow = toRow(bottom - 1);
+        for(int row = minRow; row <= maxRow; row++)
+        {
+            for(int col = minCol; col <= maxCol; col++)
+            {
+                int cell = row*cols + col;
+                for(int k = 0; k < cellCounts[cell]; k++)
+                {
+                    int index = cells[cell][k];
+                    if(stamps[index] != stamp)
+                    {
+                        stamps[index] = stamp;
+                        if(foundCount == found.length)
+                        {
+                            found = Arrays.copyOf(found, foundCount*2);
+                        }
+                        found[foundCount++] = index;
+                    }
+                }
+            }
+        }
+
+        // Puts the platforms back in level order. Only a handful are found per
+        // query, so an insertion sort is quickest.
+        for(int i = 1; i < foundCount; i++)
+        {
+            int index = found[i];
+            int j = i - 1;
+            while(j >= 0 && found[j] > index)
+            {
+                found[j + 1] = found[j];
+                j--;
+            }
+            found[j + 1] = index;
+        }
+        for(int i = 0; i < foundCount; i++)
+        {
+            results.add(platforms.get(found[i]));
+        }
+        return results;
+    }
+
+    // Moves every moving platform one tick along its path, relisting the ones
+    // that crossed into different cells
+    public void movePlatforms()
+    {
+        for(int i = 0; i < moving.length; i++)
+        {
+            platforms.get(moving[i]).movePlatform();
+            update(moving[i]);
+        }
+    }
+
+    // Relists a platform that has moved, given its index. Nothing changes unless
+    // it crossed a cell boundary; otherwise only the cells it left or entered
+    // are touched.
+    public void update(int index)
+    {
+        Aabb p = platforms.get(index).getCollisionShape();
+        int minCol = toCol(p.getLeft());
+        int maxCol = toCol(p.getRight() - 1);
+        int minRow = toRow(p.getTop());
+        int maxRow = toRow(p.getBottom() - 1);
+        if(minCol == minCols[index] && maxCol == maxCols[index] && minRow == minRows[index] && maxRow == maxRows[index])
+        {
+            return;
+        }
+
+        // Takes the platform out of the cells it left
+        for(int row = minRows[index]; row <= maxRows[index]; row++)
+        {
+            for(int col = minCols[index]; col <= maxCols[index]; col++)
+            {
+                if(row < minRow || row > maxRow || col < minCol || col > maxCol)
+                {
+                    removeFromCell(row*cols + col, index);
+                }
+            }
+        }
+
+        // Adds the platform to the cells it entered
+        for(int row = minRow; row <= maxRow; row++)
+        {
+            for(int col = minCol; col <= maxCol; col++)
+            {
+                if(row < minRows[index] || row > maxRows[index] || col < minCols[index] || col > maxCols[index])
+                {
+                    addToCell(row*cols + col, index);
+                }
+            }
+        }
+
+        minCols[index] = minCol;
+        maxCols[index] = maxCol;
+        minRows[index] = minRow;
+        maxRows[index] = maxRow;
+    }
+
+    // Returns the indices of the platforms in a list that move, given how many do
+    private static int[] findMoving(ArrayList<PlatformBody> platforms, int movingCount)
+    {
+        int[] moving = new int[movingCount];
+        movingCount = 0;
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            if(platforms.get(i).isMoving())
+            {
+                moving[movingCount++] = i;
+            }
+        }
+        return moving;
+    }
+
+    // Returns the column holding a given x-coordinate, clamped to the grid.
+    // Anything past the edge of the grid is kept in the edge cells.
+    private int toCol(int x)
+    {
+        return Math.max(0, Math.min(cols - 1, Math.floorDiv(x - originX, cellSize)));
+    }
+
+    // Returns the row holding a given y-coordinate, clamped to the grid
+    private int toRow(int y)
+    {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y - originY, cellSize)));
+    }
+
+    // Lists a platform in a cell, growing the cell's array if it's full
+    private void addToCell(int cell, int index)
+    {
+        if(cells[cell] == null)
+        {
+            cells[cell] = new int[4];
+        }
+        else if(cellCounts[cell] == cells[cell].length)
+        {
+            cells[cell] = Arrays.copyOf(cells[cell], cellCounts[cell]*2);
+        }
+        cells[cell][cellCounts[cell]++] = index;
+    }
+
+    // Takes a platform out of a cell. Order within a cell doesn't matter since
+    // queries sort what they find, so the last entry fills the gap.
+    private void removeFromCell(int cell, int index)
+    {
+        for(int k = 0; k < cellCounts[cell]; k++)
+        {
+            if(cells[cell][k] == index)
+            {
+                cellCounts[cell]--;
+                cells[cell][k] = cells[cell][cellCounts[cell]];
+                return;
+            }
+        }
+    }
+}
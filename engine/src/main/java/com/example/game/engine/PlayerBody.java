@@ -0,0 +1,556 @@
+package com.example.game.engine;
+
+import java.util.ArrayList;
+
+public class PlayerBody
+{
+    // Different states indicating what the player is doing and what they can do
+    // in those states.
+    // === WILL CONTROL WHAT ANIMATIONS THE PLAYER IS GOING THROUGH ===
+    public enum PlayerState
+    {
+        IDLE,
+        WALKING,
+        FALLING,
+        JUMPING
+    }
+
+    // World the player is in, for interacting with its entities
+    private World world;
+
+    // Boolean to show if Player has finished level yet.
+    private boolean levelComplete = false;
+
+    // State the player is in, controls what they can do and what they are doing
+    private PlayerState currentState;
+
+    // Toggle variables for player movement
+    private boolean jumping = false;
+
+    // Location coordinates and speeds in horizontal & vertical
+    // directions. Speeds are fixed-point (see Fixed).
+    private int xPos, yPos;
+    private int xSpeed, ySpeed;
+    private static final int jumpSpeed = Fixed.fromInt(40);
+
+    // Location coordinates at the start of the current tick, used to smoothly
+    // draw the player between ticks
+    private int prevXPos, prevYPos;
+
+    // Gravitational acceleration on the player, fixed-point
+    private int gravAccel;
+
+    // Power-up effect the player currently has and its duration before ending
+    private int powTimer;
+    private PowerUpBody currentPower;
+
+    // Width and height of the player character
+    private int width, height;
+
+    // Whether the player is standing on a platform, taken from the last tick's
+    // vertical contact
+    private boolean grounded;
+
+    // y-position before the last vertical move, where the vertical sweep starts
+    private int moveStartY;
+
+    // Vertical and horizontal contacts from the last tick's collision sweeps
+    private final Contact yContact;
+    private final Contact xContact;
+
+    // Boolean variable to indicate whether the player is right-side up or
+    // upside down
+    private boolean flip;
+
+    // Collision box of the player, updated in place so collision checks don't allocate
+    private final Aabb bounds;
+
+    // Sprite number showing which costume the player is drawn with
+    // 0 = normal, 1 = speed, 2 = jump, 3 = shield
+    private int spriteNum;
+
+    // Main Player constructor. The player is sized from its sprite and placed
+    // standing on the given location, under a given fixed-point gravitational
+    // acceleration.
+    public PlayerBody(World world, int xPos, int yPos, int gravAccel)
+    {
+        this.world = world;
+
+        // Sizes the player character to a quarter of its sprite
+        width = world.getMetrics().getWidth(SpriteType.PLAYER);
+        height = world.getMetrics().getHeight(SpriteType.PLAYER);
+        width /= 4;
+        height /= 4;
+
+        // Sets player character's start location, speeds, and states.
+        // yPos is adjusted to account for player's height.
+        this.xPos = xPos;
+        this.yPos = yPos - height;
+        prevXPos = this.xPos;
+        prevYPos = this.yPos;
+        this.xSpeed = 0;
+        this.ySpeed = 0;
+        moveStartY = this.yPos;
+        currentState = PlayerState.IDLE;
+        grounded = false;
+        yContact = new Contact();
+        xContact = new Contact();
+
+        // Sets the gravitational acceleration on the player
+        this.gravAccel = gravAccel;
+
+        // Starts the player with no power-up, sets sprite to default
+        spriteNum = 0;
+        powTimer = 0;
+        currentPower = null;
+
+        // Sets the player to being right-side up on creation
+        flip = false;
+
+        bounds = new Aabb(this.xPos, this.yPos, this.xPos + width, this.yPos + height);
+    }
+
+    // ===== GETTER METHODS =====
+
+    // Returns the boolean of if the player is completed or not.
+    public boolean getComplete()
+    {
+        return levelComplete;
+    }
+
+    // Returns width of player character
+    public int getWidth()
+    {
+        return width;
+    }
+
+    // Returns height of player character
+    public int getHeight()
+    {
+        return height;
+    }
+
+    // Returns x-position of player character
+    public int getXPos()
+    {
+        return xPos;
+    }
+
+    // Returns y-position of player character
+    public int getYPos()
+    {
+        return yPos;
+    }
+
+    // Returns x-position of player character at the start of the current tick
+    public int getPrevXPos()
+    {
+        return prevXPos;
+    }
+
+    // Returns y-position of player character at the start of the current tick
+    public int getPrevYPos()
+    {
+        return prevYPos;
+    }
+
+    // Returns x-speed of player character, fixed-point
+    public int getXSpeed()
+    {
+        return xSpeed;
+    }
+
+    // Returns y-speed of player character, fixed-point
+    public int getYSpeed()
+    {
+        return ySpeed;
+    }
+
+    // Returns gravitational acceleration on the player character, fixed-point
+    public int getGravAccel()
+    {
+        return gravAccel;
+    }
+
+    // Returns the current power-up the player has (if they do have it)
+    public PowerUpBody getCurrentPower()
+    {
+        return currentPower;
+    }
+
+    // Returns orientation boolean of the player
+    public boolean isFlipped()
+    {
+        return flip;
+    }
+
+    // Returns sprite number of the costume the player is shown in
+    public int getSpriteNum()
+    {
+        return spriteNum;
+    }
+
+    // Returns state of the player
+    public PlayerState getPlayerState()
+    {
+        return currentState;
+    }
+
+    // ===== SETTER METHODS =====
+
+    // Sets x-location of player
+    public void setXPos(int x)
+    {
+        xPos = x;
+    }
+
+    // Sets y-location of player. The jump to the new location isn't swept
+    // against platforms.
+    public void setYPos(int y)
+    {
+        yPos = y;
+        moveStartY = y;
+    }
+
+    // Sets "jumping" condition of player
+    public void setJumping(boolean j)
+    {
+        jumping = j;
+    }
+
+    // Sets x-speed of player, fixed-point
+    public void setXSpeed(int s)
+    {
+        xSpeed = s;
+    }
+
+    // Sets y-speed of player, fixed-point
+    public void setYSpeed(int s)
+    {
+        ySpeed = s;
+    }
+
+    // Sets gravitational acceleration of the player, fixed-point
+    public void setGravAccel(int g)
+    {
+        gravAccel = g;
+    }
+
+    // Sets state of player
+    public void setPlayerState(PlayerState s)
+    {
+        currentState = s;
+    }
+
+    // Sets power-up timer of the player
+    public void setPowTimer(int t)
+    {
+        powTimer = t;
+    }
+
+    // Sets orientation of the player
+    public void setFlipped(boolean f)
+    {
+        flip = f;
+    }
+
+    // ===== OTHER METHODS =====
+
+    // Changes x-speed of player by a fixed-point amount
+    public void changeXSpeed(int s)
+    {
+        xSpeed += s;
+    }
+
+    // Changes y-speed of player by a fixed-point amount
+    public void changeYSpeed(int s)
+    {
+        ySpeed += s;
+    }
+
+    // Saves the current location as the start of the tick for drawing
+    // between ticks
+    public void savePreviousPosition()
+    {
+        prevXPos = xPos;
+        prevYPos = yPos;
+    }
+
+    // Moves player vertically based on gravity
+    public void moveVertical()
+    {
+        // Controls falling movement of player from gravity. Where the move started
+        // is kept so touchPlatforms can sweep it against the platforms.
+        moveStartY = yPos;
+        ySpeed += gravAccel;
+        yPos += Fixed.toInt(ySpeed);
+    }
+
+    // Moves player horizontally, stopping them against walls. Returns the contact
+    // with the wall they ran into, if any.
+    public Contact moveHorizontal(PlatformGrid platforms)
+    {
+        // Sweeps the player's move against the walls near its path
+        int dx = Fixed.toInt(xSpeed);
+        ArrayList<PlatformBody> nearby = platforms.query(Math.min(xPos, xPos + dx), yPos, Math.max(xPos, xPos + dx) + width, yPos + height);
+        xPos += Sweep.sweepX(xPos, yPos, xPos + width, yPos + height, dx, nearby, xContact);
+        return xContact;
+    }
+
+    // Indicates if player jumps, controls whether they can
+    public void jump()
+    {
+        // If player hasn't already made a jump action and is standing on a
+        // platform, move them upwards and mark them as off the ground
+        if(!jumping && grounded)
+        {
+            // Downwards gravity
+            if(gravAccel >= 0)
+            {
+                // Jump upwards at normal speed if player doesn't have jump power, jump
+                // 1.5x as high if they do
+                if(currentPower != null && currentPower.getType().equals("JUMP"))
+                {
+                    ySpeed = -jumpSpeed*3/2;
+                }
+                else
+                {
+                    ySpeed = -jumpSpeed;
+                }
+            }
+            else
+            {
+                // Jump downwards at normal speed if player doesn't have jump power, jump
+                // 1.5x as high if they do
+                if(currentPower != null && currentPower.getType().equals("JUMP"))
+                {
+                    ySpeed = jumpSpeed*3/2;
+                }
+                else
+                {
+                    ySpeed = jumpSpeed;
+                }
+            }
+
+            grounded = false;
+            currentState = PlayerState.JUMPING;
+
+            // Keeps player from doing multiple jumps while holding down
+            // the jump action
+            jumping = true;
+        }
+    }
+
+    // Returns collision shape of the player for determining when the player
+    // touches other entities
+    public Aabb getCollisionShape()
+    {
+        bounds.set(xPos, yPos, xPos + width, yPos + height);
+        return bounds;
+    }
+
+    // Handles player collision with floors and ceilings. The vertical move made by
+    // moveVertical is swept against the platforms, stopping the player at the
+    // first surface it crosses. Returns the contact with that surface, which
+    // decides whether the player is standing on the ground.
+    public Contact touchPlatforms(PlatformGrid platforms)
+    {
+        // Only the platforms near the player's path can be touched
+        int dy = yPos - moveStartY;
+        ArrayList<PlatformBody> nearby = platforms.query(xPos, Math.min(moveStartY, yPos), xPos + width, Math.max(moveStartY, yPos) + height);
+
+        // Pushes the player out of any platform they started the move inside of,
+        // like a moving platform that moved into them
+        moveStartY += Sweep.pushOutY(xPos, moveStartY, xPos + width, moveStartY + height, gravAccel, nearby, yContact);
+
+        // Sweeps the rest of the move if the player wasn't embedded
+        if(!yContact.isHit())
+        {
+            dy = Sweep.sweepY(xPos, moveStartY, xPos + width, moveStartY + height, dy, nearby, yContact);
+        }
+        else
+        {
+            dy = 0;
+        }
+        yPos = moveStartY + dy;
+
+        // Stops the player on a floor or ceiling, and lands them if it's the ground
+        if(yContact.isHit())
+        {
+            ySpeed = 0;
+        }
+        grounded = yContact.isGround(gravAccel);
+        if(grounded)
+        {
+            currentState = PlayerState.IDLE;
+        }
+        return yContact;
+    }
+
+    // Handles player collision with gravity pads
+    public void touchGravityPads(ArrayList<GravityPadBody> gravPads)
+    {
+        for(int i = 0; i < gravPads.size(); i++)
+        {
+            GravityPadBody g = gravPads.get(i);
+
+            // If the gravity pad is on and the player touches it, reverse the direction of gravity
+            // and set the cooldown timer for the gravity pad
+            if(g.canUse())
+            {
+                if(getCollisionShape().intersects(g.getCollisionShape()))
+                {
+                    gravAccel = -gravAccel;
+                    g.setCooldown(50);
+
+                    // Flips the player to match the direction of gravity
+                    flip = !flip;
+                }
+            }
+        }
+    }
+
+    // Handles player collision with goalpost.
+    public void touchGoal(GoalBody gPost)
+    {
+        // If player touches the goalpost, set levelComplete to true.
+        if(getCollisionShape().intersects(gPost.getCollisionShape()))
+        {
+            levelComplete = true;
+        }
+    }
+
+    // Handles player collision with time machines. Returns true if the player
+    // is touching any of them.
+    public boolean touchTimeMachines(ArrayList<TimeMachineBody> machines)
+    {
+        // Flag for whether the player has touched a time machine
+        boolean touchingMachine = false;
+
+        // If the player touches any time machine, set the flag to True
+        for(int i = 0; i < machines.size(); i++)
+        {
+            if(getCollisionShape().intersects(machines.get(i).getCollisionShape()))
+            {
+                touchingMachine = true;
+            }
+        }
+
+        return touchingMachine;
+    }
+
+    // Handles player collision with power-ups and how long the player keeps the power
+    public void touchPowerUps(ArrayList<PowerUpBody> powerups)
+    {
+        for(int i = 0; i < powerups.size(); i++)
+        {
+            PowerUpBody p = powerups.get(i);
+
+            // If player touches a power-up, it's interactable, and the player doesn't already
+            // have a power, switch sprites to match that power and gain its effect
+            if(getCollisionShape().intersects(p.getCollisionShape()) && p.isActive() && currentPower == null)
+            {
+                // Sets sprite to speed power sprite
+                if(p.getType().equals("SPEED"))
+                {
+                    spriteNum = 1;
+                }
+                // Sets sprite to jump power sprite
+                else if(p.getType().equals("JUMP"))
+                {
+                    spriteNum = 2;
+                }
+                // Sets sprite to shield power sprite
+                else if(p.getType().equals("SHIELD"))
+                {
+                    spriteNum = 3;
+                }
+
+                // Links player to the power-up to determine when it can reappear later and
+                // what effect the player has
+                currentPower = p;
+
+                // Sets the power timer for how long the player keeps the power-up
+                powTimer = currentPower.getDuration();
+
+                // Hides the power-up to avoid multiple collisions
+                p.setActive(false);
+            }
+        }
+
+        // Decrements the power timer if it's greater than zero and the player currently has
+        // a power
+        if(currentPower != null)
+        {
+            if(powTimer > 0)
+            {
+                powTimer--;
+
+                // If power timer is about to end, make the player sprite flicker
+                if(powTimer <= 50)
+                {
+                    flicker(currentPower);
+                }
+            }
+            // If the power timer runs out, make the power-up reappear where it was, remove the
+            // power from the player, and revert them back to their original sprite
+            else if(powTimer == 0)
+            {
+                currentPower.setActive(true);
+                currentPower = null;
+                spriteNum = 0;
+            }
+        }
+    }
+
+    // Makes the player "flicker" between sprites to indicate when a power-up is about
+    // to run out
+    public void flicker(PowerUpBody pow)
+    {
+        // Player shows the powered costume when the power timer is in the ranges 1-10, 21-30,
+        // and 41-50
+        if((powTimer > 0 && powTimer <= 10) || (powTimer > 20 && powTimer <= 30) || (powTimer > 40 && powTimer <= 50))
+        {
+            if(pow.getType().equals("SPEED"))
+            {
+                spriteNum = 1;
+            }
+            else if(pow.getType().equals("JUMP"))
+            {
+                spriteNum = 2;
+            }
+            else if(pow.getType().equals("SHIELD"))
+            {
+                spriteNum = 3;
+            }
+        }
+        // Player shows normal costume when the power timer is in the ranges 11-20 and 31-40
+        else
+        {
+            spriteNum = 0;
+        }
+    }
+
+    // Handles player collision with enemies
+    // ===== NEEDS TO IMPLEMENT SHIELD ABILITY FOR REMOVING ENEMIES =====
+    public void touchEnemies(ArrayList<EnemyBody> enemies)
+    {
+        for(int i = 0; i < enemies.size(); i++)
+        {
+            if(getCollisionShape().intersects(enemies.get(i).getCollisionShape()) && enemies.get(i).isAlive())
+            {
+                // If the player touches an enemy and they don't have the shield power-up,
+                // send them back to the start of the level
+                if(currentPower == null || (currentPower != null && !currentPower.getType().equals("SHIELD")))
+                {
+                    world.resetPlayer();
+                }
+                // Kill the enemy if player does have shield power-up when they touch the enemy
+                else
+                {
+                    enemies.get(i).killEnemy(this);
+                }
+            }
+        }
+    }
+}
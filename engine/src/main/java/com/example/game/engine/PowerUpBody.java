@@ -0,0 +1,134 @@
+package com.example.game.engine;
+
+public class PowerUpBody
+{
+    // x-y position of the power-up
+    private int x, y;
+
+    // Dimensions of the power-up
+    private int width, height;
+
+    // Type of power-up (speed, jump, shield)
+    private String type;
+
+    // Duration of the power-up
+    private int duration;
+
+    // Variable for determining when the power-up is shown and if it can be touched
+    private boolean active;
+
+    // Collision box of the power-up, kept in place so collision checks don't allocate
+    private final Aabb bounds;
+
+    public PowerUpBody(World world, int x, int y, String type)
+    {
+        // Initializes the x-y coordinate location of the power-up
+        this.x = x;
+        this.y = y;
+
+        // Sets the type of power-up to be created
+        this.type = type;
+
+        // Makes the power-up visible and interactable on creation
+        active = true;
+
+        // Creates the power-up based on the type given
+        createPowerUp(world, type);
+        bounds = new Aabb(this.x, this.y, this.x + width, this.y + height);
+    }
+
+    // === GETTERS ===
+
+    // Returns x-coordinate of the power-up
+    public int getX()
+    {
+        return x;
+    }
+
+    // Returns y-coordinate of the power-up
+    public int getY()
+    {
+        return y;
+    }
+
+    // Returns the width of the power-up
+    public int getWidth()
+    {
+        return width;
+    }
+
+    // Returns the height of the power-up
+    public int getHeight()
+    {
+        return height;
+    }
+
+    // Returns the type of the power-up
+    public String getType()
+    {
+        return type;
+    }
+
+    // Returns a boolean indicating whether the power-up can be touched
+    public boolean isActive()
+    {
+        return active;
+    }
+
+    // Returns the initial duration of the power-up
+    public int getDuration()
+    {
+        return duration;
+    }
+
+    // === SETTERS ===
+
+    // Sets the "active" state of the power-up to determine if it can be
+    // touched or not.
+    public void setActive(boolean act)
+    {
+        active = act;
+    }
+
+    // === OTHER METHODS ===
+
+    // Returns the sprite a given type of power-up is drawn with, or null if
+    // the type isn't recognized
+    public static SpriteType getSpriteType(String pType)
+    {
+        if(pType.equals("SPEED"))
+        {
+            return SpriteType.SPEED_POWER;
+        }
+        else if(pType.equals("JUMP"))
+        {
+            return SpriteType.JUMP_POWER;
+        }
+        else if(pType.equals("SHIELD"))
+        {
+            return SpriteType.SHIELD_POWER;
+        }
+        return null;
+    }
+
+    // Method for creating the power-up based on the input String given
+    private void createPowerUp(World world, String pType)
+    {
+        // Speed, jump, and shield power-ups all last 300 ticks
+        SpriteType sprite = getSpriteType(pType);
+        if(sprite != null)
+        {
+            duration = 300;
+
+            // Sizes the power-up to a seventh of its sprite
+            width = world.getMetrics().getWidth(sprite)/7;
+            height = world.getMetrics().getHeight(sprite)/7;
+        }
+    }
+
+    // Method to get the collision rectangle for detecting contact with the power-up
+    public Aabb getCollisionShape()
+    {
+        return bounds;
+    }
+}
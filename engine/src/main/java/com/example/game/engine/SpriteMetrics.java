@@ -0,0 +1,14 @@
+package com.example.game.engine;
+
+// Supplies the pixel dimensions of the images entities are drawn with, so the
+// engine can size collision boxes the same way the drawn images are sized.
+// On Android these come from the decoded drawables; on a plain JVM they can
+// be fixed values.
+public interface SpriteMetrics
+{
+    // Returns the width of a given image, in pixels
+    int getWidth(SpriteType type);
+
+    // Returns the height of a given image, in pixels
+    int getHeight(SpriteType type);
+}
@@ -0,0 +1,16 @@
+package com.example.game.engine;
+
+// Images whose dimensions decide the size of an entity's collision box.
+// The engine never loads images itself; it asks a SpriteMetrics for their size.
+public enum SpriteType
+{
+    PLAYER,
+    ENEMY,
+    GRAVITY_PAD,
+    GOAL,
+    TIME_MACHINE,
+    SPEED_POWER,
+    JUMP_POWER,
+    SHIELD_POWER,
+    WOOD_TILES
+}
@@ -0,0 +1,115 @@
+package com.example.game.engine;
+
+import java.util.ArrayList;
+
+// Swept-AABB collision against platforms. A box is moved one axis at a time and
+// stopped exactly at the first platform edge it would cross, so resolution
+// takes one pass over the platforms no matter how fast the box is moving, and
+// fast boxes can't skip through thin platforms.
+public class Sweep
+{
+    // Returns how far a box can move vertically by dy before touching a platform,
+    // recording the first platform touched in contact. Platforms the box already
+    // overlaps are skipped (see pushOutY).
+    public static int sweepY(int left, int top, int right, int bottom, int dy, ArrayList<PlatformBody> platforms, Contact contact)
+    {
+        contact.clear();
+        int allowed = dy;
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            Aabb p = platforms.get(i).getCollisionShape();
+
+            // Only platforms lined up with the box horizontally can be hit
+            if(left >= p.getRight() || p.getLeft() >= right)
+            {
+                continue;
+            }
+
+            // Moving down onto the top of a platform
+            if(dy > 0 && bottom <= p.getTop() && bottom + allowed > p.getTop())
+            {
+                allowed = p.getTop() - bottom;
+                contact.set(allowed / (float)dy, 0, -1, platforms.get(i));
+            }
+            // Moving up into the bottom of a platform
+            else if(dy < 0 && top >= p.getBottom() && top + allowed < p.getBottom())
+            {
+                allowed = p.getBottom() - top;
+                contact.set(allowed / (float)dy, 0, 1, platforms.get(i));
+            }
+        }
+        return allowed;
+    }
+
+    // Returns how far a box can move horizontally by dx before touching a platform,
+    // recording the first platform touched in contact. Platforms the box already
+    // overlaps are skipped.
+    public static int sweepX(int left, int top, int right, int bottom, int dx, ArrayList<PlatformBody> platforms, Contact contact)
+    {
+        contact.clear();
+        int allowed = dx;
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            Aabb p = platforms.get(i).getCollisionShape();
+
+            // Only platforms lined up with the box vertically can be hit
+            if(top >= p.getBottom() || p.getTop() >= bottom)
+            {
+                continue;
+            }
+
+            // Moving right into the left side of a platform
+            if(dx > 0 && right <= p.getLeft() && right + allowed > p.getLeft())
+            {
+                allowed = p.getLeft() - right;
+                contact.set(allowed / (float)dx, -1, 0, platforms.get(i));
+            }
+            // Moving left into the right side of a platform
+            else if(dx < 0 && left >= p.getRight() && left + allowed < p.getRight())
+            {
+                allowed = p.getRight() - left;
+                contact.set(allowed / (float)dx, 1, 0, platforms.get(i));
+            }
+        }
+        return allowed;
+    }
+
+    // Returns how far a box has to move vertically to get out of the platforms it
+    // overlaps, such as after a platform moves into it. The box is pushed against
+    // gravity onto each platform in turn, and contact records the last one.
+    // Pushing the box off one platform can push it into another that was
+    // already checked, so the platforms are checked again until a pass moves
+    // nothing. Every push goes the same way and clears a platform for good, so
+    // this takes at most one pass per platform.
+    public static int pushOutY(int left, int top, int right, int bottom, int gravAccel, ArrayList<PlatformBody> platforms, Contact contact)
+    {
+        contact.clear();
+        int offset = 0;
+        boolean pushed = true;
+        while(pushed)
+        {
+            pushed = false;
+            for(int i = 0; i < platforms.size(); i++)
+            {
+                Aabb p = platforms.get(i).getCollisionShape();
+                if(p.intersects(left, top + offset, right, bottom + offset))
+                {
+                    // Downwards gravity stands the box on top of the platform
+                    if(gravAccel >= 0)
+                    {
+                        offset = p.getTop() - bottom;
+                        contact.set(0, 0, -1, platforms.get(i));
+                    }
+                    // Upwards gravity stands the box on the bottom of the platform
+                    else
+                    {
+                        offset = p.getBottom() - top;
+                        contact.set(0, 0, 1, platforms.get(i));
+                    }
+                    pushed = true;
+                }
+            }
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.game.engine;
+
+// Looks of a platform. WOOD platforms are cut from a PNG; the rest are drawn as
+// solid colors. PLAIN covers any tile type name the game doesn't recognize.
+public enum TileType
+{
+    WOOD,
+    DIRT,
+    STONE,
+    METAL,
+    DARK_METAL,
+    GRASS,
+    PLAIN;
+
+    // Returns the tile type with a given name, as used in level layouts, or PLAIN
+    // if there isn't one
+    public static TileType fromName(String name)
+    {
+        for(TileType t : values())
+        {
+            if(t.name().equals(name))
+            {
+                return t;
+            }
+        }
+        return PLAIN;
+    }
+}
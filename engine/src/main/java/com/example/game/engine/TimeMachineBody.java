@@ -0,0 +1,79 @@
+package com.example.game.engine;
+
+public class TimeMachineBody
+{
+    // x-y location of the time machine
+    private int x, y;
+
+    // Width and height of the time machine
+    private int width, height;
+
+    // Orientation of the time machine, True = upside down
+    private boolean flip;
+
+    // Collision box of the time machine, kept in place so collision checks don't allocate
+    private final Aabb bounds;
+
+    // Constructor for the time machine
+    public TimeMachineBody(World world, int x, int y, boolean flip)
+    {
+        this.flip = flip;
+
+        // Sizes the time machine to half its sprite
+        width = world.getMetrics().getWidth(SpriteType.TIME_MACHINE)/2;
+        height = world.getMetrics().getHeight(SpriteType.TIME_MACHINE)/2;
+
+        // Initializes x-y location of the time machine, adjusted for its
+        // height and orientation. x-position is centered.
+        this.x = (int)(x-width/2f);
+        if(flip)
+        {
+            this.y = y;
+        }
+        else
+        {
+            this.y = y-height;
+        }
+        bounds = new Aabb(this.x, this.y, this.x + width, this.y + height);
+    }
+
+    // === GETTERS ===
+
+    // Returns x-coordinate of the time machine
+    public int getX()
+    {
+        return x;
+    }
+
+    // Returns y-coordinate of the time machine
+    public int getY()
+    {
+        return y;
+    }
+
+    // Returns width of the time machine
+    public int getWidth()
+    {
+        return width;
+    }
+
+    // Returns height of the time machine
+    public int getHeight()
+    {
+        return height;
+    }
+
+    // Returns orientation boolean of the time machine
+    public boolean isFlipped()
+    {
+        return flip;
+    }
+
+    // === OTHER METHODS ===
+
+    // Returns collision shape of the time machine for determining when the player touches it
+    public Aabb getCollisionShape()
+    {
+        return bounds;
+    }
+}
@@ -0,0 +1,453 @@
+package com.example.game.engine;
+
+import java.util.ArrayList;
+
+public class World
+{
+    // Width and height of the area entities are kept inside, in design-space
+    // units (PlatformBody.MAX_WIDTH by MAX_HEIGHT for a level)
+    private final int width, height;
+
+    // Source of image sizes used to size entity collision boxes
+    private final SpriteMetrics metrics;
+
+    // Gravitational acceleration of the level, fixed-point (see Fixed)
+    private int gravityAccel;
+
+    // Starting x and y coordinates of player in level
+    private int startX;
+    private int startY;
+
+    // Background the level is shown on (DAY, NIGHT, SPACE, FACILITY)
+    private String backgroundType;
+
+    // Platforms for "present" and "future" time periods
+    private final ArrayList<PlatformBody> platformsPresent;
+    private final ArrayList<PlatformBody> platformsFuture;
+
+    // Broadphase grids over the platforms of each time period, built once the
+    // level's platforms are all added
+    private PlatformGrid platformGridPresent;
+    private PlatformGrid platformGridFuture;
+
+    // Gravity pads, time machines, enemies, and power-ups of the level
+    private final ArrayList<GravityPadBody> gravPads;
+    private final ArrayList<TimeMachineBody> timeMachines;
+    private final ArrayList<EnemyBody> enemies;
+    private final ArrayList<PowerUpBody> powerUps;
+
+    // Goal post of the level
+    private GoalBody goalPost;
+
+    // Player character
+    private PlayerBody player;
+
+    // Boolean to indicate if the time period is in the present or future
+    // True = present, False = future
+    private boolean presentTime;
+
+    // Whether the player touched a time machine during the last tick
+    private boolean touchingMachine;
+
+    // Constructor for an empty world of a given size. The world never depends on
+    // the device's screen, so it steps the same on every device.
+    public World(int width, int height, SpriteMetrics metrics)
+    {
+        this.width = width;
+        this.height = height;
+        this.metrics = metrics;
+
+        platformsPresent = new ArrayList<>();
+        platformsFuture = new ArrayList<>();
+        gravPads = new ArrayList<>();
+        timeMachines = new ArrayList<>();
+        enemies = new ArrayList<>();
+        powerUps = new ArrayList<>();
+
+        // Sets the time period to present
+        presentTime = true;
+    }
+
+    // === GETTERS ===
+
+    // Returns width of the world
+    public int getWidth()
+    {
+        return width;
+    }
+
+    // Returns height of the world
+    public int getHeight()
+    {
+        return height;
+    }
+
+    // Returns source of image sizes for the world's entities
+    public SpriteMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    // Returns gravitational acceleration of level, fixed-point
+    public int getGravityAccel()
+    {
+        return gravityAccel;
+    }
+
+    // Returns player's starting x-coordinate in the level
+    public int getStartX()
+    {
+        return startX;
+    }
+
+    // Returns player's starting y-coordinate in the level
+    public int getStartY()
+    {
+        return startY;
+    }
+
+    // Returns the background type of the level
+    public String getBackgroundType()
+    {
+        return backgroundType;
+    }
+
+    // Returns level's platforms for "present" time period
+    public ArrayList<PlatformBody> getPlatformsPresent()
+    {
+        return platformsPresent;
+    }
+
+    // Returns level's platforms for "future" time period
+    public ArrayList<PlatformBody> getPlatformsFuture()
+    {
+        return platformsFuture;
+    }
+
+    // Returns the broadphase grid over the "present" platforms
+    public PlatformGrid getPlatformGridPresent()
+    {
+        return platformGridPresent;
+    }
+
+    // Returns the broadphase grid over the "future" platforms
+    public PlatformGrid getPlatformGridFuture()
+    {
+        return platformGridFuture;
+    }
+
+    // Returns level's gravity pads
+    public ArrayList<GravityPadBody> getGravPads()
+    {
+        return gravPads;
+    }
+
+    // Returns the level's list of time machines
+    public ArrayList<TimeMachineBody> getTimeMachines()
+    {
+        return timeMachines;
+    }
+
+    // Returns level's enemies
+    public ArrayList<EnemyBody> getEnemies()
+    {
+        return enemies;
+    }
+
+    // Returns the level's list of power ups
+    public ArrayList<PowerUpBody> getPowerUps()
+    {
+        return powerUps;
+    }
+
+    // Returns level's goalpost.
+    public GoalBody getGoalPost()
+    {
+        return goalPost;
+    }
+
+    // Returns the player character
+    public PlayerBody getPlayer()
+    {
+        return player;
+    }
+
+    // Returns a boolean indicating the time period of the level
+    // True = present, False = future
+    public boolean isPresentTime()
+    {
+        return presentTime;
+    }
+
+    // Returns whether the player touched a time machine during the last tick
+    public boolean isTouchingMachine()
+    {
+        return touchingMachine;
+    }
+
+    // === SETTERS ===
+
+    // Sets gravitational acceleration of level, fixed-point
+    public void setGravityAccel(int g)
+    {
+        gravityAccel = g;
+    }
+
+    // Sets player's starting location in the level
+    public void setStart(int x, int y)
+    {
+        startX = x;
+        startY = y;
+    }
+
+    // Sets the background type of the level
+    public void setBackgroundType(String b)
+    {
+        backgroundType = b;
+    }
+
+    // Sets the goalpost of the level
+    public void setGoalPost(GoalBody g)
+    {
+        goalPost = g;
+    }
+
+    // Sets the player character
+    public void setPlayer(PlayerBody p)
+    {
+        player = p;
+    }
+
+    // Sets time period of the level
+    public void setPresentTime(boolean p)
+    {
+        presentTime = p;
+    }
+
+    // === OTHER METHODS ===
+
+    // Builds the broadphase grids over each time period's platforms. Called once
+    // all of the level's platforms have been added.
+    public void buildPlatformGrids()
+    {
+        platformGridPresent = new PlatformGrid(platformsPresent, width, height);
+        platformGridFuture = new PlatformGrid(platformsFuture, width, height);
+    }
+
+    // Sets the broadphase grids from grids baked with the level (see
+    // PlatformGrid.bake), instead of building them. Called once all of the
+    // level's platforms have been added.
+    public void usePlatformGrids(int[] bakedPresent, int[] bakedFuture)
+    {
+        platformGridPresent = new PlatformGrid(platformsPresent, bakedPresent);
+        platformGridFuture = new PlatformGrid(platformsFuture, bakedFuture);
+    }
+
+    // Moves the moving platforms of the current time period one tick along
+    // their paths. Run at the end of each step.
+    public void movePlatforms()
+    {
+        if(presentTime)
+        {
+            platformGridPresent.movePlatforms();
+        }
+        else
+        {
+            platformGridFuture.movePlatforms();
+        }
+    }
+
+    // Advances the physics of the level by one tick
+    public void step()
+    {
+        // Remembers where the player and enemies start this tick so they can be
+        // drawn between their previous and current positions
+        player.savePreviousPosition();
+        for(int i = 0; i < enemies.size(); i++)
+        {
+            enemies.get(i).savePreviousPosition();
+        }
+
+        // Moves the player and enemies vertically based on their gravitational accelerations
+        player.moveVertical();
+        for(int i = 0; i < enemies.size(); i++)
+        {
+            enemies.get(i).moveVertical();
+        }
+
+        // Controls physics of player and enemies hitting floors, ceilings, and gravity pads
+        if(presentTime)
+        {
+            player.touchPlatforms(platformGridPresent);
+            for(int i = 0; i < enemies.size(); i++)
+            {
+                enemies.get(i).touchPlatforms(platformGridPresent);
+            }
+        }
+        else
+        {
+            player.touchPlatforms(platformGridFuture);
+            for(int i = 0; i < enemies.size(); i++)
+            {
+                enemies.get(i).touchPlatforms(platformGridFuture);
+            }
+        }
+        player.touchGravityPads(gravPads);
+        for(int i = 0; i < enemies.size(); i++)
+        {
+            enemies.get(i).touchGravityPads(gravPads);
+        }
+
+        // Handles collision events for when the player touches goals, time machines,
+        // power-ups, and enemies
+        player.touchGoal(goalPost);
+        touchingMachine = player.touchTimeMachines(timeMachines);
+        player.touchPowerUps(powerUps);
+        player.touchEnemies(enemies);
+
+        // Controls horizontal movement of player, including wall collision
+        if(presentTime)
+        {
+            // Player moves while collidiing with walls and platforms of present time
+            player.moveHorizontal(platformGridPresent);
+
+            // Makes enemies attack if they're within a given proximity to the player
+            for(int i = 0; i < enemies.size(); i++)
+            {
+                enemies.get(i).moveHorizontal(platformGridPresent);
+            }
+        }
+        else
+        {
+            // Player moves while colliding with walls and platforms of future time
+            player.moveHorizontal(platformGridFuture);
+
+            // Makes enemies attack if they're within a given proximity to the player
+            for(int i = 0; i < enemies.size(); i++)
+            {
+                enemies.get(i).moveHorizontal(platformGridPresent);
+            }
+        }
+
+        // Keeps player and enemies from going off-screen horizontally
+        if(player.getXPos() < 0)
+        {
+            player.setXPos(0);
+        }
+        if(player.getXPos() + player.getWidth() > width)
+        {
+            player.setXPos(width - player.getWidth());
+        }
+        for(int i = 0; i < enemies.size(); i++)
+        {
+            if(enemies.get(i).getX() < 0)
+            {
+                enemies.get(i).setX(0);
+            }
+            if(enemies.get(i).getX() + enemies.get(i).getWidth() > width)
+            {
+                enemies.get(i).setX(width - enemies.get(i).getWidth());
+            }
+        }
+
+        // Sends player back to start if they fall down to bottom of screen
+        // with downwards gravity or rise up to top of screen with upwards
+        // gravity
+        if(player.getGravAccel() >= 0)
+        {
+            if(player.getYPos() + player.getHeight() > height)
+            {
+                resetPlayer();
+            }
+        }
+        else
+        {
+            if(player.getYPos() < 1)
+            {
+                resetPlayer();
+            }
+        }
+
+        // Removes enemies from the list if they fall off-screen
+        cleanEnemyList();
+
+        // Counts down how long killed enemies stay on-screen and how long used
+        // gravity pads stay off
+        for(int i = 0; i < enemies.size(); i++)
+        {
+            enemies.get(i).fade();
+        }
+        for(int i = 0; i < gravPads.size(); i++)
+        {
+            gravPads.get(i).coolDown();
+        }
+
+        // Moves the platforms of the current time period along their paths
+        movePlatforms();
+    }
+
+    // Resets player to starting position upon dying
+    public void resetPlayer()
+    {
+        // Reset time period back to present
+        presentTime = true;
+
+        // Resets player x-y location to level's start.
+        // y-position accounts for player height
+        player.setXPos(startX);
+        player.setYPos(startY - player.getHeight());
+
+        // Sets speed to zero and current state to IDLE
+        player.setXSpeed(0);
+        player.setYSpeed(0);
+        player.setPlayerState(PlayerBody.PlayerState.IDLE);
+        player.setFlipped(false);
+
+        // Resets gravity back to original direction
+        player.setGravAccel(gravityAccel);
+
+        // Resets the player back to normal state without powers
+        player.setPowTimer(0);
+
+        // Keeps the player from being drawn sliding across the screen back to the start
+        player.savePreviousPosition();
+    }
+
+    // Removes enemies from the level's list if they go off-screen
+    public void cleanEnemyList()
+    {
+        for(int i = 0; i < enemies.size(); i++)
+        {
+            // If the enemy is dead and their existence timer is zero,
+            // remove them from the list
+            if(!enemies.get(i).isAlive() && enemies.get(i).getExistTimer() == 0)
+            {
+                enemies.remove(i).setRemoved(true);
+                i--;
+            }
+            // If the enemy is alive but off-screen, remove them
+            else
+            {
+                int enemyY = enemies.get(i).getY();
+                int enemyGrav = enemies.get(i).getGravAccel();
+
+                if(enemyGrav >= 0)
+                {
+                    if(enemyY + enemies.get(i).getHeight() > height)
+                    {
+                        enemies.remove(i).setRemoved(true);
+                        i--;
+                    }
+                }
+                else
+                {
+                    if(enemyY < 1)
+                    {
+                        enemies.remove(i).setRemoved(true);
+                        i--;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Writing levels as binary level files and reading them back, and rejecting
+// files that are damaged
+public class BinaryLevelFormatTest
+{
+    // Byte offsets of header fields
+    private static final int VERSION_OFFSET = 4;
+    private static final int HEADER_SIZE_OFFSET = 6;
+    private static final int BACKGROUND_OFFSET = 20;
+    private static final int PLATFORMS_OFFSET = 32;
+    private static final int ENEMIES_OFFSET = 44;
+    private static final int GRID_PRESENT_OFFSET = 52;
+
+    // A level with every kind of entity, and more platforms than LevelData
+    // first makes room for, reads back exactly as written
+    @Test
+    public void roundTripKeepsEveryColumn() throws IOException
+    {
+        LevelData level = createLevel(40);
+        assertSameLevel(level, BinaryLevelFormat.read(ByteBuffer.wrap(write(level))));
+    }
+
+    // An empty level reads back too
+    @Test
+    public void roundTripKeepsEmptyLevel() throws IOException
+    {
+        LevelData level = new LevelData();
+        level.setGoal(1, 2);
+        assertSameLevel(level, BinaryLevelFormat.read(ByteBuffer.wrap(write(level))));
+    }
+
+    // Every shipped level reads back exactly as written
+    @Test
+    public void roundTripKeepsShippedLevels() throws IOException
+    {
+        for(int levelNum = 1; levelNum <= WorldReplayTest.LEVEL_COUNT; levelNum++)
+        {
+            LevelData level = readShipped(levelNum);
+            assertSameLevel(level, BinaryLevelFormat.read(ByteBuffer.wrap(write(level))));
+        }
+    }
+
+    // A file is read from the buffer's position, not the start of its memory
+    @Test
+    public void readsFromBufferPosition() throws IOException
+    {
+        LevelData level = createLevel(5);
+        byte[] file = write(level);
+        ByteBuffer buffer = ByteBuffer.allocate(file.length + 12);
+        buffer.position(12);
+        buffer.put(file);
+        buffer.position(12);
+        assertSameLevel(level, BinaryLevelFormat.read(buffer));
+    }
+
+    // A file cut short anywhere, or with bytes left over, is rejected
+    @Test
+    public void rejectsTruncatedFiles() throws IOException
+    {
+        byte[] file = write(createLevel(5));
+        for(int length = 0; length < file.length; length++)
+        {
+            assertRejected(Arrays.copyOf(file, length));
+        }
+        assertRejected(Arrays.copyOf(file, file.length + 4));
+    }
+
+    // A file with the wrong magic, version, or header size is rejected
+    @Test
+    public void rejectsBadHeaders() throws IOException
+    {
+        byte[] file = write(createLevel(5));
+
+        byte[] badMagic = file.clone();
+        badMagic[0] = 'X';
+        assertRejected(badMagic);
+
+        byte[] badVersion = file.clone();
+        ByteBuffer.wrap(badVersion).order(ByteOrder.LITTLE_ENDIAN).putShort(VERSION_OFFSET, (short)(BinaryLevelFormat.VERSION + 1));
+        assertRejected(badVersion);
+
+        assertRejected(withShort(file, HEADER_SIZE_OFFSET, BinaryLevelFormat.HEADER_SIZE - 4));
+        assertRejected(withShort(file, HEADER_SIZE_OFFSET, file.length + 4));
+    }
+
+    // Counts that are negative or don't match the file's size, and indexes
+    // outside their tables, are rejected before anything is built
+    @Test
+    public void rejectsBadCounts() throws IOException
+    {
+        LevelData level = createLevel(5);
+        byte[] file = write(level);
+        assertRejected(withInt(file, PLATFORMS_OFFSET, -1));
+        assertRejected(withInt(file, PLATFORMS_OFFSET, level.platformCount + 1));
+        assertRejected(withInt(file, PLATFORMS_OFFSET, Integer.MAX_VALUE));
+        assertRejected(withInt(file, ENEMIES_OFFSET, level.enemyCount - 1));
+        assertRejected(withInt(file, BACKGROUND_OFFSET, LevelData.BACKGROUNDS.length));
+
+        // The first platform's tile type is the first int of the tile column
+        int tileColumn = BinaryLevelFormat.HEADER_SIZE + 4*4*level.platformCount;
+        assertRejected(withInt(file, tileColumn, TileType.values().length));
+        assertRejected(withInt(file, tileColumn, -1));
+
+        // The last int of the file is the last power-up's type
+        assertRejected(withInt(file, file.length - 4, LevelData.POWER_UPS.length));
+    }
+
+    // Creates a level with a given number of platforms, alternating between
+    // time periods and between moving and not, and a few of every other entity
+    static LevelData createLevel(int platformCount)
+    {
+        LevelData level = new LevelData();
+        level.setStart(10, 2180);
+        level.setGravityAccel(Fixed.fromDouble(3.5));
+        level.setBackground("SPACE");
+        level.setGoal(980, 750);
+        TileType[] tiles = TileType.values();
+        for(int i = 0; i < platformCount; i++)
+        {
+            int x = (i*137) % 900;
+            int y = 100 + (i*211) % 2000;
+            if(i % 3 == 2)
+            {
+                level.addMovingPlatform(i % 2 == 1, x, y, x + 100, y + 50, Fixed.fromInt(3), Fixed.fromDouble(1.5),
+                        100 + i, 30, tiles[i % tiles.length]);
+            }
+            else
+            {
+                level.addPlatform(i % 2 == 1, x, y, 100 + i, 30 + i % 7, tiles[i % tiles.length]);
+            }
+        }
+        level.addGravityPad(690, 2180, false);
+        level.addGravityPad(200, 100, true);
+        level.addTimeMachine(1000, 200, true);
+        level.addEnemy(600, 1500);
+        level.addEnemy(700, 1400);
+        level.addEnemy(800, 1300);
+        level.addPowerUp(700, 200, "JUMP");
+        level.addPowerUp(300, 900, "SHIELD");
+        return level;
+    }
+
+    // Reads one of the shipped level sources
+    static LevelData readShipped(int levelNum) throws IOException
+    {
+        File file = new File(WorldReplayTest.LEVELS_DIR, LevelLoader.getLevelFileName(levelNum));
+        return LevelLoader.read(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    // Returns a level written as a binary level file
+    static byte[] write(LevelData level) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryLevelFormat.write(level, out);
+        return out.toByteArray();
+    }
+
+    // Returns a copy of a file with a little-endian int replaced at a given offset
+    static byte[] withInt(byte[] file, int offset, int value)
+    {
+        byte[] copy = file.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+        return copy;
+    }
+
+    // Returns a copy of a file with a little-endian short replaced at a given offset
+    private static byte[] withShort(byte[] file, int offset, int value)
+    {
+        byte[] copy = file.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putShort(offset, (short)value);
+        return copy;
+    }
+
+    // Checks reading a file fails with an IOException rather than anything else
+    static void assertRejected(byte[] file)
+    {
+        try
+        {
+            BinaryLevelFormat.read(ByteBuffer.wrap(file));
+            fail("Read a damaged file of " + file.length + " bytes");
+        }
+        catch (IOException e)
+        {
+            assertFalse(e.getMessage().isEmpty());
+        }
+    }
+
+    // Checks two levels hold the same values in every column
+    static void assertSameLevel(LevelData expected, LevelData actual)
+    {
+        assertEquals(expected.startX, actual.startX);
+        assertEquals(expected.startY, actual.startY);
+        assertEquals(expected.gravityAccel, actual.gravityAccel);
+        assertEquals(expected.background, actual.background);
+        assertEquals(expected.goalX, actual.goalX);
+        assertEquals(expected.goalY, actual.goalY);
+        assertTrue(actual.hasGoal());
+
+        int n = expected.platformCount;
+        assertEquals(n, actual.platformCount);
+        assertColumn(expected.platformX, actual.platformX, n);
+        assertColumn(expected.platformY, actual.platformY, n);
+        assertColumn(expected.platformWidth, actual.platformWidth, n);
+        assertColumn(expected.platformHeight, actual.platformHeight, n);
+        assertColumn(expected.platformTile, actual.platformTile, n);
+        assertColumn(expected.platformFlags, actual.platformFlags, n);
+        assertColumn(expected.platformToX, actual.platformToX, n);
+        assertColumn(expected.platformToY, actual.platformToY, n);
+        assertColumn(expected.platformSpeedX, actual.platformSpeedX, n);
+        assertColumn(expected.platformSpeedY, actual.platformSpeedY, n);
+
+        assertEquals(expected.gravPadCount, actual.gravPadCount);
+        assertColumn(expected.gravPadX, actual.gravPadX, expected.gravPadCount);
+        assertColumn(expected.gravPadY, actual.gravPadY, expected.gravPadCount);
+        assertColumn(expected.gravPadFlipped, actual.gravPadFlipped, expected.gravPadCount);
+        assertEquals(expected.timeMachineCount, actual.timeMachineCount);
+        assertColumn(expected.timeMachineX, actual.timeMachineX, expected.timeMachineCount);
+        assertColumn(expected.timeMachineY, actual.timeMachineY, expected.timeMachineCount);
+        assertColumn(expected.timeMachineFlipped, actual.timeMachineFlipped, expected.timeMachineCount);
+        assertEquals(expected.enemyCount, actual.enemyCount);
+        assertColumn(expected.enemyX, actual.enemyX, expected.enemyCount);
+        assertColumn(expected.enemyY, actual.enemyY, expected.enemyCount);
+        assertEquals(expected.powerUpCount, actual.powerUpCount);
+        assertColumn(expected.powerUpX, actual.powerUpX, expected.powerUpCount);
+        assertColumn(expected.powerUpY, actual.powerUpY, expected.powerUpCount);
+        assertColumn(expected.powerUpType, actual.powerUpType, expected.powerUpCount);
+
+        assertArrayEquals(expected.gridPresent, actual.gridPresent);
+        assertArrayEquals(expected.gridFuture, actual.gridFuture);
+    }
+
+    // Checks the first values of two columns are the same
+    private static void assertColumn(int[] expected, int[] actual, int count)
+    {
+        assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(actual, count));
+    }
+}
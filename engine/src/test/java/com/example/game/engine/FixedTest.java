@@ -0,0 +1,81 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+// Fixed-point conversions and arithmetic, in particular that every result is
+// rounded toward zero the same way for negative values as for positive ones
+public class FixedTest
+{
+    // Whole numbers convert to fixed point and back unchanged
+    @Test
+    public void wholeNumbersRoundTrip()
+    {
+        int[] values = {0, 1, -1, 3, -40, 32767, -32768};
+        for(int i = 0; i < values.length; i++)
+        {
+            assertEquals(values[i], Fixed.toInt(Fixed.fromInt(values[i])));
+        }
+        assertEquals(Fixed.ONE, Fixed.fromInt(1));
+        assertEquals(0.9, Fixed.toDouble(Fixed.fromDouble(0.9)), 1.0 / Fixed.ONE);
+    }
+
+    // The whole part of a value drops its fraction toward zero, like an (int)
+    // cast, rather than rounding down
+    @Test
+    public void toIntTruncatesTowardZero()
+    {
+        assertEquals(2, Fixed.toInt(Fixed.fromDouble(2.75)));
+        assertEquals(-2, Fixed.toInt(Fixed.fromDouble(-2.75)));
+        assertEquals(0, Fixed.toInt(Fixed.fromDouble(0.5)));
+        assertEquals(0, Fixed.toInt(Fixed.fromDouble(-0.5)));
+        assertEquals(0, Fixed.toInt(-1));
+        assertEquals(-1, Fixed.toInt(-Fixed.ONE));
+    }
+
+    // Products are exact when they fit, don't overflow in between, and round
+    // toward zero when they don't fit
+    @Test
+    public void mulTruncatesTowardZero()
+    {
+        assertEquals(Fixed.fromDouble(2.25), Fixed.mul(Fixed.fromDouble(1.5), Fixed.fromDouble(1.5)));
+        assertEquals(Fixed.fromDouble(-2.25), Fixed.mul(Fixed.fromDouble(-1.5), Fixed.fromDouble(1.5)));
+        assertEquals(Fixed.fromInt(32761), Fixed.mul(Fixed.fromInt(181), Fixed.fromInt(181)));
+        assertEquals(0, Fixed.mul(1, Fixed.ONE / 2));
+        assertEquals(0, Fixed.mul(-1, Fixed.ONE / 2));
+        assertEquals(-1, Fixed.mul(-3, Fixed.ONE / 2));
+    }
+
+    // Quotients round toward zero too
+    @Test
+    public void divTruncatesTowardZero()
+    {
+        assertEquals(Fixed.fromDouble(3.5), Fixed.div(Fixed.fromInt(7), Fixed.fromInt(2)));
+        assertEquals(Fixed.fromDouble(-3.5), Fixed.div(Fixed.fromInt(-7), Fixed.fromInt(2)));
+        assertEquals(Fixed.fromDouble(-3.5), Fixed.div(Fixed.fromInt(7), Fixed.fromInt(-2)));
+        assertEquals(21845, Fixed.div(Fixed.fromInt(1), Fixed.fromInt(3)));
+        assertEquals(-21845, Fixed.div(Fixed.fromInt(-1), Fixed.fromInt(3)));
+        assertEquals(0, Fixed.div(-1, Fixed.fromInt(2)));
+    }
+
+    // Flipping the sign of either operand only flips the sign of the result,
+    // which rounding down instead of toward zero would break
+    @Test
+    public void signIsSymmetric()
+    {
+        Random random = new Random(Fixed.ONE);
+        for(int i = 0; i < 10000; i++)
+        {
+            int a = random.nextInt(Fixed.fromInt(100));
+            int b = 1 + random.nextInt(Fixed.fromInt(100));
+            assertEquals(-Fixed.toInt(a), Fixed.toInt(-a));
+            assertEquals(-Fixed.mul(a, b), Fixed.mul(-a, b));
+            assertEquals(-Fixed.mul(a, b), Fixed.mul(a, -b));
+            assertEquals(-Fixed.div(a, b), Fixed.div(-a, b));
+            assertEquals(-Fixed.div(a, b), Fixed.div(a, -b));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+// Reading values, nesting, skipping, and malformed documents with the
+// streaming JSON reader
+public class JsonPullReaderTest
+{
+    // Escape sequences in strings read as the characters they stand for
+    @Test
+    public void readsStringEscapes() throws IOException
+    {
+        JsonPullReader json = reader("[\"a\\\"b\\\\c\\/d\\n\\t\\r\\b\\f\\u00e9\\u20AC\", \"\"]");
+        json.beginArray();
+        assertEquals("a\"b\\c/d\n\t\r\b\f\u00e9\u20ac", json.nextString());
+        assertEquals("", json.nextString());
+        json.endArray();
+    }
+
+    // Whole numbers, decimals, exponents, and booleans read as their values
+    @Test
+    public void readsNumbersAndBooleans() throws IOException
+    {
+        JsonPullReader json = reader("[0, -42, 2147483647, 3.5, -1e2, 10, true, false]");
+        json.beginArray();
+        assertEquals(0, json.nextInt());
+        assertEquals(-42, json.nextInt());
+        assertEquals(Integer.MAX_VALUE, json.nextInt());
+        assertEquals(3.5, json.nextDouble(), 0);
+        assertEquals(-100, json.nextDouble(), 0);
+        assertEquals(10, json.nextDouble(), 0);
+        assertTrue(json.nextBoolean());
+        assertFalse(json.nextBoolean());
+        assertFalse(json.hasNext());
+        json.endArray();
+    }
+
+    // Objects and arrays nested deeper than the reader first makes room for
+    // are read member by member
+    @Test
+    public void readsNesting() throws IOException
+    {
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < 40; i++)
+        {
+            text.append("{\"in\": [");
+        }
+        text.append("7");
+        for(int i = 0; i < 40; i++)
+        {
+            text.append("]}");
+        }
+
+        JsonPullReader json = reader(text.toString());
+        for(int i = 0; i < 40; i++)
+        {
+            json.beginObject();
+            assertEquals("in", json.nextName());
+            json.beginArray();
+        }
+        assertEquals(7, json.nextInt());
+        for(int i = 0; i < 40; i++)
+        {
+            json.endArray();
+            assertFalse(json.hasNext());
+            json.endObject();
+        }
+    }
+
+    // Skipping a value of any kind leaves the reader at the member after it
+    @Test
+    public void skipsValues() throws IOException
+    {
+        JsonPullReader json = reader("{ \"a\": { \"b\": [1, {\"c\": \"]}\"}, [[]]], \"d\": null },"
+                + " \"e\": \"x,y\", \"f\": -1.5e3, \"g\": true, \"h\": null, \"i\": [], \"last\": 5 }");
+        json.beginObject();
+        String[] skipped = {"a", "e", "f", "g", "h", "i"};
+        for(int i = 0; i < skipped.length; i++)
+        {
+            assertEquals(skipped[i], json.nextName());
+            json.skipValue();
+        }
+        assertEquals("last", json.nextName());
+        assertEquals(5, json.nextInt());
+        json.endObject();
+    }
+
+    // Strings and documents longer than the reader's buffer read whole
+    @Test
+    public void readsAcrossBufferRefills() throws IOException
+    {
+        StringBuilder text = new StringBuilder("[\"");
+        for(int i = 0; i < 20000; i++)
+        {
+            text.append((char)('a' + i % 26));
+        }
+        text.append("\"");
+        for(int i = 0; i < 5000; i++)
+        {
+            text.append(", ").append(i);
+        }
+        text.append("]");
+
+        JsonPullReader json = reader(text.toString());
+        json.beginArray();
+        assertEquals(20000, json.nextString().length());
+        for(int i = 0; i < 5000; i++)
+        {
+            assertEquals(i, json.nextInt());
+        }
+        json.endArray();
+    }
+
+    // Malformed documents are reported with the line the problem is on
+    @Test
+    public void reportsSyntaxErrors()
+    {
+        assertSyntaxError("{\n\"a\": 1\n\"b\": 2 }", "Expected ','", 3);
+        assertSyntaxError("[\"never closed", "Unterminated string", 1);
+        assertSyntaxError("[\"bad \\q escape\"]", "Invalid escape sequence", 1);
+        assertSyntaxError("[\"\\u12G4\"]", "Invalid unicode escape", 1);
+        assertSyntaxError("[1,\n\n]", "Expected a value", 3);
+        assertSyntaxError("{\"a\" 1}", "Expected ':'", 1);
+        assertSyntaxError("[1, 2", "Expected ']'", 1);
+    }
+
+    // Values of the wrong kind are reported
+    @Test
+    public void reportsWrongValueKinds() throws IOException
+    {
+        JsonPullReader json = reader("[1.5, maybe]");
+        json.beginArray();
+        try
+        {
+            json.nextInt();
+            fail("Read 1.5 as a whole number");
+        }
+        catch (IOException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Expected a whole number but was 1.5"));
+        }
+        try
+        {
+            json.nextBoolean();
+            fail("Read maybe as a boolean");
+        }
+        catch (IOException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Expected true or false but was maybe"));
+        }
+    }
+
+    // Returns a reader of a given document
+    private static JsonPullReader reader(String text)
+    {
+        return new JsonPullReader(new StringReader(text));
+    }
+
+    // Checks skipping a whole document fails with a given message on a given line
+    private static void assertSyntaxError(String text, String message, int line)
+    {
+        try
+        {
+            reader(text).skipValue();
+            fail("No error reading " + text);
+        }
+        catch (IOException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+            assertTrue(e.getMessage(), e.getMessage().endsWith("at line " + line));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+
+// Merging a level's static platforms and baking its broadphase grids, checked
+// against the level built without either
+public class LevelDataTest
+{
+    // Ticks the merged and unmerged levels are replayed side by side for
+    private static final int TICKS = 3000;
+
+    // Platforms that sit edge to edge merge into one, and platforms that would
+    // look or collide differently merged don't
+    @Test
+    public void mergesOnlyMatchingNeighbours()
+    {
+        LevelData level = createMergeLevel();
+        int before = level.getPlatformCount();
+
+        // Four merges for the floor, three for each wall, two for the ledge,
+        // and one for the future's floor
+        assertEquals(13, level.mergeStaticPlatforms());
+        assertEquals(before - 13, level.getPlatformCount());
+        assertEquals(2, level.getPlatformCount(true));
+
+        // The floor's five pieces become one platform the width of the level
+        assertEquals(0, level.platformX[0]);
+        assertEquals(PlatformBody.MAX_WIDTH, level.platformWidth[0]);
+        assertEquals(80, level.platformHeight[0]);
+
+        // Nothing is left that could still be merged
+        assertEquals(0, level.mergeStaticPlatforms());
+    }
+
+    // Merged platforms cover exactly the same area as the pieces they replace,
+    // in each time period
+    @Test
+    public void mergingKeepsCoveredArea()
+    {
+        World unmerged = populate(createMergeLevel());
+        LevelData merged = createMergeLevel();
+        merged.mergeStaticPlatforms();
+        World world = populate(merged);
+
+        Random random = new Random(TICKS);
+        for(int i = 0; i < 20000; i++)
+        {
+            int left = random.nextInt(PlatformBody.MAX_WIDTH);
+            int top = random.nextInt(PlatformBody.MAX_HEIGHT);
+            int right = left + 1 + random.nextInt(60);
+            int bottom = top + 1 + random.nextInt(60);
+            assertEquals(overlapsAny(unmerged.getPlatformsPresent(), left, top, right, bottom),
+                    overlapsAny(world.getPlatformsPresent(), left, top, right, bottom));
+            assertEquals(overlapsAny(unmerged.getPlatformsFuture(), left, top, right, bottom),
+                    overlapsAny(world.getPlatformsFuture(), left, top, right, bottom));
+        }
+    }
+
+    // The player moves exactly the same on the merged level as on the pieces
+    // it was merged from, tick for tick, under the replay script
+    @Test
+    public void mergingKeepsCollisions()
+    {
+        World unmerged = populate(createMergeLevel());
+        LevelData merged = createMergeLevel();
+        merged.mergeStaticPlatforms();
+        World world = populate(merged);
+
+        for(int tick = 0; tick < TICKS; tick++)
+        {
+            WorldReplayTest.applyInput(unmerged, tick);
+            WorldReplayTest.applyInput(world, tick);
+            unmerged.step();
+            world.step();
+            assertEquals("tick " + tick, WorldReplayTest.hashState(unmerged), WorldReplayTest.hashState(world));
+        }
+    }
+
+    // Grids baked with a level are the grids the game would build for it, and
+    // stay in step with them as moving platforms move
+    @Test
+    public void bakedGridsMatchBuiltGrids() throws IOException
+    {
+        ArrayList<LevelData> levels = new ArrayList<>();
+        for(int levelNum = 1; levelNum <= WorldReplayTest.LEVEL_COUNT; levelNum++)
+        {
+            levels.add(BinaryLevelFormatTest.readShipped(levelNum));
+        }
+        levels.add(BinaryLevelFormatTest.createLevel(300));
+        levels.add(createMergeLevel());
+
+        for(int i = 0; i < levels.size(); i++)
+        {
+            LevelData level = levels.get(i);
+            World built = populate(level);
+            level.bakePlatformGrids(new FixedSpriteMetrics(), PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT);
+            assertTrue(level.hasBakedGrids());
+            assertArrayEquals(built.getPlatformGridPresent().bake(), level.gridPresent);
+            assertArrayEquals(built.getPlatformGridFuture().bake(), level.gridFuture);
+
+            World baked = populate(level);
+            assertSameGrid(built.getPlatformGridPresent(), baked.getPlatformGridPresent());
+            assertSameGrid(built.getPlatformGridFuture(), baked.getPlatformGridFuture());
+            for(int tick = 0; tick < 200; tick++)
+            {
+                built.getPlatformGridPresent().movePlatforms();
+                built.getPlatformGridFuture().movePlatforms();
+                baked.getPlatformGridPresent().movePlatforms();
+                baked.getPlatformGridFuture().movePlatforms();
+            }
+            assertSameGrid(built.getPlatformGridPresent(), baked.getPlatformGridPresent());
+            assertSameGrid(built.getPlatformGridFuture(), baked.getPlatformGridFuture());
+        }
+    }
+
+    // Baked grids are written with the level and read back unchanged
+    @Test
+    public void bakedGridsRoundTrip() throws IOException
+    {
+        LevelData level = BinaryLevelFormatTest.createLevel(300);
+        level.bakePlatformGrids(new FixedSpriteMetrics(), PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT);
+        LevelData read = BinaryLevelFormat.read(ByteBuffer.wrap(BinaryLevelFormatTest.write(level)));
+        BinaryLevelFormatTest.assertSameLevel(level, read);
+        assertTrue(read.hasBakedGrids());
+    }
+
+    // A level file whose baked grids list platforms it doesn't have, or has
+    // only one time period's grid, is rejected
+    @Test
+    public void rejectsDamagedBakedGrids() throws IOException
+    {
+        LevelData level = BinaryLevelFormatTest.createLevel(30);
+        level.bakePlatformGrids(new FixedSpriteMetrics(), PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT);
+        byte[] file = BinaryLevelFormatTest.write(level);
+
+        // The last int of the file is the last entry of the future grid's lists
+        BinaryLevelFormatTest.assertRejected(BinaryLevelFormatTest.withInt(file, file.length - 4, level.getPlatformCount(true)));
+        BinaryLevelFormatTest.assertRejected(BinaryLevelFormatTest.withInt(file, file.length - 4, -1));
+
+        // A future grid length of 0 leaves the file the wrong size, and the
+        // grid lengths must both be 0 or neither
+        BinaryLevelFormatTest.assertRejected(BinaryLevelFormatTest.withInt(file, 56, 0));
+    }
+
+    // Merging drops grids baked before it, since they index the old platforms
+    @Test
+    public void mergingDropsBakedGrids()
+    {
+        LevelData level = createMergeLevel();
+        level.bakePlatformGrids(new FixedSpriteMetrics(), PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT);
+        level.mergeStaticPlatforms();
+        assertFalse(level.hasBakedGrids());
+    }
+
+    // Creates a level walled in on both sides with a floor and a ledge, each
+    // made of pieces that can merge, alongside pairs of platforms that can't:
+    // WOOD tiles, different tiles, different time periods, mismatched sides,
+    // a moving platform, and a pair something else overlaps
+    static LevelData createMergeLevel()
+    {
+        LevelData level = new LevelData();
+        level.setStart(400, 1990);
+        level.setGravityAccel(Fixed.fromInt(3));
+        level.setBackground("DAY");
+        level.setGoal(540, 100);
+
+        // Floor of five pieces, walls of four pieces each, and a ledge of three
+        for(int i = 0; i < 5; i++)
+        {
+            level.addPlatform(false, i*216, 2000, 216, 80, TileType.STONE);
+        }
+        for(int i = 0; i < 4; i++)
+        {
+            level.addPlatform(false, 0, 1000 + i*250, 40, 250, TileType.METAL);
+            level.addPlatform(false, 1040, 1000 + i*250, 40, 250, TileType.METAL);
+        }
+        for(int i = 0; i < 3; i++)
+        {
+            level.addPlatform(false, 300 + i*120, 1700, 120, 40, TileType.GRASS);
+        }
+
+        // Pairs that must stay apart
+        level.addPlatform(false, 100, 400, 100, 40, TileType.WOOD);
+        level.addPlatform(false, 200, 400, 100, 40, TileType.WOOD);
+        level.addPlatform(false, 400, 400, 100, 40, TileType.DIRT);
+        level.addPlatform(false, 500, 400, 100, 40, TileType.STONE);
+        level.addPlatform(false, 700, 400, 100, 40, TileType.DIRT);
+        level.addPlatform(true, 800, 400, 100, 40, TileType.DIRT);
+        level.addPlatform(false, 100, 800, 100, 40, TileType.DIRT);
+        level.addPlatform(false, 200, 800, 100, 60, TileType.DIRT);
+        level.addPlatform(false, 400, 800, 100, 40, TileType.DIRT);
+        level.addMovingPlatform(false, 500, 800, 600, 800, Fixed.fromInt(2), 0, 100, 40, TileType.DIRT);
+        level.addPlatform(false, 100, 1200, 100, 40, TileType.DARK_METAL);
+        level.addPlatform(false, 200, 1200, 100, 40, TileType.DARK_METAL);
+        level.addPlatform(false, 150, 1220, 100, 60, TileType.PLAIN);
+
+        // The future has a floor of its own
+        level.addPlatform(true, 0, 2000, 540, 80, TileType.METAL);
+        level.addPlatform(true, 540, 2000, 540, 80, TileType.METAL);
+        level.addTimeMachine(700, 1990, false);
+        return level;
+    }
+
+    // Builds a level's bodies in a new world of the design space's size
+    private static World populate(LevelData level)
+    {
+        World world = new World(PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT, new FixedSpriteMetrics());
+        level.populate(world);
+        return world;
+    }
+
+    // Returns true if any platform of a list overlaps a box
+    private static boolean overlapsAny(ArrayList<PlatformBody> platforms, int left, int top, int right, int bottom)
+    {
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            if(platforms.get(i).getCollisionShape().intersects(left, top, right, bottom))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Checks two grids over copies of the same platforms return the same
+    // platforms, by index, for boxes all over the level
+    private static void assertSameGrid(PlatformGrid expected, PlatformGrid actual)
+    {
+        assertEquals(expected.getCols(), actual.getCols());
+        assertEquals(expected.getRows(), actual.getRows());
+        for(int y = -200; y < PlatformBody.MAX_HEIGHT + 200; y += 97)
+        {
+            for(int x = -200; x < PlatformBody.MAX_WIDTH + 200; x += 89)
+            {
+                assertEquals(indicesOf(expected, expected.query(x, y, x + 150, y + 150)),
+                        indicesOf(actual, actual.query(x, y, x + 150, y + 150)));
+            }
+        }
+    }
+
+    // Returns the level-order indices of platforms a grid returned
+    private static ArrayList<Integer> indicesOf(PlatformGrid grid, ArrayList<PlatformBody> found)
+    {
+        ArrayList<Integer> indices = new ArrayList<>();
+        for(int i = 0; i < found.size(); i++)
+        {
+            indices.add(grid.getPlatforms().indexOf(found.get(i)));
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+// Reading levels from their JSON sources, including every shipped level
+public class LevelLoaderTest
+{
+    // A level using every member the loader knows
+    private static final String FULL_LEVEL = "{"
+            + " \"start\": { \"x\": 10, \"y\": 2180 },"
+            + " \"gravity\": 3.5,"
+            + " \"background\": \"FACILITY\","
+            + " \"goal\": { \"x\": 980, \"y\": 750 },"
+            + " \"platforms\": {"
+            + "   \"present\": [ { \"x\": 0, \"y\": 0, \"width\": 50, \"height\": 2080, \"tile\": \"METAL\" } ],"
+            + "   \"future\": [ { \"x\": 300, \"y\": 800, \"width\": 200, \"height\": 50, \"tile\": \"STONE\","
+            + "                   \"path\": { \"toX\": 1000, \"toY\": 900, \"speedX\": 10, \"speedY\": 2.5 } } ]"
+            + " },"
+            + " \"gravityPads\": [ { \"x\": 690, \"y\": 2180, \"flipped\": false } ],"
+            + " \"timeMachines\": [ { \"x\": 1000, \"y\": 200, \"flipped\": true } ],"
+            + " \"enemies\": [ { \"x\": 600, \"y\": 1500 }, { \"x\": 700, \"y\": 1500 } ],"
+            + " \"powerUps\": [ { \"x\": 700, \"y\": 200, \"type\": \"JUMP\" } ]"
+            + "}";
+
+    // Every member of a level is read into the level's columns
+    @Test
+    public void readsEveryMember() throws IOException
+    {
+        LevelData level = read(FULL_LEVEL);
+        assertEquals(10, level.startX);
+        assertEquals(2180, level.startY);
+        assertEquals(Fixed.fromDouble(3.5), level.gravityAccel);
+        assertEquals("FACILITY", LevelData.BACKGROUNDS[level.background]);
+        assertEquals(980, level.goalX);
+        assertEquals(750, level.goalY);
+
+        assertEquals(2, level.getPlatformCount());
+        assertEquals(1, level.getPlatformCount(false));
+        assertEquals(0, level.platformFlags[0]);
+        assertEquals(TileType.METAL.ordinal(), level.platformTile[0]);
+        assertEquals(2080, level.platformHeight[0]);
+        assertEquals(LevelData.PLATFORM_FUTURE | LevelData.PLATFORM_MOVING, level.platformFlags[1]);
+        assertEquals(1000, level.platformToX[1]);
+        assertEquals(900, level.platformToY[1]);
+        assertEquals(Fixed.fromInt(10), level.platformSpeedX[1]);
+        assertEquals(Fixed.fromDouble(2.5), level.platformSpeedY[1]);
+
+        assertEquals(1, level.gravPadCount);
+        assertEquals(0, level.gravPadFlipped[0]);
+        assertEquals(1, level.timeMachineCount);
+        assertEquals(1, level.timeMachineFlipped[0]);
+        assertEquals(2, level.enemyCount);
+        assertEquals(700, level.enemyX[1]);
+        assertEquals(1, level.powerUpCount);
+        assertEquals("JUMP", LevelData.POWER_UPS[level.powerUpType[0]]);
+        assertTrue(level.checkBounds(PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT).isEmpty());
+    }
+
+    // Members the loader doesn't know are skipped wherever they are, and tile
+    // names it doesn't know become PLAIN
+    @Test
+    public void skipsUnknownMembers() throws IOException
+    {
+        LevelData level = read("{ \"version\": { \"major\": 2, \"notes\": [\"a\", {\"b\": [1, 2]}] },"
+                + " \"goal\": { \"x\": 1, \"y\": 2, \"z\": 3 },"
+                + " \"platforms\": { \"past\": [ { \"x\": 9 } ],"
+                + "   \"present\": [ { \"x\": 5, \"color\": \"red\", \"y\": 6, \"width\": 7, \"height\": 8, \"tile\": \"LAVA\","
+                + "                    \"path\": { \"toX\": 50, \"easing\": [0.1, 0.9], \"toY\": 6, \"speedX\": 1 } } ] },"
+                + " \"music\": null }");
+        assertEquals(1, level.goalX);
+        assertEquals(2, level.goalY);
+        assertEquals(1, level.getPlatformCount());
+        assertEquals(5, level.platformX[0]);
+        assertEquals(8, level.platformHeight[0]);
+        assertEquals(TileType.PLAIN.ordinal(), level.platformTile[0]);
+        assertEquals(50, level.platformToX[0]);
+    }
+
+    // A level without a goal, or naming a background or power-up that doesn't
+    // exist, can't be loaded
+    @Test
+    public void rejectsBrokenLevels()
+    {
+        assertRejected("{ \"start\": { \"x\": 1, \"y\": 1 } }", "Level has no \"goal\"");
+        assertRejected("{ \"goal\": { \"x\": 1, \"y\": 1 }, \"background\": \"DUSK\" }", "Unknown background \"DUSK\"");
+        assertRejected("{ \"goal\": { \"x\": 1, \"y\": 1 },\n \"powerUps\": [ { \"x\": 1, \"y\": 1, \"type\": \"FLY\" } ] }",
+                "Unknown power-up type \"FLY\"");
+        assertRejected("{ \"goal\": { \"x\": 1, \"y\": \"far\" } }", "Expected a whole number");
+    }
+
+    // Every shipped level source loads, lies inside the design space, and
+    // builds a world with everything it lists
+    @Test
+    public void loadsEveryShippedLevel() throws IOException
+    {
+        File[] files = new File(WorldReplayTest.LEVELS_DIR).listFiles();
+        assertNotNull("No level sources at " + WorldReplayTest.LEVELS_DIR, files);
+
+        int loaded = 0;
+        for(int i = 0; i < files.length; i++)
+        {
+            String name = files[i].getName();
+            if(!name.startsWith("level") || !name.endsWith(".json"))
+            {
+                continue;
+            }
+
+            InputStreamReader in = new InputStreamReader(new FileInputStream(files[i]), StandardCharsets.UTF_8);
+            LevelData level = LevelLoader.read(in);
+            assertEquals(name, "[]", level.checkBounds(PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT).toString());
+
+            World world = new World(PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT, new FixedSpriteMetrics());
+            level.populate(world);
+            assertEquals(name, level.getPlatformCount(false), world.getPlatformsPresent().size());
+            assertEquals(name, level.getPlatformCount(true), world.getPlatformsFuture().size());
+            assertEquals(name, level.gravPadCount, world.getGravPads().size());
+            assertEquals(name, level.timeMachineCount, world.getTimeMachines().size());
+            assertEquals(name, level.enemyCount, world.getEnemies().size());
+            assertEquals(name, level.powerUpCount, world.getPowerUps().size());
+            assertNotNull(name, world.getPlayer());
+            assertNotNull(name, world.getGoalPost());
+            assertFalse(name, world.getPlatformsPresent().isEmpty());
+            loaded++;
+        }
+        assertEquals(WorldReplayTest.LEVEL_COUNT, loaded);
+    }
+
+    // Reads a level from a given document
+    private static LevelData read(String text) throws IOException
+    {
+        return LevelLoader.read(new StringReader(text));
+    }
+
+    // Checks reading a given document fails with a given message
+    private static void assertRejected(String text, String message)
+    {
+        try
+        {
+            read(text);
+            fail("Loaded " + text);
+        }
+        catch (IOException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+// Queries of the broadphase grid, checked against scanning every platform
+public class PlatformGridTest
+{
+    // Size of the world the platforms are placed in
+    private static final int WIDTH = PlatformBody.MAX_WIDTH;
+    private static final int HEIGHT = PlatformBody.MAX_HEIGHT;
+
+    // World the platforms are made in, and the platforms the grid is built over
+    private World world;
+    private ArrayList<PlatformBody> platforms;
+
+    // Starts each test with no platforms
+    @Before
+    public void setUp()
+    {
+        world = new World(WIDTH, HEIGHT, new FixedSpriteMetrics());
+        platforms = new ArrayList<>();
+    }
+
+    // A platform spanning every queried cell is returned once, and the
+    // results come back in level order whatever order the cells list them in
+    @Test
+    public void queryReturnsEachPlatformOnceInLevelOrder()
+    {
+        addPlatform(600, 600, 30, 30);
+        addPlatform(0, 0, WIDTH, HEIGHT);
+        addPlatform(10, 10, 30, 30);
+        PlatformGrid grid = new PlatformGrid(platforms, WIDTH, HEIGHT);
+
+        ArrayList<PlatformBody> found = grid.query(0, 0, WIDTH, HEIGHT);
+        assertEquals(3, found.size());
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            assertSame(platforms.get(i), found.get(i));
+        }
+    }
+
+    // More platforms than the query's starting capacity can be found at once
+    @Test
+    public void queryFindsMorePlatformsThanStartingCapacity()
+    {
+        for(int i = 0; i < 100; i++)
+        {
+            addPlatform(i*2, i*2, 20, 20);
+        }
+        PlatformGrid grid = new PlatformGrid(platforms, WIDTH, HEIGHT);
+        assertEquals(platforms, grid.query(0, 0, 300, 300));
+        assertEquals(platforms, grid.query(0, 0, 300, 300));
+    }
+
+    // Platforms hanging off the world's edges are still found
+    @Test
+    public void queryFindsPlatformsOffTheEdges()
+    {
+        addPlatform(-500, 100, 300, 30);
+        addPlatform(WIDTH + 200, HEIGHT + 200, 300, 30);
+        PlatformGrid grid = new PlatformGrid(platforms, WIDTH, HEIGHT);
+        assertEquals(1, overlapping(grid.query(-400, 90, -300, 140), -400, 90, -300, 140).size());
+        assertEquals(1, overlapping(grid.query(WIDTH + 250, HEIGHT + 210, WIDTH + 300, HEIGHT + 220),
+                WIDTH + 250, HEIGHT + 210, WIDTH + 300, HEIGHT + 220).size());
+    }
+
+    // Queries of randomly placed platforms find every platform a scan of the
+    // whole level finds, in the same order, for several cell sizes
+    @Test
+    public void queryMatchesScanOverRandomPlatforms()
+    {
+        Random random = new Random(WIDTH);
+        for(int i = 0; i < 500; i++)
+        {
+            addPlatform(random.nextInt(WIDTH + 400) - 200, random.nextInt(HEIGHT + 400) - 200,
+                    1 + random.nextInt(600), 1 + random.nextInt(300));
+        }
+
+        int[] cellSizes = {16, 100, PlatformGrid.CELL_SIZE, 4096};
+        for(int c = 0; c < cellSizes.length; c++)
+        {
+            PlatformGrid grid = new PlatformGrid(platforms, WIDTH, HEIGHT, cellSizes[c]);
+            for(int q = 0; q < 1000; q++)
+            {
+                assertQueryMatchesScan(grid, random);
+            }
+        }
+    }
+
+    // A moving platform is found where it is now and no longer listed in the
+    // cells it has left, while a platform sharing its old cell stays listed
+    @Test
+    public void movePlatformsRelistsPlatformsCrossingCells()
+    {
+        PlatformBody stays = addPlatform(10, 10, 30, 30);
+        PlatformBody mover = addMovingPlatform(0, 0, 900, 0, 50, 0, 40, 40);
+        PlatformBody follower = addMovingPlatform(20, 20, 900, 20, 50, 0, 40, 40);
+        PlatformGrid grid = new PlatformGrid(platforms, WIDTH, HEIGHT, 100);
+
+        for(int tick = 0; tick < 8; tick++)
+        {
+            grid.movePlatforms();
+        }
+        assertEquals(400, mover.getX());
+
+        ArrayList<PlatformBody> start = grid.query(0, 0, 100, 100);
+        assertEquals(1, start.size());
+        assertSame(stays, start.get(0));
+
+        ArrayList<PlatformBody> now = grid.query(400, 0, 440, 40);
+        assertEquals(2, now.size());
+        assertSame(mover, now.get(0));
+        assertSame(follower, now.get(1));
+    }
+
+    // With hundreds of static and moving platforms stepped for thousands of
+    // ticks, every query still finds what a scan of the whole level finds
+    @Test
+    public void queryMatchesScanWhilePlatformsMove()
+    {
+        Random random = new Random(HEIGHT);
+        for(int i = 0; i < 500; i++)
+        {
+            int x = random.nextInt(WIDTH);
+            int y = random.nextInt(HEIGHT);
+            int w = 20 + random.nextInt(300);
+            int h = 20 + random.nextInt(100);
+            if(random.nextBoolean())
+            {
+                addMovingPlatform(x, y, x + random.nextInt(800) - 400, y + random.nextInt(800) - 400,
+                        random.nextInt(30), random.nextInt(30), w, h);
+            }
+            else
+            {
+                addPlatform(x, y, w, h);
+            }
+        }
+
+        PlatformGrid grid = new PlatformGrid(platforms, WIDTH, HEIGHT);
+        for(int tick = 0; tick < 2000; tick++)
+        {
+            grid.movePlatforms();
+            for(int q = 0; q < 10; q++)
+            {
+                assertQueryMatchesScan(grid, random);
+            }
+        }
+
+        // Every platform is still found at its own position
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            Aabb p = platforms.get(i).getCollisionShape();
+            assertTrue("platform " + i, grid.query(p.getLeft(), p.getTop(), p.getRight(), p.getBottom()).contains(platforms.get(i)));
+        }
+    }
+
+    // A baked grid rebuilds the grid it was baked from, and bakes the same again
+    @Test
+    public void bakedGridMatchesBuiltGrid()
+    {
+        Random random = new Random(PlatformGrid.CELL_SIZE);
+        for(int i = 0; i < 200; i++)
+        {
+            addPlatform(random.nextInt(WIDTH + 400) - 200, random.nextInt(HEIGHT), 1 + random.nextInt(400), 1 + random.nextInt(100));
+        }
+        PlatformGrid built = new PlatformGrid(platforms, WIDTH, HEIGHT);
+        int[] baked = built.bake();
+        assertTrue(PlatformGrid.isValidBake(baked, platforms.size()));
+
+        PlatformGrid rebuilt = new PlatformGrid(platforms, baked);
+        assertArrayEquals(baked, rebuilt.bake());
+        for(int q = 0; q < 1000; q++)
+        {
+            assertQueryMatchesScan(rebuilt, random);
+        }
+    }
+
+    // Baked grids that would index outside the grid's arrays or the platform
+    // list are rejected
+    @Test
+    public void isValidBakeRejectsDamagedGrids()
+    {
+        addPlatform(0, 0, 300, 30);
+        addPlatform(600, 1000, 300, 30);
+        int[] baked = new PlatformGrid(platforms, WIDTH, HEIGHT).bake();
+        int cells = baked[3]*baked[4];
+        int starts = 5;
+        int lists = starts + cells + 1;
+        assertTrue(PlatformGrid.isValidBake(baked, 2));
+
+        // Too short to hold a header or the cell table
+        assertFalse(PlatformGrid.isValidBake(new int[4], 2));
+        assertFalse(PlatformGrid.isValidBake(Arrays.copyOf(baked, lists - 1), 2));
+
+        // Cell size, columns, or rows that aren't positive, or a cell count
+        // bigger than the array
+        assertFalse(PlatformGrid.isValidBake(with(baked, 0, 0), 2));
+        assertFalse(PlatformGrid.isValidBake(with(baked, 3, 0), 2));
+        assertFalse(PlatformGrid.isValidBake(with(baked, 4, -1), 2));
+        assertFalse(PlatformGrid.isValidBake(with(baked, 3, Integer.MAX_VALUE), 2));
+
+        // Cell lists that don't start at 0, run backwards, or don't end at the
+        // end of the array
+        assertFalse(PlatformGrid.isValidBake(with(baked, starts, 1), 2));
+        assertFalse(PlatformGrid.isValidBake(with(baked, starts + 1, -1), 2));
+        assertFalse(PlatformGrid.isValidBake(with(baked, starts + cells, baked[starts + cells] - 1), 2));
+        assertFalse(PlatformGrid.isValidBake(Arrays.copyOf(baked, baked.length + 1), 2));
+
+        // Platform indices outside the platform list
+        assertFalse(PlatformGrid.isValidBake(baked, 1));
+        assertFalse(PlatformGrid.isValidBake(with(baked, lists, -1), 2));
+    }
+
+    // Adds a non-moving platform with the given position and size
+    private PlatformBody addPlatform(int x, int y, int w, int h)
+    {
+        PlatformBody p = new PlatformBody(world, x, y, w, h, TileType.STONE);
+        platforms.add(p);
+        return p;
+    }
+
+    // Adds a platform moving back and forth between two positions at a given
+    // speed in whole units per tick
+    private PlatformBody addMovingPlatform(int x1, int y1, int x2, int y2, int speedX, int speedY, int w, int h)
+    {
+        PlatformBody p = new PlatformBody(world, x1, y1, x2, y2, speedX, speedY, w, h, TileType.STONE);
+        platforms.add(p);
+        return p;
+    }
+
+    // Checks a randomly placed query box finds the same overlapping platforms,
+    // in the same order, as scanning every platform, and that the grid lists
+    // each platform it returns only once and in level order
+    private void assertQueryMatchesScan(PlatformGrid grid, Random random)
+    {
+        int left = random.nextInt(WIDTH + 400) - 200;
+        int top = random.nextInt(HEIGHT + 400) - 200;
+        int right = left + 1 + random.nextInt(400);
+        int bottom = top + 1 + random.nextInt(400);
+
+        ArrayList<PlatformBody> found = grid.query(left, top, right, bottom);
+        int last = -1;
+        for(int i = 0; i < found.size(); i++)
+        {
+            int index = platforms.indexOf(found.get(i));
+            assertTrue("query results out of level order", index > last);
+            last = index;
+        }
+        assertEquals(overlapping(platforms, left, top, right, bottom), overlapping(found, left, top, right, bottom));
+    }
+
+    // Returns a copy of a baked grid with one value replaced
+    private static int[] with(int[] baked, int index, int value)
+    {
+        int[] copy = baked.clone();
+        copy[index] = value;
+        return copy;
+    }
+
+    // Returns the platforms of a list that overlap a box, in list order
+    private static ArrayList<PlatformBody> overlapping(ArrayList<PlatformBody> list, int left, int top, int right, int bottom)
+    {
+        ArrayList<PlatformBody> hits = new ArrayList<>();
+        for(int i = 0; i < list.size(); i++)
+        {
+            if(list.get(i).getCollisionShape().intersects(left, top, right, bottom))
+            {
+                hits.add(list.get(i));
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+// Sweeps and push-outs of a 100x100 box against hand-placed platforms
+public class SweepTest
+{
+    // Gravitational accelerations pulling down and up
+    private static final int GRAVITY_DOWN = Fixed.fromInt(3);
+    private static final int GRAVITY_UP = -Fixed.fromInt(3);
+
+    // World the platforms are made in, the platforms swept against, and the
+    // contact each sweep fills in
+    private World world;
+    private ArrayList<PlatformBody> platforms;
+    private Contact contact;
+
+    // Starts each test with no platforms
+    @Before
+    public void setUp()
+    {
+        world = new World(PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT, new FixedSpriteMetrics());
+        platforms = new ArrayList<>();
+        contact = new Contact();
+    }
+
+    // A box falling faster than a thin platform is tall stops on top of it
+    // instead of passing through
+    @Test
+    public void sweepYStopsFastBoxOnThinPlatform()
+    {
+        PlatformBody floor = addPlatform(0, 500, 300, 2);
+        assertEquals(400, Sweep.sweepY(0, 0, 100, 100, 2000, platforms, contact));
+        assertTrue(contact.isHit());
+        assertSame(floor, contact.getPlatform());
+        assertEquals(-1, contact.getNormalY());
+        assertEquals(0.2f, contact.getTime(), 1e-6f);
+    }
+
+    // A box rising faster than a thin platform is tall stops under it
+    @Test
+    public void sweepYStopsFastBoxUnderThinPlatform()
+    {
+        PlatformBody ceiling = addPlatform(0, 98, 300, 2);
+        assertEquals(-400, Sweep.sweepY(0, 500, 100, 600, -2000, platforms, contact));
+        assertSame(ceiling, contact.getPlatform());
+        assertEquals(1, contact.getNormalY());
+    }
+
+    // Of two platforms in the way, the nearest one stops the box whatever
+    // order they're listed in
+    @Test
+    public void sweepYStopsAtNearestPlatform()
+    {
+        addPlatform(0, 900, 300, 30);
+        PlatformBody near = addPlatform(0, 300, 300, 30);
+        assertEquals(200, Sweep.sweepY(0, 0, 100, 100, 1000, platforms, contact));
+        assertSame(near, contact.getPlatform());
+    }
+
+    // A box resting on a platform can't move down into it, and one that only
+    // reaches the platform's top doesn't touch it
+    @Test
+    public void sweepYStopsAtFlushTop()
+    {
+        addPlatform(0, 100, 300, 30);
+        assertEquals(0, Sweep.sweepY(0, 0, 100, 100, 20, platforms, contact));
+        assertTrue(contact.isHit());
+
+        assertEquals(50, Sweep.sweepY(0, -50, 100, 50, 50, platforms, contact));
+        assertFalse(contact.isHit());
+    }
+
+    // A platform beside the box, sharing only its edge, isn't in the way
+    @Test
+    public void sweepYIgnoresPlatformsBeside()
+    {
+        addPlatform(100, 200, 300, 30);
+        assertEquals(500, Sweep.sweepY(0, 0, 100, 100, 500, platforms, contact));
+        assertFalse(contact.isHit());
+    }
+
+    // A box moving sideways faster than a thin wall is wide stops against it
+    @Test
+    public void sweepXStopsFastBoxAtThinWall()
+    {
+        PlatformBody wall = addPlatform(500, 0, 2, 300);
+        assertEquals(400, Sweep.sweepX(0, 0, 100, 100, 3000, platforms, contact));
+        assertSame(wall, contact.getPlatform());
+        assertEquals(-1, contact.getNormalX());
+
+        assertEquals(-98, Sweep.sweepX(600, 0, 700, 100, -3000, platforms, contact));
+        assertSame(wall, contact.getPlatform());
+        assertEquals(1, contact.getNormalX());
+    }
+
+    // A box standing on two platforms that meet at a seam slides across the
+    // seam without catching on it
+    @Test
+    public void sweepXSlidesAcrossFlushSeam()
+    {
+        addPlatform(0, 100, 200, 30);
+        addPlatform(200, 100, 200, 30);
+        assertEquals(250, Sweep.sweepX(50, 0, 150, 100, 250, platforms, contact));
+        assertFalse(contact.isHit());
+        assertEquals(0, Sweep.sweepY(300, 0, 400, 100, 10, platforms, contact));
+        assertTrue(contact.isHit());
+    }
+
+    // A box overlapping a platform is stood on top of it with downwards
+    // gravity, and on its bottom with upwards gravity
+    @Test
+    public void pushOutYStandsBoxOnPlatform()
+    {
+        PlatformBody platform = addPlatform(0, 100, 300, 30);
+        assertEquals(-20, Sweep.pushOutY(0, 20, 100, 120, GRAVITY_DOWN, platforms, contact));
+        assertSame(platform, contact.getPlatform());
+        assertEquals(-1, contact.getNormalY());
+
+        assertEquals(20, Sweep.pushOutY(0, 110, 100, 210, GRAVITY_UP, platforms, contact));
+        assertEquals(1, contact.getNormalY());
+    }
+
+    // A box overlapping nothing isn't moved
+    @Test
+    public void pushOutYLeavesClearBox()
+    {
+        addPlatform(0, 100, 300, 30);
+        assertEquals(0, Sweep.pushOutY(0, 0, 100, 100, GRAVITY_DOWN, platforms, contact));
+        assertFalse(contact.isHit());
+    }
+
+    // A box pushed off one platform into another that was checked before it
+    // is pushed out of that one too
+    @Test
+    public void pushOutYClearsDoubleOverlap()
+    {
+        PlatformBody upper = addPlatform(0, 20, 300, 30);
+        addPlatform(0, 140, 300, 20);
+        int offset = Sweep.pushOutY(0, 100, 100, 200, GRAVITY_DOWN, platforms, contact);
+        assertEquals(-180, offset);
+        assertSame(upper, contact.getPlatform());
+        assertOverlapsNothing(0, 100 + offset, 100, 200 + offset);
+
+        platforms.clear();
+        PlatformBody lower = addPlatform(0, 380, 300, 30);
+        addPlatform(0, 280, 300, 20);
+        offset = Sweep.pushOutY(0, 250, 100, 350, GRAVITY_UP, platforms, contact);
+        assertEquals(160, offset);
+        assertSame(lower, contact.getPlatform());
+        assertOverlapsNothing(0, 250 + offset, 100, 350 + offset);
+    }
+
+    // Adds a non-moving platform with the given position and size
+    private PlatformBody addPlatform(int x, int y, int w, int h)
+    {
+        PlatformBody p = new PlatformBody(world, x, y, w, h, TileType.STONE);
+        platforms.add(p);
+        return p;
+    }
+
+    // Checks a box with the given edges overlaps none of the platforms
+    private void assertOverlapsNothing(int left, int top, int right, int bottom)
+    {
+        for(int i = 0; i < platforms.size(); i++)
+        {
+            assertFalse("platform " + i, platforms.get(i).getCollisionShape().intersects(left, top, right, bottom));
+        }
+    }
+}
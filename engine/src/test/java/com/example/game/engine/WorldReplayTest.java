@@ -0,0 +1,156 @@
+package com.example.game.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// Replays a fixed script of touch input over every shipped level and hashes
+// where the player and enemies are after each tick. The same script always
+// steps to the same hashes, and any change to the physics that moves a body
+// shows up as a changed hash.
+public class WorldReplayTest
+{
+    // Folder the shipped level sources are read from. Gradle passes in the
+    // app's folder; the default works when run from the engine folder.
+    static final String LEVELS_DIR = System.getProperty("game.levels", "../app/src/main/levels");
+
+    // Number of shipped levels
+    static final int LEVEL_COUNT = 10;
+
+    // Ticks each level is replayed for, and how many ticks each step of the
+    // input script is held for
+    private static final int TICKS = 3000;
+    private static final int SCRIPT_STEP_TICKS = 60;
+
+    // Hashes of every level after replaying the script for TICKS ticks,
+    // indexed by level number - 1
+    private static final long[] RECORDED_HASHES = {
+        7038501924261947059L,
+        -154808044087411837L,
+        8879612166642261623L,
+        910746601241979213L,
+        910746601241979213L,
+        910746601241979213L,
+        910746601241979213L,
+        910746601241979213L,
+        910746601241979213L,
+        910746601241979213L
+    };
+
+    // Replaying each shipped level gives the hash recorded for it
+    @Test
+    public void shippedLevelsMatchRecordedHashes() throws IOException
+    {
+        for(int level = 1; level <= LEVEL_COUNT; level++)
+        {
+            assertEquals("level " + level, RECORDED_HASHES[level - 1], replay(loadShipped(level), TICKS));
+        }
+    }
+
+    // Two copies of each shipped level stepped side by side under the same
+    // input are in exactly the same state after every tick
+    @Test
+    public void replayIsDeterministic() throws IOException
+    {
+        for(int level = 1; level <= LEVEL_COUNT; level++)
+        {
+            World first = loadShipped(level);
+            World second = loadShipped(level);
+            for(int tick = 0; tick < TICKS; tick++)
+            {
+                applyInput(first, tick);
+                applyInput(second, tick);
+                first.step();
+                second.step();
+                assertEquals("level " + level + " tick " + tick, hashState(first), hashState(second));
+            }
+        }
+    }
+
+    // Creates one of the shipped levels, read from the same level source the
+    // level compiler reads
+    static World loadShipped(int levelNum) throws IOException
+    {
+        World world = new World(PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT, new FixedSpriteMetrics());
+        File file = new File(LEVELS_DIR, LevelLoader.getLevelFileName(levelNum));
+        InputStreamReader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+        try
+        {
+            LevelLoader.load(in, world);
+        }
+        finally
+        {
+            in.close();
+        }
+        return world;
+    }
+
+    // Steps a world for a number of ticks under the input script, returning a
+    // hash of the state after every tick
+    static long replay(World world, int ticks)
+    {
+        long hash = 17;
+        for(int tick = 0; tick < ticks; tick++)
+        {
+            applyInput(world, tick);
+            world.step();
+            hash = hash*31 + hashState(world);
+        }
+        return hash;
+    }
+
+    // Feeds the player the input GameView would give it for one tick of the
+    // script: run right, run right while jumping, let go, then the same to the
+    // left. Time is switched whenever the player is at a time machine at the
+    // start of a script step.
+    static void applyInput(World world, int tick)
+    {
+        PlayerBody player = world.getPlayer();
+        int step = (tick / SCRIPT_STEP_TICKS) % 6;
+        int direction = step < 3 ? 1 : -1;
+        switch(step % 3)
+        {
+            case 0:
+                player.setXSpeed(direction*Fixed.fromInt(10));
+                break;
+            case 1:
+                player.setXSpeed(direction*Fixed.fromInt(10));
+                player.jump();
+                break;
+            default:
+                player.setJumping(false);
+                player.setXSpeed(0);
+                break;
+        }
+
+        if(tick % SCRIPT_STEP_TICKS == 0 && world.isTouchingMachine())
+        {
+            world.setPresentTime(!world.isPresentTime());
+        }
+    }
+
+    // Returns a hash of where the player and enemies are and how they're moving
+    static long hashState(World world)
+    {
+        PlayerBody player = world.getPlayer();
+        long hash = player.getXPos();
+        hash = hash*31 + player.getYPos();
+        hash = hash*31 + player.getXSpeed();
+        hash = hash*31 + player.getYSpeed();
+        hash = hash*31 + player.getGravAccel();
+        hash = hash*31 + (world.isPresentTime() ? 1 : 0);
+        for(int i = 0; i < world.getEnemies().size(); i++)
+        {
+            EnemyBody enemy = world.getEnemies().get(i);
+            hash = hash*31 + enemy.getX();
+            hash = hash*31 + enemy.getY();
+        }
+        return hash;
+    }
+}
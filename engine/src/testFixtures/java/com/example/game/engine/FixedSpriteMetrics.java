@@ -0,0 +1,61 @@
+package com.example.game.engine;
+
+// Image sizes of the game's drawables decoded at the design density, so test
+// and benchmark worlds are laid out the same as on a device without needing
+// Android to decode them. Shared with the benchmarks as a test fixture.
+public class FixedSpriteMetrics implements SpriteMetrics
+{
+    // Returns the width of a given image, in design-space units
+    @Override
+    public int getWidth(SpriteType type)
+    {
+        switch(type)
+        {
+            case PLAYER:
+                return 248;
+            case ENEMY:
+                return 176;
+            case GRAVITY_PAD:
+                return 253;
+            case GOAL:
+                return 52;
+            case TIME_MACHINE:
+                return 275;
+            case SPEED_POWER:
+                return 723;
+            case JUMP_POWER:
+                return 718;
+            case SHIELD_POWER:
+                return 602;
+            default:
+                return 8250;
+        }
+    }
+
+    // Returns the height of a given image, in design-space units
+    @Override
+    public int getHeight(SpriteType type)
+    {
+        switch(type)
+        {
+            case PLAYER:
+                return 248;
+            case ENEMY:
+                return 176;
+            case GRAVITY_PAD:
+                return 195;
+            case GOAL:
+                return 88;
+            case TIME_MACHINE:
+                return 314;
+            case SPEED_POWER:
+                return 732;
+            case JUMP_POWER:
+                return 671;
+            case SHIELD_POWER:
+                return 693;
+            default:
+                return 8250;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.game.levelc;
+
+import com.example.game.engine.SpriteMetrics;
+import com.example.game.engine.SpriteType;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+// Image sizes of the app's drawables in design space, read from the PNGs in
+// its res/drawable folder, so levels are laid out at build time exactly as the
+// app's ResourceSpriteMetrics lays them out on a device
+public class DrawableSpriteMetrics implements SpriteMetrics
+{
+    // Density the drawables are decoded at (ResourceSpriteMetrics.DESIGN_DENSITY)
+    // and the density of the unqualified drawable folder they're kept in
+    private static final int DESIGN_DENSITY = 440;
+    private static final int DRAWABLE_DENSITY = 160;
+
+    // Folder the drawables are read from
+    private final File drawableDir;
+
+    // Widths and heights of each sprite's drawable, indexed by SpriteType.
+    // -1 until the drawable has been measured.
+    private final int[] widths;
+    private final int[] heights;
+
+    // Constructor for the metrics, reading drawables from a given folder
+    public DrawableSpriteMetrics(File drawableDir)
+    {
+        this.drawableDir = drawableDir;
+        widths = new int[SpriteType.values().length];
+        heights = new int[SpriteType.values().length];
+        Arrays.fill(widths, -1);
+        Arrays.fill(heights, -1);
+    }
+
+    // Returns the width of a sprite's drawable, in design-space units
+    @Override
+    public int getWidth(SpriteType type)
+    {
+        measure(type);
+        return widths[type.ordinal()];
+    }
+
+    // Returns the height of a sprite's drawable, in design-space units
+    @Override
+    public int getHeight(SpriteType type)
+    {
+        measure(type);
+        return heights[type.ordinal()];
+    }
+
+    // Returns the name of the drawable a given sprite is drawn with, matching
+    // ResourceSpriteMetrics.getResourceId
+    public static String getDrawableName(SpriteType type)
+    {
+        switch(type)
+        {
+            case PLAYER:
+                return "player_char_og";
+            case ENEMY:
+                return "enemy_neutral";
+            case GRAVITY_PAD:
+                return "gravity_pad_off";
+            case GOAL:
+                return "goalpost";
+            case TIME_MACHINE:
+                return "time_machine_pres";
+            case SPEED_POWER:
+                return "speed_power";
+            case JUMP_POWER:
+                return "jump_power";
+            case SHIELD_POWER:
+                return "shield_power";
+            default:
+                return "wood_tiles";
+        }
+    }
+
+    // Reads the size of a sprite's PNG the first time it's needed. SpriteMetrics
+    // can't throw checked exceptions, so a missing or unreadable drawable is
+    // passed up unchecked, for LevelCompiler.compile to report with its level.
+    private void measure(SpriteType type)
+    {
+        if(widths[type.ordinal()] >= 0)
+        {
+            return;
+        }
+        try
+        {
+            readSize(type);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Reads the size of a sprite's PNG without decoding its pixels, and scales
+    // it the way BitmapFactory scales it when decoding at the design density
+    private void readSize(SpriteType type) throws IOException
+    {
+        String name = getDrawableName(type) + ".png";
+        File file = new File(drawableDir, name);
+        if(!file.isFile())
+        {
+            throw new FileNotFoundException("missing drawable " + name + " in " + drawableDir);
+        }
+
+        ImageInputStream in = ImageIO.createImageInputStream(file);
+        if(in == null)
+        {
+            throw new IOException("could not open drawable " + name);
+        }
+        try
+        {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if(!readers.hasNext())
+            {
+                throw new IOException("unreadable drawable " + name);
+            }
+            ImageReader reader = readers.next();
+            try
+            {
+                reader.setInput(in);
+                float scale = DESIGN_DENSITY / (float)DRAWABLE_DENSITY;
+                widths[type.ordinal()] = (int)(reader.getWidth(0) * scale + 0.5f);
+                heights[type.ordinal()] = (int)(reader.getHeight(0) * scale + 0.5f);
+            }
+            catch (IOException e)
+            {
+                throw new IOException("unreadable drawable " + name + ": " + e.getMessage(), e);
+            }
+            finally
+            {
+                reader.dispose();
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+}
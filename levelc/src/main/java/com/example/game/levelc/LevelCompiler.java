@@ -0,0 +1,123 @@
+package com.example.game.levelc;
+
+import com.example.game.engine.BinaryLevelFormat;
+import com.example.game.engine.LevelData;
+import com.example.game.engine.LevelLoader;
+import com.example.game.engine.PlatformBody;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Compiles the JSON level sources (see LevelLoader) into the binary level files
+// the app loads (see BinaryLevelFormat). Each level is checked against the
+// design space, its adjacent static platforms are merged, and the broadphase
+// grids over both time periods are baked in, so starting a level only copies
+// its file into memory. Run at build time by the app's compileLevels task.
+public class LevelCompiler
+{
+    // Compiles every level<N>.json in a sources folder into level<N>.lvl in an
+    // output folder. Arguments are the sources folder, the app's drawable
+    // folder (platform sizes depend on the drawables), and the output folder.
+    public static void main(String[] args)
+    {
+        if(args.length != 3)
+        {
+            System.err.println("Usage: LevelCompiler <level sources> <drawables> <output folder>");
+            System.exit(2);
+        }
+        File sourceDir = new File(args[0]);
+        DrawableSpriteMetrics metrics = new DrawableSpriteMetrics(new File(args[1]));
+        File outputDir = new File(args[2]);
+
+        File[] sources = sourceDir.listFiles();
+        if(sources == null)
+        {
+            System.err.println("No level sources folder at " + sourceDir);
+            System.exit(1);
+        }
+        Arrays.sort(sources);
+        if(!outputDir.isDirectory() && !outputDir.mkdirs())
+        {
+            System.err.println("Could not create " + outputDir);
+            System.exit(1);
+        }
+
+        // Every level is compiled before failing, so every broken level is reported
+        boolean failed = false;
+        for(int i = 0; i < sources.length; i++)
+        {
+            String name = sources[i].getName();
+            if(!name.startsWith("level") || !name.endsWith(".json"))
+            {
+                continue;
+            }
+
+            String levelName = name.substring(0, name.length() - ".json".length());
+            File output = new File(outputDir, levelName + ".lvl");
+            try
+            {
+                ArrayList<String> problems = compile(sources[i], metrics, output);
+                for(int p = 0; p < problems.size(); p++)
+                {
+                    System.err.println(name + ": " + problems.get(p));
+                }
+                failed |= !problems.isEmpty();
+            }
+            catch (IOException e)
+            {
+                System.err.println(name + ": " + e.getMessage());
+                failed = true;
+            }
+        }
+        if(failed)
+        {
+            System.exit(1);
+        }
+    }
+
+    // Compiles one level source into a binary level file, returning what's
+    // wrong with the level. Nothing is written for a level with problems. A
+    // drawable the level needs that's missing or unreadable is thrown as an
+    // IOException, like a level source that can't be read.
+    public static ArrayList<String> compile(File source, DrawableSpriteMetrics metrics, File output) throws IOException
+    {
+        LevelData level = LevelLoader.read(new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8));
+
+        ArrayList<String> problems = level.checkBounds(PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT);
+        if(!problems.isEmpty())
+        {
+            return problems;
+        }
+
+        int platforms = level.getPlatformCount();
+        int merges = level.mergeStaticPlatforms();
+        try
+        {
+            level.bakePlatformGrids(metrics, PlatformBody.MAX_WIDTH, PlatformBody.MAX_HEIGHT);
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+
+        OutputStream out = new FileOutputStream(output);
+        try
+        {
+            BinaryLevelFormat.write(level, out);
+        }
+        finally
+        {
+            out.close();
+        }
+        System.out.println(source.getName() + ": " + platforms + " platforms, " + merges + " merged, " + output.length() + " bytes");
+        return problems;
+    }
+}